@@ -0,0 +1,48 @@
+package com.ecole.gestion_scolaire.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contrôle d'admission des endpoints /api (app.admission.*) : un client qui boucle sur une liste est limité
+ * par son propre débit, et les listes ne peuvent pas prendre les connexions dont ont besoin les autres endpoints
+ * Les limites de requêtes simultanées sont à garder sous la taille du pool (DB_POOL_SIZE)
+ * Derrière un répartiteur de charge, l'adresse du client vient de X-Forwarded-For (server.forward-headers-strategy),
+ * sans quoi tous les clients partageraient le seau de l'adresse du répartiteur
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(
+            @Value("${app.admission.client.rate:50}") double rate,
+            @Value("${app.admission.client.burst:100}") int burst,
+            @Value("${app.admission.client.max-tracked:100000}") long maxTrackedClients,
+            @Value("${app.admission.client.header:X-API-Key}") String clientHeader,
+            @Value("${app.admission.client.api-keys:}") Set<String> apiKeys,
+            @Value("${app.admission.concurrency.list:4}") int listLimit,
+            @Value("${app.admission.concurrency.lookup:10}") int lookupLimit,
+            @Value("${app.admission.concurrency.write:6}") int writeLimit,
+            @Value("${app.admission.concurrency.feed:5000}") int feedLimit,
+            MeterRegistry meterRegistry) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+            new ClientRateLimiter(rate, burst, maxTrackedClients), clientHeader, apiKeys,
+            Map.of(EndpointClass.LIST, listLimit, EndpointClass.LOOKUP, lookupLimit, EndpointClass.WRITE, writeLimit,
+                EndpointClass.FEED, feedLimit),
+            meterRegistry);
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        // Après le filtre d'observation (les refus restent visibles dans http.server.requests), avant tout le reste
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
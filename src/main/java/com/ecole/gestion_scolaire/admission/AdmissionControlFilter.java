@@ -0,0 +1,162 @@
+package com.ecole.gestion_scolaire.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Contrôle d'admission devant les contrôleurs (et donc devant le pool de connexions) :
+ * - débit par client (ClientRateLimiter), client identifié par sa clé d'API (en-tête) si elle fait partie des clés
+ *   connues, sinon par son adresse IP : une clé inventée à chaque requête n'ouvre pas un nouveau seau
+ * - nombre de requêtes simultanées par classe d'endpoint (EndpointClass), sans attente : une requête sans place
+ *   est refusée immédiatement au lieu d'attendre une connexion
+ * Refus : 429 (Too Many Requests) avec Retry-After, compté dans admission.rejected{class,reason}
+ * Les requêtes asynchrones (flux, réactif) gardent leur place jusqu'à la fin de la réponse
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    public static final String REJECTED_METRIC = "admission.rejected";
+
+    public static final String IN_FLIGHT_METRIC = "admission.in-flight";
+
+    private final ClientRateLimiter rateLimiter;
+
+    private final String clientHeader;
+
+    private final Set<String> apiKeys;
+
+    private final Map<EndpointClass, Semaphore> permits = new EnumMap<>(EndpointClass.class);
+
+    private final Map<EndpointClass, Counter> rateLimited = new EnumMap<>(EndpointClass.class);
+
+    private final Map<EndpointClass, Counter> overloaded = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(ClientRateLimiter rateLimiter, String clientHeader, Set<String> apiKeys,
+                                  Map<EndpointClass, Integer> concurrencyLimits, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.clientHeader = clientHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            int limit = concurrencyLimits.get(endpointClass);
+            Semaphore semaphore = new Semaphore(limit);
+            permits.put(endpointClass, semaphore);
+            rateLimited.put(endpointClass, rejectedCounter(meterRegistry, endpointClass, "rate-limit"));
+            overloaded.put(endpointClass, rejectedCounter(meterRegistry, endpointClass, "concurrency"));
+            Gauge.builder(IN_FLIGHT_METRIC, semaphore, s -> limit - s.availablePermits())
+                .description("Requêtes admises en cours, par classe d'endpoint")
+                .tag("class", endpointClass.tag())
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), path);
+
+        long waitNanos = rateLimiter.tryAcquire(clientKey(request));
+        if (waitNanos > 0) {
+            rateLimited.get(endpointClass).increment();
+            reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+            return;
+        }
+
+        Semaphore semaphore = permits.get(endpointClass);
+        if (!semaphore.tryAcquire()) {
+            overloaded.get(endpointClass).increment();
+            reject(response, 1);
+            return;
+        }
+
+        boolean releasedLater = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener(semaphore));
+                releasedLater = true;
+            }
+        } finally {
+            if (!releasedLater) {
+                semaphore.release();
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String apiKey = request.getHeader(clientHeader);
+        return StringUtils.hasText(apiKey) && apiKeys.contains(apiKey) ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        response.setStatus(429);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getOutputStream().write(("Erreur 429 : Trop de requêtes, veuillez réessayer dans "
+            + retryAfterSeconds + " s.").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, EndpointClass endpointClass, String reason) {
+        return Counter.builder(REJECTED_METRIC)
+            .description("Requêtes refusées par le contrôle d'admission (429)")
+            .tag("class", endpointClass.tag())
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+
+    // Libère la place d'une requête asynchrone une seule fois, quelle que soit la façon dont elle se termine
+    private static final class ReleasingListener implements AsyncListener {
+
+        private final Semaphore semaphore;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingListener(Semaphore semaphore) {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                semaphore.release();
+            }
+        }
+    }
+}
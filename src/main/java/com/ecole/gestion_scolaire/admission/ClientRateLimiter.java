@@ -0,0 +1,52 @@
+package com.ecole.gestion_scolaire.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons par client (clé d'API ou adresse IP), sans verrou
+ * Algorithme GCRA, équivalent à un seau de capacité burst rempli à rate jetons par seconde : l'état d'un client
+ * tient dans un seul long (instant théorique de la prochaine requête), mis à jour par compareAndSet
+ * Les clients inactifs sont oubliés (taille et durée bornées) : une rafale d'adresses différentes
+ * ne fait pas grossir la mémoire indéfiniment
+ */
+public class ClientRateLimiter {
+
+    private final long emissionIntervalNanos;
+
+    private final long burstToleranceNanos;
+
+    private final Cache<String, AtomicLong> clients;
+
+    public ClientRateLimiter(double ratePerSecond, int burst, long maxClients) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * Math.max(1, burst);
+        this.clients = Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofNanos(Math.max(burstToleranceNanos, 60_000_000_000L)))
+            .build();
+    }
+
+    /**
+     * Prend un jeton pour ce client : 0 si la requête est admise, sinon le délai (en nanosecondes)
+     * avant qu'un jeton soit disponible
+     */
+    public long tryAcquire(String client) {
+        AtomicLong theoreticalArrival = clients.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current == Long.MIN_VALUE || current < now ? now : current) + emissionIntervalNanos;
+            long excess = next - now - burstToleranceNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecole.gestion_scolaire.admission;
+
+import java.util.regex.Pattern;
+
+/**
+ * Classe de coût d'un endpoint, chacune avec sa propre limite de requêtes simultanées :
+ * les listes (coûteuses) ne peuvent pas occuper tout le pool de connexions au détriment des lectures par ID
+ */
+public enum EndpointClass {
+
+    // Listes complètes, pages, flux, exports, listes d'inscrits, statistiques, recherche
+    LIST("list"),
+    // Lecture d'un élément par ID (souvent servie par le cache)
+    LOOKUP("lookup"),
+    // Créations, modifications et suppressions
+    WRITE("write"),
+    // Abonnements au flux de modifications : connexions longues qui n'utilisent pas le pool de connexions
+    FEED("feed");
+
+    private static final Pattern LOOKUP_PATH =
+        Pattern.compile("/api/(students|courses|enrollments|reactive/students|reactive/courses)/\\d+|/api/enrollments/tickets/[^/]+");
+
+    private static final Pattern FEED_PATH = Pattern.compile("/api/changes/?");
+
+    private final String tag;
+
+    EndpointClass(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * Classe d'une requête d'après sa méthode et son chemin (sans le context path)
+     */
+    public static EndpointClass of(String method, String path) {
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            return WRITE;
+        }
+        if (FEED_PATH.matcher(path).matches()) {
+            return FEED;
+        }
+        return LOOKUP_PATH.matcher(path).matches() ? LOOKUP : LIST;
+    }
+}
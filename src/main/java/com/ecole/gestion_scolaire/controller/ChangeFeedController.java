@@ -0,0 +1,46 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.web.ChangeFeedSubscriptions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Flux des modifications validées (inscriptions créées ou supprimées, étudiants et cours créés, modifiés
+ * ou supprimés), en Server-Sent Events : remplace l'interrogation périodique des listes
+ */
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "*")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeedSubscriptions subscriptions;
+
+    /**
+     * S'abonner au flux de modifications
+     * GET /api/changes (Accept: text/event-stream)
+     * En-tête Last-Event-ID (envoyé automatiquement par EventSource à la reconnexion) ou paramètre lastEventId :
+     * reprend après cet événement sans recharger les listes ; sans lui, seules les nouvelles modifications sont envoyées
+     * Nom de l'événement = type de la modification (enrollment.created, course.updated, ...), données = ChangeEvent
+     * Événement « reset » si des modifications ont été perdues : le client doit recharger ses données
+     * Un ID d'avant un redémarrage du serveur donne aussi « reset »
+     * Retourne 400 (Bad Request) si Last-Event-ID n'est pas un ID d'événement (époque-numéro)
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventIdHeader,
+                                @RequestParam(required = false) String lastEventId) {
+        if (lastEventId == null && lastEventIdHeader != null && !lastEventIdHeader.isBlank()) {
+            lastEventId = lastEventIdHeader.trim();
+        }
+        try {
+            return subscriptions.subscribe(lastEventId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                "Erreur 400 : Last-Event-ID invalide : " + lastEventId);
+        }
+    }
+}
@@ -1,19 +1,46 @@
 package com.ecole.gestion_scolaire.controller;
 
+import com.ecole.gestion_scolaire.dto.BulkDeleteReport;
+import com.ecole.gestion_scolaire.dto.CourseDetails;
+import com.ecole.gestion_scolaire.dto.CourseStatistics;
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.KeysetPage;
+import com.ecole.gestion_scolaire.dto.RosterVersion;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.dto.WaitlistEntrySummary;
 import com.ecole.gestion_scolaire.model.Course;
-import com.ecole.gestion_scolaire.model.Enrollment;
-import com.ecole.gestion_scolaire.model.Student;
 import com.ecole.gestion_scolaire.repository.CourseRepository;
 import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.service.CachedLookupService;
+import com.ecole.gestion_scolaire.service.ChangeFeed;
+import com.ecole.gestion_scolaire.service.CourseSeatService;
+import com.ecole.gestion_scolaire.service.CourseUpdateService;
+import com.ecole.gestion_scolaire.service.EnrollmentCounterService;
+import com.ecole.gestion_scolaire.service.EnrollmentService;
+import com.ecole.gestion_scolaire.service.EnrollmentTimelineService;
+import com.ecole.gestion_scolaire.service.SparseReadService;
+import com.ecole.gestion_scolaire.web.EntityTags;
+import com.ecole.gestion_scolaire.web.FieldSelection;
+import com.ecole.gestion_scolaire.web.ResponseStreamWriter;
+import com.ecole.gestion_scolaire.web.KeysetPagination;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.PositiveOrZero;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST pour gérer les opérations CRUD sur les cours
@@ -23,22 +50,54 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*") // Permet les requêtes depuis n'importe quelle origine
 public class CourseController {
 
+    // Champs de la vue en cache (CourseSummary) pour fields= sur GET /api/courses/{id}
+    private static final List<String> CACHED_COURSE_FIELDS = List.of("id", "titre", "description", "professeur", "version");
+
     @Autowired
     private CourseRepository courseRepository;
 
     @Autowired
     private EnrollmentRepository enrollmentRepository;
 
+    @Autowired
+    private CachedLookupService cachedLookupService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private EnrollmentCounterService enrollmentCounterService;
+
+    @Autowired
+    private CourseSeatService seatService;
+
+    @Autowired
+    private CourseUpdateService courseUpdateService;
+
+    @Autowired
+    private EnrollmentTimelineService timelineService;
+
+    @Autowired
+    private SparseReadService sparseReadService;
+
+    @Autowired
+    private ResponseStreamWriter responseStreamWriter;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
     /**
      * Ajouter un nouveau cours
      * POST /api/courses
+     * capacite optionnelle (nombre maximal d'inscrits, illimité si absente)
      * Retourne 201 (Created) si succès, 400 (Bad Request) si erreur de validation
      */
     @PostMapping
     public ResponseEntity<?> createCourse(@Valid @RequestBody Course course) {
         try {
             Course savedCourse = courseRepository.save(course);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedCourse);
+            changeFeed.publish(ChangeFeed.COURSE_CREATED, savedCourse.getId(), null, savedCourse.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(CourseDetails.of(savedCourse));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body("Erreur lors de la création : " + e.getMessage());
@@ -47,26 +106,119 @@ public class CourseController {
 
     /**
      * Lister tous les cours
-     * GET /api/courses
-     * Retourne 200 (OK) avec la liste des cours
+     * GET /api/courses?fields=id,titre&include=students (paramètres optionnels)
+     * fields : colonnes lues et renvoyées (id toujours présent) ; include=students : étudiants de chaque cours,
+     * lus en une seule requête pour toute la liste
+     * Retourne 200 (OK) avec la liste des cours, leur capacité et leurs places restantes,
+     * 400 (Bad Request) si un champ ou une inclusion est inconnu
      */
     @GetMapping
-    public ResponseEntity<List<Course>> getAllCourses() {
-        List<Course> courses = courseRepository.findAll();
+    public ResponseEntity<?> getAllCourses(@RequestParam(required = false) String fields,
+                                           @RequestParam(required = false) String include) {
+        if (fields == null && include == null) {
+            List<CourseDetails> courses = courseRepository.findAllDetails();
+            return ResponseEntity.ok(courses);
+        }
+        if (include != null && !include.equals("students")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : Inclusion inconnue : " + include + " (seule include=students est possible).");
+        }
+        List<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, SparseReadService.COURSE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : " + e.getMessage());
+        }
+
+        List<Map<String, Object>> courses = sparseReadService.findCourses(selected);
+        if (include != null) {
+            SparseReadService.attach(courses, "students", sparseReadService.findStudentsByCourse(null));
+        }
         return ResponseEntity.ok(courses);
     }
 
+    /**
+     * Statistiques d'inscription : nombre d'inscrits par cours (du plus suivi au moins suivi) et par professeur
+     * GET /api/courses/statistics?top=10 (top optionnel : limite la liste des cours)
+     * Retourne 200 (OK) avec les statistiques, calculées à partir des compteurs sans lire les inscriptions
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<CourseStatistics> getCourseStatistics(@RequestParam(required = false) Integer top) {
+        return ResponseEntity.ok(enrollmentCounterService.statistics(top));
+    }
+
+    /**
+     * Lister les cours page par page (pagination par curseur)
+     * GET /api/courses/page?afterId=0&size=50
+     * Retourne 200 (OK) avec la page et le curseur nextAfterId de la page suivante (null si dernière page)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<CourseSummary>> getCoursesPage(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = KeysetPagination.boundedSize(size);
+        List<CourseSummary> rows = courseRepository.findPageAfter(afterId, KeysetPagination.probe(pageSize));
+        return ResponseEntity.ok(KeysetPagination.toPage(rows, pageSize, CourseSummary::getId));
+    }
+
+    /**
+     * Lister tous les cours en flux continu
+     * GET /api/courses/stream
+     * Retourne 200 (OK) avec un tableau JSON écrit au fur et à mesure de la lecture en base
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllCourses() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(responseStreamWriter.jsonArray(courseRepository::streamAll));
+    }
+
     /**
      * Obtenir un cours par son ID
-     * GET /api/courses/{id}
-     * Retourne 200 (OK) si trouvé, 404 (Not Found) si non trouvé
+     * GET /api/courses/{id}?fields=id,titre&include=students (paramètres optionnels, comme pour la liste)
+     * include=students remplace l'appel séparé à /api/courses/{id}/students
+     * Retourne 200 (OK) avec un ETag si trouvé, 304 (Not Modified) si If-None-Match correspond à la version,
+     * 400 (Bad Request) si un champ ou une inclusion est inconnu, 404 (Not Found) si non trouvé
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getCourseById(@PathVariable Long id) {
-        Optional<Course> course = courseRepository.findById(id);
+    public ResponseEntity<?> getCourseById(@PathVariable Long id,
+                                           @RequestParam(required = false) String fields,
+                                           @RequestParam(required = false) String include,
+                                           WebRequest webRequest) {
+        if (include != null && !include.equals("students")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : Inclusion inconnue : " + include + " (seule include=students est possible).");
+        }
+        List<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, CACHED_COURSE_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : " + e.getMessage());
+        }
+
+        // Lecture via le cache (invalidé par la modification et la suppression)
+        Optional<CourseSummary> course = cachedLookupService.findCourse(id);
         
         if (course.isPresent()) {
-            return ResponseEntity.ok(course.get());
+            if (include == null) {
+                // Un client à jour reçoit 304 sans corps, sans accès à la base si le cours est en cache
+                if (webRequest.checkNotModified(EntityTags.of("course", id, course.get().getVersion()))) {
+                    return null;
+                }
+                return ResponseEntity.ok(fields == null ? course.get() : FieldSelection.project(course.get(), selected));
+            }
+
+            // Cours (cache) et ses étudiants (une requête avec jointure) ; l'ETag couvre les deux
+            RosterVersion version = enrollmentRepository.findStudentsVersionByCourseId(id);
+            if (webRequest.checkNotModified(
+                    EntityTags.ofEmbedded("course", id, course.get().getVersion(), "students", version))) {
+                return null;
+            }
+            Map<String, Object> body = FieldSelection.project(course.get(), selected);
+            body.put("students", enrollmentRepository.findStudentsByCourseId(id));
+            return ResponseEntity.ok(body);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé.");
@@ -76,33 +228,64 @@ public class CourseController {
     /**
      * Modifier un cours existant
      * PUT /api/courses/{id}
-     * Retourne 200 (OK) si modifié, 404 (Not Found) si non trouvé, 400 (Bad Request) si erreur
+     * En-tête If-Match optionnel : ETag obtenu par GET /api/courses/{id}
+     * capacite absente = inchangée ; une capacité augmentée inscrit aussitôt les premiers de la liste d'attente
+     * (suppression de la limite : PUT /api/courses/{id}/capacity)
+     * Retourne 200 (OK) avec le nouvel ETag si modifié, 404 (Not Found) si non trouvé,
+     * 412 (Precondition Failed) si If-Match ne correspond plus à la version en base,
+     * 409 (Conflict) si une autre modification a eu lieu pendant la requête, 400 (Bad Request) si erreur
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateCourse(@PathVariable Long id, @Valid @RequestBody Course courseDetails) {
+    public ResponseEntity<?> updateCourse(@PathVariable Long id, @Valid @RequestBody Course courseDetails,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Optional<Course> optionalCourse = courseRepository.findById(id);
-            
-            if (optionalCourse.isPresent()) {
-                Course course = optionalCourse.get();
-                
-                // Mettre à jour les champs
-                course.setTitre(courseDetails.getTitre());
-                course.setDescription(courseDetails.getDescription());
-                course.setProfesseur(courseDetails.getProfesseur());
-                
-                Course updatedCourse = courseRepository.save(course);
-                return ResponseEntity.ok(updatedCourse);
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé.");
-            }
+            return updated(id, courseUpdateService.update(id, courseDetails, ifMatch));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Erreur 409 : Le cours a été modifié par une autre requête, veuillez réessayer.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur lors de la modification : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Changer la capacité d'un cours
+     * PUT /api/courses/{id}/capacity
+     * Body : {"capacite": 30}, ou {"capacite": null} pour une capacité illimitée
+     * En-tête If-Match optionnel : ETag obtenu par GET /api/courses/{id}
+     * Une capacité augmentée (ou supprimée) inscrit aussitôt les premiers de la liste d'attente
+     * Retourne 200 (OK) avec le nouvel ETag, 404 (Not Found) si non trouvé,
+     * 412 (Precondition Failed) si If-Match ne correspond plus à la version en base, 400 (Bad Request) si erreur
+     */
+    @PutMapping("/{id}/capacity")
+    public ResponseEntity<?> changeCapacity(@PathVariable Long id, @Valid @RequestBody CapacityRequest request,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return updated(id, courseUpdateService.changeCapacity(id, request.getCapacite(), ifMatch));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body("Erreur lors de la modification : " + e.getMessage());
         }
     }
 
+    // Réponse commune aux modifications, une fois la transaction validée
+    private ResponseEntity<?> updated(Long id, CourseUpdateService.Outcome outcome) {
+        return switch (outcome.status()) {
+            case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé.");
+            case PRECONDITION_FAILED -> ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .body("Erreur 412 : Le cours a été modifié depuis sa lecture.");
+            case UPDATED -> {
+                cachedLookupService.evictCourse(id);
+                changeFeed.publish(ChangeFeed.COURSE_UPDATED, id, null, id);
+                yield ResponseEntity.ok()
+                    .eTag(EntityTags.of("course", id, outcome.course().getVersion()))
+                    .body(CourseDetails.of(outcome.course()));
+            }
+        };
+    }
+
     /**
      * Supprimer un cours
      * DELETE /api/courses/{id}
@@ -110,10 +293,9 @@ public class CourseController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteCourse(@PathVariable Long id) {
-        Optional<Course> course = courseRepository.findById(id);
-        
-        if (course.isPresent()) {
-            courseRepository.deleteById(id);
+        // Supprime le cours, ses inscriptions et son compteur
+        if (enrollmentService.deleteCourse(id)) {
+            cachedLookupService.evictCourse(id);
             return ResponseEntity.ok("Cours avec l'ID " + id + " a été supprimé avec succès.");
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -121,27 +303,137 @@ public class CourseController {
         }
     }
 
+    /**
+     * Supprimer plusieurs cours (fin de semestre) avec leurs inscriptions
+     * POST /api/courses/bulk-delete
+     * Body: [ 1, 2, 3 ]
+     * Retourne 200 (OK) avec le nombre de cours et d'inscriptions supprimés et les IDs non trouvés,
+     * 400 (Bad Request) si la liste est vide ou dépasse la taille maximale
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<?> deleteCourses(@RequestBody List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.contains(null)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : La liste des IDs de cours est vide ou invalide.");
+        }
+        if (ids.size() > EnrollmentService.MAX_BULK_DELETE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : Au plus " + EnrollmentService.MAX_BULK_DELETE_SIZE + " cours par requête.");
+        }
+
+        BulkDeleteReport report = enrollmentService.deleteCourses(ids);
+        ids.forEach(cachedLookupService::evictCourse);
+        return ResponseEntity.ok(report);
+    }
+
     /**
      * Lister les étudiants inscrits à un cours
      * GET /api/courses/{id}/students
-     * Retourne 200 (OK) avec la liste des étudiants, 404 si cours non trouvé
+     * Retourne 200 (OK) avec la liste des étudiants et un ETag, 304 (Not Modified) si la liste n'a pas changé,
+     * 404 si cours non trouvé
      */
     @GetMapping("/{id}/students")
-    public ResponseEntity<?> getStudentsByCourse(@PathVariable Long id) {
-        Optional<Course> courseOpt = courseRepository.findById(id);
-        
-        if (courseOpt.isEmpty()) {
+    public ResponseEntity<?> getStudentsByCourse(@PathVariable Long id, WebRequest webRequest) {
+        if (cachedLookupService.findCourse(id).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé.");
         }
 
-        Course course = courseOpt.get();
-        List<Enrollment> enrollments = enrollmentRepository.findByCourse(course);
-        List<Student> students = enrollments.stream()
-            .map(Enrollment::getStudent)
-            .collect(Collectors.toList());
+        // Version agrégée (une ligne) : la liste n'est lue que si elle a changé
+        RosterVersion version = enrollmentRepository.findStudentsVersionByCourseId(id);
+        if (webRequest.checkNotModified(EntityTags.ofRoster("course", id, "students", version))) {
+            return null;
+        }
 
+        // Une seule requête avec jointure au lieu d'un SELECT par inscription
+        List<StudentSummary> students = enrollmentRepository.findStudentsByCourseId(id);
         return ResponseEntity.ok(students);
     }
-}
 
+    /**
+     * Lister les inscriptions d'un cours entre deux dates incluses
+     * GET /api/courses/{id}/enrollments?from=2024-01-01&to=2024-06-30
+     * Retourne 200 (OK) avec les inscriptions (id, dateInscription, studentId, courseId) par date,
+     * 400 si from est postérieure à to, 404 si cours non trouvé
+     */
+    @GetMapping("/{id}/enrollments")
+    public ResponseEntity<?> getEnrollmentsBetween(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : La date de début doit précéder la date de fin.");
+        }
+        if (cachedLookupService.findCourse(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé.");
+        }
+
+        List<EnrollmentSummary> enrollments = timelineService.findBetween(id, from, to);
+        return ResponseEntity.ok(enrollments);
+    }
+
+    /**
+     * Nombre d'inscriptions d'un cours par jour, semaine (commençant le lundi) ou mois, entre deux dates incluses
+     * GET /api/courses/{id}/enrollments/timeline?from=2024-01-01&to=2024-06-30&bucket=day|week|month
+     * Retourne 200 (OK) avec le total et les périodes non vides, 400 si from est postérieure à to ou bucket inconnu,
+     * 404 si cours non trouvé
+     */
+    @GetMapping("/{id}/enrollments/timeline")
+    public ResponseEntity<?> getEnrollmentTimeline(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String bucket) {
+        if (from.isAfter(to)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : La date de début doit précéder la date de fin.");
+        }
+        Optional<EnrollmentTimelineService.Bucket> period = EnrollmentTimelineService.Bucket.parse(bucket);
+        if (period.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : Période inconnue (day, week ou month) : " + bucket);
+        }
+        if (cachedLookupService.findCourse(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé.");
+        }
+
+        // Comptage par jour dans la base, sans charger d'inscription
+        return ResponseEntity.ok(timelineService.timeline(id, from, to, period.get()));
+    }
+
+    /**
+     * Lister la liste d'attente d'un cours complet, dans l'ordre de promotion
+     * GET /api/courses/{id}/waitlist
+     * Retourne 200 (OK) avec les entrées et leur position, 404 si cours non trouvé
+     */
+    @GetMapping("/{id}/waitlist")
+    public ResponseEntity<?> getWaitlist(@PathVariable Long id) {
+        if (cachedLookupService.findCourse(id).isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé.");
+        }
+
+        List<WaitlistEntrySummary> entries = seatService.findWaitlist(id);
+        return ResponseEntity.ok(entries);
+    }
+
+    /**
+     * Corps de PUT /api/courses/{id}/capacity
+     */
+    public static class CapacityRequest {
+        // Nombre maximal d'inscrits, null = illimité
+        @PositiveOrZero
+        private Integer capacite;
+
+        public Integer getCapacite() {
+            return capacite;
+        }
+
+        public void setCapacite(Integer capacite) {
+            this.capacite = capacite;
+        }
+    }
+}
@@ -1,21 +1,39 @@
 package com.ecole.gestion_scolaire.controller;
 
-import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.dto.BulkEnrollmentReport;
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentExportRow;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentTicket;
+import com.ecole.gestion_scolaire.dto.KeysetPage;
+import com.ecole.gestion_scolaire.dto.RosterVersion;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
 import com.ecole.gestion_scolaire.model.Enrollment;
-import com.ecole.gestion_scolaire.model.Student;
-import com.ecole.gestion_scolaire.repository.CourseRepository;
 import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
-import com.ecole.gestion_scolaire.repository.StudentRepository;
-import jakarta.validation.Valid;
+import com.ecole.gestion_scolaire.service.BulkEnrollmentService;
+import com.ecole.gestion_scolaire.service.CachedLookupService;
+import com.ecole.gestion_scolaire.service.EnrollmentConflicts;
+import com.ecole.gestion_scolaire.service.EnrollmentMembershipFilter;
+import com.ecole.gestion_scolaire.service.EnrollmentService;
+import com.ecole.gestion_scolaire.service.EnrollmentWriteBehindQueue;
+import com.ecole.gestion_scolaire.web.EntityTags;
+import com.ecole.gestion_scolaire.web.ResponseStreamWriter;
+import com.ecole.gestion_scolaire.web.KeysetPagination;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST pour gérer les inscriptions (Enrollment)
@@ -25,57 +43,105 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = "*")
 public class EnrollmentController {
 
+    private static final String DUPLICATE_ENROLLMENT_MESSAGE = "Erreur 400 : L'étudiant est déjà inscrit à ce cours.";
+
     @Autowired
     private EnrollmentRepository enrollmentRepository;
 
     @Autowired
-    private StudentRepository studentRepository;
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    @Autowired
+    private CachedLookupService cachedLookupService;
+
+    @Autowired
+    private EnrollmentMembershipFilter membershipFilter;
 
     @Autowired
-    private CourseRepository courseRepository;
+    private EnrollmentWriteBehindQueue writeBehindQueue;
+
+    @Autowired
+    private ResponseStreamWriter responseStreamWriter;
 
     /**
      * Inscrire un étudiant à un cours
      * POST /api/enrollments
      * Body: { "studentId": 1, "courseId": 1, "dateInscription": "2024-01-15" }
-     * Retourne 201 (Created) si succès, 400 (Bad Request) ou 404 (Not Found) si erreur
+     * Retourne 201 (Created) avec l'inscription créée (id, dateInscription, studentId, courseId) si succès,
+     * 202 (Accepted) avec l'entrée de liste d'attente (et sa position) si le cours est complet,
+     * 400 (Bad Request) ou 404 (Not Found) si erreur
+     * En mode asynchrone (app.enrollments.write-behind.enabled) : 202 (Accepted) avec un ticket à suivre via
+     * GET /api/enrollments/tickets/{ticketId}, 503 (Service Unavailable) avec Retry-After si la file est pleine
      */
     @PostMapping
     public ResponseEntity<?> enrollStudentToCourse(@RequestBody EnrollmentRequest request) {
         try {
-            // Vérifier que l'étudiant existe
-            Optional<Student> studentOpt = studentRepository.findById(request.getStudentId());
-            if (studentOpt.isEmpty()) {
+            // Vérifier que l'étudiant existe (lecture via le cache)
+            if (cachedLookupService.findStudent(request.getStudentId()).isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Erreur 404 : Étudiant avec l'ID " + request.getStudentId() + " non trouvé.");
             }
 
-            // Vérifier que le cours existe
-            Optional<Course> courseOpt = courseRepository.findById(request.getCourseId());
-            if (courseOpt.isEmpty()) {
+            // Vérifier que le cours existe (lecture via le cache)
+            if (cachedLookupService.findCourse(request.getCourseId()).isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Erreur 404 : Cours avec l'ID " + request.getCourseId() + " non trouvé.");
             }
 
-            Student student = studentOpt.get();
-            Course course = courseOpt.get();
-
             // Vérifier si l'étudiant est déjà inscrit à ce cours
-            if (enrollmentRepository.existsByStudentAndCourse(student, course)) {
+            // Le filtre en mémoire (optionnel) évite cette requête pour les couples certainement non inscrits ;
+            // sans filtre, c'est l'index unique qui détecte le doublon lors de l'INSERT (un seul aller-retour)
+            if (membershipFilter.shouldCheckDatabase(request.getStudentId(), request.getCourseId())
+                    && enrollmentRepository.existsByStudentIdAndCourseId(request.getStudentId(), request.getCourseId())) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body("Erreur 400 : L'étudiant est déjà inscrit à ce cours.");
+                    .body(DUPLICATE_ENROLLMENT_MESSAGE);
             }
 
-            // Créer l'inscription
-            Enrollment enrollment = new Enrollment();
-            enrollment.setStudent(student);
-            enrollment.setCourse(course);
-            enrollment.setDateInscription(request.getDateInscription() != null 
-                ? request.getDateInscription() 
-                : new Date()); // Date actuelle par défaut
+            // Mode asynchrone : l'inscription est écrite plus tard, par lots ; le client suit son ticket
+            if (writeBehindQueue.isEnabled()) {
+                Optional<EnrollmentTicket> ticket = writeBehindQueue.submit(request.getStudentId(),
+                    request.getCourseId(), request.getDateInscription());
+                if (ticket.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body("Erreur 503 : Trop d'inscriptions en attente, veuillez réessayer.");
+                }
+                return ResponseEntity.accepted()
+                    .location(URI.create("/api/enrollments/tickets/" + ticket.get().getTicketId()))
+                    .body(ticket.get());
+            }
 
-            Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedEnrollment);
+            // Réserver une place, créer l'inscription (date actuelle par défaut) et incrémenter le compteur du cours
+            // Cours complet : l'étudiant est mis en liste d'attente
+            EnrollmentService.Outcome outcome;
+            try {
+                outcome = enrollmentService.create(request.getStudentId(), request.getCourseId(),
+                    request.getDateInscription());
+            } catch (DataIntegrityViolationException e) {
+                if (EnrollmentConflicts.isDuplicate(e)) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(DUPLICATE_ENROLLMENT_MESSAGE);
+                }
+                throw e;
+            }
+            switch (outcome.status()) {
+                case DUPLICATE:
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(DUPLICATE_ENROLLMENT_MESSAGE);
+                case WAITLISTED:
+                    return ResponseEntity.accepted()
+                        .location(URI.create("/api/courses/" + request.getCourseId() + "/waitlist"))
+                        .body(outcome.waitlistEntry());
+                default:
+                    break;
+            }
+            Enrollment savedEnrollment = outcome.enrollment();
+            membershipFilter.add(request.getStudentId(), request.getCourseId());
+            return ResponseEntity.status(HttpStatus.CREATED).body(new EnrollmentSummary(savedEnrollment.getId(),
+                savedEnrollment.getDateInscription(), request.getStudentId(), request.getCourseId()));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -83,25 +149,123 @@ public class EnrollmentController {
         }
     }
 
+    /**
+     * Suivre une inscription acceptée en mode asynchrone
+     * GET /api/enrollments/tickets/{ticketId}
+     * Retourne 200 (OK) avec le ticket (PENDING, CREATED, DUPLICATE...), 404 (Not Found) si inconnu ou expiré
+     */
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<?> getEnrollmentTicket(@PathVariable String ticketId) {
+        Optional<EnrollmentTicket> ticket = writeBehindQueue.findTicket(ticketId);
+
+        if (ticket.isPresent()) {
+            return ResponseEntity.ok(ticket.get());
+        } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Erreur 404 : Ticket " + ticketId + " non trouvé ou expiré.");
+        }
+    }
+
+    /**
+     * Inscrire plusieurs étudiants en une seule requête
+     * POST /api/enrollments/bulk
+     * Body: [ { "studentId": 1, "courseId": 1 }, { "studentId": 2, "courseId": 1, "dateInscription": "2024-01-15" } ]
+     * Retourne 200 (OK) avec le résultat de chaque élément (CREATED, WAITLISTED, DUPLICATE, STUDENT_NOT_FOUND...),
+     * 400 (Bad Request) si la liste est vide ou dépasse la taille maximale
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> enrollInBulk(@RequestBody List<EnrollmentRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : La liste des inscriptions est vide.");
+        }
+        if (requests.size() > BulkEnrollmentService.MAX_BULK_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : Au plus " + BulkEnrollmentService.MAX_BULK_SIZE + " inscriptions par requête.");
+        }
+
+        try {
+            BulkEnrollmentReport report = bulkEnrollmentService.enroll(requests);
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur lors de l'inscription groupée : " + e.getMessage());
+        }
+    }
+
     /**
      * Lister tous les inscriptions
      * GET /api/enrollments
-     * Retourne 200 (OK) avec la liste des inscriptions
+     * Retourne 200 (OK) avec la liste des inscriptions (id, dateInscription, studentId, courseId)
      */
     @GetMapping
-    public ResponseEntity<List<Enrollment>> getAllEnrollments() {
-        List<Enrollment> enrollments = enrollmentRepository.findAll();
+    public ResponseEntity<List<EnrollmentSummary>> getAllEnrollments() {
+        List<EnrollmentSummary> enrollments = enrollmentRepository.findAllSummaries();
         return ResponseEntity.ok(enrollments);
     }
 
+    /**
+     * Lister les inscriptions page par page (pagination par curseur)
+     * GET /api/enrollments/page?afterId=0&size=50
+     * Retourne 200 (OK) avec la page et le curseur nextAfterId de la page suivante (null si dernière page)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<EnrollmentSummary>> getEnrollmentsPage(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = KeysetPagination.boundedSize(size);
+        List<EnrollmentSummary> rows = enrollmentRepository.findPageAfter(afterId, KeysetPagination.probe(pageSize));
+        return ResponseEntity.ok(KeysetPagination.toPage(rows, pageSize, EnrollmentSummary::getId));
+    }
+
+    /**
+     * Lister toutes les inscriptions en flux continu
+     * GET /api/enrollments/stream
+     * Retourne 200 (OK) avec un tableau JSON écrit au fur et à mesure de la lecture en base
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllEnrollments() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(responseStreamWriter.jsonArray(enrollmentRepository::streamAll));
+    }
+
+    /**
+     * Exporter toutes les inscriptions avec le nom/email de l'étudiant et le titre/professeur du cours
+     * GET /api/enrollments/export?format=ndjson (par défaut) ou format=csv
+     * Retourne 200 (OK) avec un flux NDJSON (un objet par ligne) ou CSV, écrit au fur et à mesure de la lecture
+     * 400 (Bad Request) si le format est inconnu
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(@RequestParam(defaultValue = "ndjson") String format) {
+        if (format.equalsIgnoreCase("csv")) {
+            return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"inscriptions.csv\"")
+                .body(responseStreamWriter.csv(EnrollmentExportRow.CSV_HEADER,
+                    enrollmentRepository::streamExport, EnrollmentExportRow::toCsvColumns));
+        }
+        if (format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(responseStreamWriter.ndjson(enrollmentRepository::streamExport));
+        }
+        // Le type de retour doit rester StreamingResponseBody : le message d'erreur est écrit de la même façon
+        byte[] error = "Erreur 400 : Format d'export inconnu (ndjson ou csv).".getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+            .body(out -> out.write(error));
+    }
+
     /**
      * Obtenir une inscription par son ID
      * GET /api/enrollments/{id}
-     * Retourne 200 (OK) si trouvé, 404 (Not Found) si non trouvé
+     * Retourne 200 (OK) avec l'inscription (id, dateInscription, studentId, courseId) si trouvé,
+     * 404 (Not Found) si non trouvé
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> getEnrollmentById(@PathVariable Long id) {
-        Optional<Enrollment> enrollment = enrollmentRepository.findById(id);
+        Optional<EnrollmentSummary> enrollment = enrollmentRepository.findSummaryById(id);
         
         if (enrollment.isPresent()) {
             return ResponseEntity.ok(enrollment.get());
@@ -114,14 +278,13 @@ public class EnrollmentController {
     /**
      * Supprimer une inscription
      * DELETE /api/enrollments/{id}
+     * La place libérée revient au premier étudiant de la liste d'attente du cours
      * Retourne 200 (OK) si supprimé, 404 (Not Found) si non trouvé
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteEnrollment(@PathVariable Long id) {
-        Optional<Enrollment> enrollment = enrollmentRepository.findById(id);
-        
-        if (enrollment.isPresent()) {
-            enrollmentRepository.deleteById(id);
+        // Supprime l'inscription, décrémente le compteur du cours et libère la place
+        if (enrollmentService.delete(id)) {
             return ResponseEntity.ok("Inscription avec l'ID " + id + " a été supprimée avec succès.");
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -132,46 +295,46 @@ public class EnrollmentController {
     /**
      * Lister les cours auxquels un étudiant est inscrit (endpoint alternatif)
      * GET /api/enrollments/students/{studentId}/courses
-     * Retourne 200 (OK) avec la liste des cours, 404 si étudiant non trouvé
+     * Retourne 200 (OK) avec la liste des cours et un ETag, 304 (Not Modified) si la liste n'a pas changé,
+     * 404 si étudiant non trouvé
      */
     @GetMapping("/students/{studentId}/courses")
-    public ResponseEntity<?> getCoursesByStudentFromEnrollment(@PathVariable Long studentId) {
-        Optional<Student> studentOpt = studentRepository.findById(studentId);
-        
-        if (studentOpt.isEmpty()) {
+    public ResponseEntity<?> getCoursesByStudentFromEnrollment(@PathVariable Long studentId, WebRequest webRequest) {
+        if (cachedLookupService.findStudent(studentId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body("Erreur 404 : Étudiant avec l'ID " + studentId + " non trouvé.");
         }
 
-        Student student = studentOpt.get();
-        List<Enrollment> enrollments = enrollmentRepository.findByStudent(student);
-        List<Course> courses = enrollments.stream()
-            .map(Enrollment::getCourse)
-            .collect(Collectors.toList());
+        // Même ETag que GET /api/students/{id}/courses : le contenu est identique
+        RosterVersion version = enrollmentRepository.findCoursesVersionByStudentId(studentId);
+        if (webRequest.checkNotModified(EntityTags.ofRoster("student", studentId, "courses", version))) {
+            return null;
+        }
 
+        List<CourseSummary> courses = enrollmentRepository.findCoursesByStudentId(studentId);
         return ResponseEntity.ok(courses);
     }
 
     /**
      * Lister les étudiants inscrits à un cours (endpoint alternatif)
      * GET /api/enrollments/courses/{courseId}/students
-     * Retourne 200 (OK) avec la liste des étudiants, 404 si cours non trouvé
+     * Retourne 200 (OK) avec la liste des étudiants et un ETag, 304 (Not Modified) si la liste n'a pas changé,
+     * 404 si cours non trouvé
      */
     @GetMapping("/courses/{courseId}/students")
-    public ResponseEntity<?> getStudentsByCourseFromEnrollment(@PathVariable Long courseId) {
-        Optional<Course> courseOpt = courseRepository.findById(courseId);
-        
-        if (courseOpt.isEmpty()) {
+    public ResponseEntity<?> getStudentsByCourseFromEnrollment(@PathVariable Long courseId, WebRequest webRequest) {
+        if (cachedLookupService.findCourse(courseId).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body("Erreur 404 : Cours avec l'ID " + courseId + " non trouvé.");
         }
 
-        Course course = courseOpt.get();
-        List<Enrollment> enrollments = enrollmentRepository.findByCourse(course);
-        List<Student> students = enrollments.stream()
-            .map(Enrollment::getStudent)
-            .collect(Collectors.toList());
+        // Même ETag que GET /api/courses/{id}/students : le contenu est identique
+        RosterVersion version = enrollmentRepository.findStudentsVersionByCourseId(courseId);
+        if (webRequest.checkNotModified(EntityTags.ofRoster("course", courseId, "students", version))) {
+            return null;
+        }
 
+        List<StudentSummary> students = enrollmentRepository.findStudentsByCourseId(courseId);
         return ResponseEntity.ok(students);
     }
 
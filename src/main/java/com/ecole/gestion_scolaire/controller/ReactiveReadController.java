@@ -0,0 +1,111 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.service.ReactiveReadService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * Contrôleur REST en lecture seule, non bloquant : mêmes lectures que StudentController, CourseController et
+ * EnrollmentController, renvoyées en Flux/Mono (voir ReactiveReadService)
+ * Les listes sont émises élément par élément en NDJSON (application/x-ndjson) ou en Server-Sent Events
+ * (text/event-stream), au rythme du client : l'élément suivant n'est produit qu'une fois le précédent écrit
+ * Le thread de requête est libéré dès le retour de la méthode, quel que soit le débit du client
+ */
+@RestController
+@RequestMapping("/api/reactive")
+@CrossOrigin(origins = "*")
+public class ReactiveReadController {
+
+    @Autowired
+    private ReactiveReadService reactiveReadService;
+
+    /**
+     * Lister tous les étudiants
+     * GET /api/reactive/students
+     */
+    @GetMapping(value = "/students", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<StudentSummary> getAllStudents() {
+        return reactiveReadService.students();
+    }
+
+    /**
+     * Obtenir un étudiant par son ID
+     * GET /api/reactive/students/{id}
+     * Retourne 200 (OK) si trouvé, 404 (Not Found) si non trouvé
+     */
+    @GetMapping("/students/{id}")
+    public Mono<ResponseEntity<?>> getStudentById(@PathVariable Long id) {
+        return reactiveReadService.student(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Erreur 404 : Étudiant avec l'ID " + id + " non trouvé."));
+    }
+
+    /**
+     * Lister les cours d'un étudiant
+     * GET /api/reactive/students/{id}/courses
+     * Retourne 200 (OK) avec le flux des cours, 404 (Not Found) si étudiant non trouvé
+     */
+    @GetMapping(value = "/students/{id}/courses", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CourseSummary> getCoursesByStudent(@PathVariable Long id) {
+        return reactiveReadService.coursesOfStudent(id)
+            .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Erreur 404 : Étudiant avec l'ID " + id + " non trouvé.")))
+            .flatMapMany(Function.identity());
+    }
+
+    /**
+     * Lister tous les cours
+     * GET /api/reactive/courses
+     */
+    @GetMapping(value = "/courses", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<CourseSummary> getAllCourses() {
+        return reactiveReadService.courses();
+    }
+
+    /**
+     * Obtenir un cours par son ID
+     * GET /api/reactive/courses/{id}
+     * Retourne 200 (OK) si trouvé, 404 (Not Found) si non trouvé
+     */
+    @GetMapping("/courses/{id}")
+    public Mono<ResponseEntity<?>> getCourseById(@PathVariable Long id) {
+        return reactiveReadService.course(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body("Erreur 404 : Cours avec l'ID " + id + " non trouvé."));
+    }
+
+    /**
+     * Lister les étudiants inscrits à un cours
+     * GET /api/reactive/courses/{id}/students
+     * Retourne 200 (OK) avec le flux des étudiants, 404 (Not Found) si cours non trouvé
+     */
+    @GetMapping(value = "/courses/{id}/students", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<StudentSummary> getStudentsByCourse(@PathVariable Long id) {
+        return reactiveReadService.studentsOfCourse(id)
+            .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND,
+                "Erreur 404 : Cours avec l'ID " + id + " non trouvé.")))
+            .flatMapMany(Function.identity());
+    }
+
+    /**
+     * Lister toutes les inscriptions
+     * GET /api/reactive/enrollments
+     */
+    @GetMapping(value = "/enrollments", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<EnrollmentSummary> getAllEnrollments() {
+        return reactiveReadService.enrollments();
+    }
+}
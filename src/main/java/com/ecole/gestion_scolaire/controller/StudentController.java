@@ -1,19 +1,45 @@
 package com.ecole.gestion_scolaire.controller;
 
-import com.ecole.gestion_scolaire.model.Course;
-import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.KeysetPage;
+import com.ecole.gestion_scolaire.dto.RosterVersion;
+import com.ecole.gestion_scolaire.dto.StudentImportReport;
+import com.ecole.gestion_scolaire.dto.StudentSearchHit;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
 import com.ecole.gestion_scolaire.model.Student;
 import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
 import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.CachedLookupService;
+import com.ecole.gestion_scolaire.service.ChangeFeed;
+import com.ecole.gestion_scolaire.service.EnrollmentService;
+import com.ecole.gestion_scolaire.service.SparseReadService;
+import com.ecole.gestion_scolaire.service.StudentImportService;
+import com.ecole.gestion_scolaire.service.StudentSearchIndex;
+import com.ecole.gestion_scolaire.service.StudentUpdateService;
+import com.ecole.gestion_scolaire.web.EntityTags;
+import com.ecole.gestion_scolaire.web.FieldSelection;
+import com.ecole.gestion_scolaire.web.ResponseStreamWriter;
+import com.ecole.gestion_scolaire.web.KeysetPagination;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST pour gérer les opérations CRUD sur les étudiants
@@ -29,6 +55,30 @@ public class StudentController {
     @Autowired
     private EnrollmentRepository enrollmentRepository;
 
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private CachedLookupService cachedLookupService;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private StudentSearchIndex studentSearchIndex;
+
+    @Autowired
+    private ResponseStreamWriter responseStreamWriter;
+
+    @Autowired
+    private SparseReadService sparseReadService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private StudentUpdateService studentUpdateService;
+
     /**
      * Ajouter un nouvel étudiant
      * POST /api/students
@@ -44,35 +94,160 @@ public class StudentController {
             }
 
             Student savedStudent = studentRepository.save(student);
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedStudent);
+            studentSearchIndex.put(savedStudent.getId(), savedStudent.getNom(), savedStudent.getEmail());
+            changeFeed.publish(ChangeFeed.STUDENT_CREATED, savedStudent.getId(), savedStudent.getId(), null);
+            return ResponseEntity.status(HttpStatus.CREATED).body(StudentSummary.of(savedStudent));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body("Erreur lors de la création : " + e.getMessage());
         }
     }
 
+    /**
+     * Importer des étudiants depuis un fichier CSV (en-tête nom,email,telephone) ou NDJSON
+     * POST /api/students/import
+     * Content-Type: text/csv ou application/x-ndjson (le fichier est envoyé tel quel dans le corps)
+     * Retourne 200 (OK) avec le compte rendu (lignes importées, lignes rejetées et motif),
+     * 400 (Bad Request) si l'en-tête CSV est invalide
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> importStudents(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            InputStream body) {
+        StudentImportService.Format format = MediaType.parseMediaType(contentType).getSubtype().equals("csv")
+            ? StudentImportService.Format.CSV
+            : StudentImportService.Format.NDJSON;
+
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            StudentImportReport report = studentImportService.importStudents(reader, format);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur lors de l'import : " + e.getMessage());
+        }
+    }
+
     /**
      * Lister tous les étudiants
-     * GET /api/students
-     * Retourne 200 (OK) avec la liste des étudiants
+     * GET /api/students?fields=id,nom&include=courses (paramètres optionnels)
+     * fields : colonnes lues et renvoyées (id toujours présent) ; include=courses : cours de chaque étudiant,
+     * lus en une seule requête pour toute la liste
+     * Retourne 200 (OK) avec la liste des étudiants, 400 (Bad Request) si un champ ou une inclusion est inconnu
      */
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        List<Student> students = studentRepository.findAll();
+    public ResponseEntity<?> getAllStudents(@RequestParam(required = false) String fields,
+                                            @RequestParam(required = false) String include) {
+        if (fields == null && include == null) {
+            List<StudentSummary> students = studentRepository.findAllSummaries();
+            return ResponseEntity.ok(students);
+        }
+        if (include != null && !include.equals("courses")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : Inclusion inconnue : " + include + " (seule include=courses est possible).");
+        }
+        List<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, SparseReadService.STUDENT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : " + e.getMessage());
+        }
+
+        List<Map<String, Object>> students = sparseReadService.findStudents(selected);
+        if (include != null) {
+            SparseReadService.attach(students, "courses", sparseReadService.findCoursesByStudent(null));
+        }
         return ResponseEntity.ok(students);
     }
 
+    /**
+     * Lister les étudiants page par page (pagination par curseur)
+     * GET /api/students/page?afterId=0&size=50
+     * Retourne 200 (OK) avec la page et le curseur nextAfterId de la page suivante (null si dernière page)
+     */
+    @GetMapping("/page")
+    public ResponseEntity<KeysetPage<StudentSummary>> getStudentsPage(
+            @RequestParam(defaultValue = "0") Long afterId,
+            @RequestParam(required = false) Integer size) {
+        int pageSize = KeysetPagination.boundedSize(size);
+        List<StudentSummary> rows = studentRepository.findPageAfter(afterId, KeysetPagination.probe(pageSize));
+        return ResponseEntity.ok(KeysetPagination.toPage(rows, pageSize, StudentSummary::getId));
+    }
+
+    /**
+     * Lister tous les étudiants en flux continu
+     * GET /api/students/stream
+     * Retourne 200 (OK) avec un tableau JSON écrit au fur et à mesure de la lecture en base
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamAllStudents() {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(responseStreamWriter.jsonArray(studentRepository::streamAll));
+    }
+
+    /**
+     * Rechercher des étudiants par nom ou email (saisie semi-automatique)
+     * GET /api/students/search?q=dup&limit=10
+     * Chaque mot de q (2 caractères minimum) doit apparaître dans le nom ou l'email, accents et casse ignorés
+     * Retourne 200 (OK) avec les meilleurs résultats classés, 503 (Service Unavailable) pendant la construction de l'index
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchStudents(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        if (!studentSearchIndex.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Erreur 503 : L'index de recherche est en cours de construction.");
+        }
+        int boundedLimit = limit == null
+            ? StudentSearchIndex.DEFAULT_LIMIT
+            : Math.max(1, Math.min(limit, StudentSearchIndex.MAX_LIMIT));
+        List<StudentSearchHit> hits = studentSearchIndex.search(q, boundedLimit);
+        return ResponseEntity.ok(hits);
+    }
+
     /**
      * Obtenir un étudiant par son ID
-     * GET /api/students/{id}
-     * Retourne 200 (OK) si trouvé, 404 (Not Found) si non trouvé
+     * GET /api/students/{id}?fields=id,nom&include=courses (paramètres optionnels, comme pour la liste)
+     * include=courses remplace l'appel séparé à /api/students/{id}/courses
+     * Retourne 200 (OK) avec un ETag si trouvé, 304 (Not Modified) si If-None-Match correspond à la version,
+     * 400 (Bad Request) si un champ ou une inclusion est inconnu, 404 (Not Found) si non trouvé
      */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getStudentById(@PathVariable Long id) {
-        Optional<Student> student = studentRepository.findById(id);
+    public ResponseEntity<?> getStudentById(@PathVariable Long id,
+                                            @RequestParam(required = false) String fields,
+                                            @RequestParam(required = false) String include,
+                                            WebRequest webRequest) {
+        if (include != null && !include.equals("courses")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : Inclusion inconnue : " + include + " (seule include=courses est possible).");
+        }
+        List<String> selected;
+        try {
+            selected = FieldSelection.parse(fields, SparseReadService.STUDENT_FIELDS);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Erreur 400 : " + e.getMessage());
+        }
+
+        // Lecture via le cache (invalidé par la modification et la suppression)
+        Optional<StudentSummary> student = cachedLookupService.findStudent(id);
         
         if (student.isPresent()) {
-            return ResponseEntity.ok(student.get());
+            if (include == null) {
+                if (webRequest.checkNotModified(EntityTags.of("student", id, student.get().getVersion()))) {
+                    return null;
+                }
+                return ResponseEntity.ok(fields == null ? student.get() : FieldSelection.project(student.get(), selected));
+            }
+
+            // Étudiant (cache) et ses cours (une requête avec jointure) ; l'ETag couvre les deux
+            RosterVersion version = enrollmentRepository.findCoursesVersionByStudentId(id);
+            if (webRequest.checkNotModified(
+                    EntityTags.ofEmbedded("student", id, student.get().getVersion(), "courses", version))) {
+                return null;
+            }
+            Map<String, Object> body = FieldSelection.project(student.get(), selected);
+            body.put("courses", enrollmentRepository.findCoursesByStudentId(id));
+            return ResponseEntity.ok(body);
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body("Erreur 404 : Étudiant avec l'ID " + id + " non trouvé.");
@@ -82,40 +257,49 @@ public class StudentController {
     /**
      * Modifier un étudiant existant
      * PUT /api/students/{id}
-     * Retourne 200 (OK) si modifié, 404 (Not Found) si non trouvé, 400 (Bad Request) si erreur
+     * En-tête If-Match optionnel : ETag obtenu par GET /api/students/{id}
+     * Retourne 200 (OK) avec le nouvel ETag si modifié, 404 (Not Found) si non trouvé,
+     * 412 (Precondition Failed) si If-Match ne correspond plus à la version en base,
+     * 409 (Conflict) si une autre modification a eu lieu pendant la requête, 400 (Bad Request) si erreur
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateStudent(@PathVariable Long id, @Valid @RequestBody Student studentDetails) {
+    public ResponseEntity<?> updateStudent(@PathVariable Long id, @Valid @RequestBody Student studentDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Optional<Student> optionalStudent = studentRepository.findById(id);
-            
-            if (optionalStudent.isPresent()) {
-                Student student = optionalStudent.get();
-                
-                // Vérifier si l'email est modifié et s'il existe déjà pour un autre étudiant
-                if (!student.getEmail().equals(studentDetails.getEmail()) && 
-                    studentRepository.existsByEmail(studentDetails.getEmail())) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("Erreur : Un autre étudiant avec cet email existe déjà.");
-                }
-                
-                // Mettre à jour les champs
-                student.setNom(studentDetails.getNom());
-                student.setEmail(studentDetails.getEmail());
-                student.setTelephone(studentDetails.getTelephone());
-                
-                Student updatedStudent = studentRepository.save(student);
-                return ResponseEntity.ok(updatedStudent);
-            } else {
-                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+            StudentUpdateService.Outcome outcome = studentUpdateService.update(id, studentDetails, ifMatch);
+            return switch (outcome.status()) {
+                case NOT_FOUND -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body("Erreur 404 : Étudiant avec l'ID " + id + " non trouvé.");
-            }
+                case PRECONDITION_FAILED -> ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                    .body("Erreur 412 : L'étudiant a été modifié depuis sa lecture.");
+                case EMAIL_TAKEN -> emailTaken();
+                case UPDATED -> {
+                    Student updatedStudent = outcome.student();
+                    cachedLookupService.evictStudent(id);
+                    studentSearchIndex.put(id, updatedStudent.getNom(), updatedStudent.getEmail());
+                    changeFeed.publish(ChangeFeed.STUDENT_UPDATED, id, id, null);
+                    yield ResponseEntity.ok()
+                        .eTag(EntityTags.of("student", id, updatedStudent.getVersion()))
+                        .body(StudentSummary.of(updatedStudent));
+                }
+            };
+        } catch (DataIntegrityViolationException e) {
+            // Email pris par une autre requête entre la vérification et l'écriture (index unique)
+            return emailTaken();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Erreur 409 : L'étudiant a été modifié par une autre requête, veuillez réessayer.");
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body("Erreur lors de la modification : " + e.getMessage());
         }
     }
 
+    private static ResponseEntity<String> emailTaken() {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+            .body("Erreur : Un autre étudiant avec cet email existe déjà.");
+    }
+
     /**
      * Supprimer un étudiant
      * DELETE /api/students/{id}
@@ -123,10 +307,10 @@ public class StudentController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteStudent(@PathVariable Long id) {
-        Optional<Student> student = studentRepository.findById(id);
-        
-        if (student.isPresent()) {
-            studentRepository.deleteById(id);
+        // Supprime l'étudiant et ses inscriptions, en décrémentant les compteurs des cours concernés
+        if (enrollmentService.deleteStudent(id)) {
+            cachedLookupService.evictStudent(id);
+            studentSearchIndex.remove(id);
             return ResponseEntity.ok("Étudiant avec l'ID " + id + " a été supprimé avec succès.");
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -137,23 +321,24 @@ public class StudentController {
     /**
      * Lister les cours auxquels un étudiant est inscrit
      * GET /api/students/{id}/courses
-     * Retourne 200 (OK) avec la liste des cours, 404 si étudiant non trouvé
+     * Retourne 200 (OK) avec la liste des cours et un ETag, 304 (Not Modified) si la liste n'a pas changé,
+     * 404 si étudiant non trouvé
      */
     @GetMapping("/{id}/courses")
-    public ResponseEntity<?> getCoursesByStudent(@PathVariable Long id) {
-        Optional<Student> studentOpt = studentRepository.findById(id);
-        
-        if (studentOpt.isEmpty()) {
+    public ResponseEntity<?> getCoursesByStudent(@PathVariable Long id, WebRequest webRequest) {
+        if (cachedLookupService.findStudent(id).isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body("Erreur 404 : Étudiant avec l'ID " + id + " non trouvé.");
         }
 
-        Student student = studentOpt.get();
-        List<Enrollment> enrollments = enrollmentRepository.findByStudent(student);
-        List<Course> courses = enrollments.stream()
-            .map(Enrollment::getCourse)
-            .collect(Collectors.toList());
+        // Version agrégée (une ligne) : la liste n'est lue que si elle a changé
+        RosterVersion version = enrollmentRepository.findCoursesVersionByStudentId(id);
+        if (webRequest.checkNotModified(EntityTags.ofRoster("student", id, "courses", version))) {
+            return null;
+        }
 
+        // Une seule requête avec jointure au lieu d'un SELECT par inscription
+        List<CourseSummary> courses = enrollmentRepository.findCoursesByStudentId(id);
         return ResponseEntity.ok(courses);
     }
 }
@@ -0,0 +1,26 @@
+package com.ecole.gestion_scolaire.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Exceptions à l'initialisation paresseuse (spring.main.lazy-initialization, profil prod)
+ * Migrations Flyway, pools de connexions et EntityManagerFactory sont créés au démarrage : une base injoignable
+ * ou un schéma en retard fait échouer le démarrage du pod au lieu de la première requête, et la première requête
+ * ne paie pas l'initialisation d'Hibernate
+ */
+@Configuration
+public class EagerDataAccessConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerDataAccess() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+            DataSource.class, Flyway.class, FlywayMigrationInitializer.class, EntityManagerFactory.class);
+    }
+}
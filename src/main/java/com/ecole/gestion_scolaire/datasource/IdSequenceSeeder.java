@@ -0,0 +1,68 @@
+package com.ecole.gestion_scolaire.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Place les séquences d'identifiants au-dessus des IDs existants, au démarrage
+ * students et enrollments étaient en IDENTITY : sur une base existante, ddl-auto=update (ou la migration V4)
+ * crée students_seq et enrollments_seq à 1, et les premiers INSERT entreraient en collision avec les lignes en place
+ * Seules les séquences émulées par une table (MySQL) sont concernées ; UPDATE conditionnel, sans effet si la
+ * séquence est déjà au-delà, y compris quand plusieurs instances démarrent en même temps
+ */
+@Component
+@Lazy(false)
+public class IdSequenceSeeder implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceSeeder.class);
+
+    // Table de séquence -> table de l'entité (voir les @SequenceGenerator)
+    static final Map<String, String> SEQUENCES = Map.of(
+        "students_seq", "students",
+        "enrollments_seq", "enrollments",
+        "waitlist_entries_seq", "waitlist_entries");
+
+    // allocationSize des @SequenceGenerator : l'optimiseur "pooled" attribue les IDs next_val - 49 à next_val
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final boolean tableSequences;
+
+    // Dépend de l'EntityManagerFactory : migrations Flyway et ddl-auto sont passés quand les séquences sont lues
+    public IdSequenceSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableSequences = !entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect().getSequenceSupport().supportsSequences();
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (tableSequences) {
+            seed(jdbcTemplate);
+        }
+    }
+
+    /**
+     * Porte next_val de chaque table de séquence à au moins max(id) + ALLOCATION_SIZE :
+     * le prochain bloc d'IDs commence après le plus grand ID existant
+     */
+    public static void seed(JdbcTemplate jdbcTemplate) {
+        SEQUENCES.forEach((sequence, table) -> {
+            int updated = jdbcTemplate.update("update " + sequence + " set next_val = (select coalesce(max(id), 0) + "
+                + ALLOCATION_SIZE + " from " + table + ") where next_val < (select coalesce(max(id), 0) + "
+                + ALLOCATION_SIZE + " from " + table + ")");
+            if (updated > 0) {
+                log.info("Séquence {} placée après le plus grand ID de {}", sequence, table);
+            }
+        });
+    }
+}
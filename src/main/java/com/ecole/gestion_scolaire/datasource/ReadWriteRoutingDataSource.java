@@ -0,0 +1,142 @@
+package com.ecole.gestion_scolaire.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Aiguillage des connexions entre la base principale et le réplica en lecture
+ * - transaction en lecture seule (@Transactional(readOnly = true), méthodes de lecture des repositories) : réplica
+ * - transaction d'écriture, ou accès hors transaction : base principale
+ * - lecture juste après une écriture du même client (fenêtre read-your-writes) : base principale,
+ *   le réplica pouvant ne pas avoir encore reçu l'écriture
+ * - lecture dans readFromPrimary (remplissage d'un cache partagé) : base principale, une ligne périmée
+ *   lue sur le réplica serait sinon servie à tous les clients jusqu'à son expiration
+ * La décision est prise à l'obtention de la connexion physique : la source doit être enveloppée dans un
+ * LazyConnectionDataSourceProxy, sans quoi la connexion serait obtenue avant que le caractère lecture seule
+ * de la transaction soit connu
+ * Chaque décision est comptée dans la métrique datasource.routing (tags target et reason)
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String METRIC_NAME = "datasource.routing";
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    // Instant (epoch ms) jusqu'auquel les lectures du thread courant restent sur la base principale
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    // Écriture effectuée par le thread courant depuis le dernier reset (requête HTTP en cours)
+    private static final ThreadLocal<Boolean> WROTE = new ThreadLocal<>();
+
+    // Lectures du thread courant forcées sur la base principale (voir readFromPrimary)
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final long readYourWritesMillis;
+
+    private final Counter readOnly;
+
+    private final Counter write;
+
+    private final Counter readYourWrites;
+
+    private final Counter noTransaction;
+
+    private final Counter forced;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, Duration readYourWritesWindow,
+                                      MeterRegistry meterRegistry) {
+        this.readYourWritesMillis = readYourWritesWindow.toMillis();
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.readOnly = counter(meterRegistry, Target.REPLICA, "read-only");
+        this.write = counter(meterRegistry, Target.PRIMARY, "write");
+        this.readYourWrites = counter(meterRegistry, Target.PRIMARY, "read-your-writes");
+        this.noTransaction = counter(meterRegistry, Target.PRIMARY, "no-transaction");
+        this.forced = counter(meterRegistry, Target.PRIMARY, "forced");
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            noTransaction.increment();
+            return Target.PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            WROTE.set(Boolean.TRUE);
+            PRIMARY_UNTIL.set(System.currentTimeMillis() + readYourWritesMillis);
+            write.increment();
+            return Target.PRIMARY;
+        }
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            forced.increment();
+            return Target.PRIMARY;
+        }
+        Long primaryUntil = PRIMARY_UNTIL.get();
+        if (primaryUntil != null && System.currentTimeMillis() < primaryUntil) {
+            readYourWrites.increment();
+            return Target.PRIMARY;
+        }
+        readOnly.increment();
+        return Target.REPLICA;
+    }
+
+    /**
+     * Début de requête : les lectures restent sur la base principale jusqu'à primaryUntil (null = pas d'écriture récente)
+     */
+    public static void reset(Long primaryUntil) {
+        WROTE.remove();
+        if (primaryUntil == null) {
+            PRIMARY_UNTIL.remove();
+        } else {
+            PRIMARY_UNTIL.set(primaryUntil);
+        }
+    }
+
+    /**
+     * Instant jusqu'auquel les lectures du client doivent rester sur la base principale,
+     * ou null si le thread courant n'a rien écrit depuis le dernier reset
+     */
+    public static Long primaryUntilAfterWrite() {
+        return Boolean.TRUE.equals(WROTE.get()) ? PRIMARY_UNTIL.get() : null;
+    }
+
+    /**
+     * Exécute une lecture sur la base principale, même dans une transaction en lecture seule,
+     * sans ouvrir de fenêtre read-your-writes (la lecture n'est pas une écriture)
+     * Sans effet si le réplica n'est pas activé
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        if (Boolean.TRUE.equals(FORCE_PRIMARY.get())) {
+            return read.get();
+        }
+        FORCE_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            FORCE_PRIMARY.remove();
+        }
+    }
+
+    public static void clear() {
+        WROTE.remove();
+        PRIMARY_UNTIL.remove();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, Target target, String reason) {
+        return Counter.builder(METRIC_NAME)
+            .description("Connexions obtenues, par base cible et raison de l'aiguillage")
+            .tag("target", target.name().toLowerCase())
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
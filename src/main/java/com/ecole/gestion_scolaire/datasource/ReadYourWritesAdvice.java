@@ -0,0 +1,44 @@
+package com.ecole.gestion_scolaire.datasource;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Duration;
+
+/**
+ * Après une écriture, ajoute le cookie PRIMARY_UNTIL juste avant l'écriture du corps de la réponse
+ * (les en-têtes ne peuvent plus être modifiés ensuite)
+ * Sans effet si le réplica n'est pas activé : aucune écriture n'est alors enregistrée
+ */
+@ControllerAdvice
+public class ReadYourWritesAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Long primaryUntil = ReadWriteRoutingDataSource.primaryUntilAfterWrite();
+        if (primaryUntil != null) {
+            long remaining = Math.max(1, primaryUntil - System.currentTimeMillis());
+            ResponseCookie cookie = ResponseCookie.from(ReadYourWritesFilter.COOKIE, Long.toString(primaryUntil))
+                .path("/")
+                .httpOnly(true)
+                .maxAge(Duration.ofMillis(remaining).plusSeconds(1))
+                .build();
+            response.getHeaders().add(HttpHeaders.SET_COOKIE, cookie.toString());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecole.gestion_scolaire.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Read-your-writes entre requêtes : un client qui vient d'écrire reçoit le cookie PRIMARY_UNTIL
+ * (voir ReadYourWritesAdvice) ; tant qu'il n'est pas expiré, ses lectures restent sur la base principale
+ * La valeur du cookie n'est pas signée : elle est bornée à maintenant + la fenêtre read-your-writes, sinon un client
+ * pourrait garder toutes ses lectures sur la base principale en envoyant une date lointaine
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "PRIMARY_UNTIL";
+
+    private final long readYourWritesMillis;
+
+    public ReadYourWritesFilter(Duration readYourWritesWindow) {
+        this.readYourWritesMillis = readYourWritesWindow.toMillis();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ReadWriteRoutingDataSource.reset(primaryUntil(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadWriteRoutingDataSource.clear();
+        }
+    }
+
+    // Instant lu dans le cookie, au plus maintenant + la fenêtre ; null si absent ou illisible
+    Long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Math.min(Long.parseLong(cookie.getValue()), System.currentTimeMillis() + readYourWritesMillis);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
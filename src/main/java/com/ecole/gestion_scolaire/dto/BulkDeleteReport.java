@@ -0,0 +1,22 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résultat d'une suppression groupée : éléments supprimés, inscriptions supprimées avec eux, IDs inconnus
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteReport {
+
+    private int deleted;
+
+    private int enrollmentsDeleted;
+
+    private List<Long> notFound;
+}
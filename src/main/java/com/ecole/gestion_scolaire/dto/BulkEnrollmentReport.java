@@ -0,0 +1,59 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Résultat d'une inscription groupée : totaux + résultat de chaque élément, dans l'ordre de la requête
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentReport {
+
+    private int created;
+
+    // Éléments placés en liste d'attente (cours complet)
+    private int waitlisted;
+
+    private int rejected;
+
+    private List<ItemResult> results;
+
+    /**
+     * Issue possible pour un couple (étudiant, cours)
+     */
+    public enum Status {
+        CREATED,
+        WAITLISTED,
+        DUPLICATE,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        INVALID
+    }
+
+    /**
+     * Résultat pour un élément de la requête
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        private int index;
+
+        private Long studentId;
+
+        private Long courseId;
+
+        private Status status;
+
+        // ID de l'inscription créée (ou existante en cas de doublon), null sinon
+        private Long enrollmentId;
+
+        private String message;
+    }
+}
@@ -0,0 +1,30 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Modification validée, diffusée par le flux GET /api/changes
+ * type : enrollment.created, enrollment.deleted, student.created, student.updated, student.deleted,
+ * course.created, course.updated, course.deleted ; studentId et courseId sont renseignés pour les inscriptions
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+
+    private Long id;
+
+    private String type;
+
+    private Long entityId;
+
+    private Long studentId;
+
+    private Long courseId;
+
+    private Date at;
+}
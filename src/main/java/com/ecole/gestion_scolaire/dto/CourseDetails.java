@@ -0,0 +1,36 @@
+package com.ecole.gestion_scolaire.dto;
+
+import com.ecole.gestion_scolaire.model.Course;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vue d'un cours avec sa capacité (sans la collection des inscriptions)
+ * Utilisée pour la liste complète et les réponses de création et de modification ; les places restantes
+ * changent à chaque inscription, elle n'est donc jamais mise en cache (contrairement à CourseSummary)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseDetails {
+
+    private Long id;
+
+    private String titre;
+
+    private String description;
+
+    private String professeur;
+
+    private Integer capacite;
+
+    private Integer placesRestantes;
+
+    private Long version;
+
+    public static CourseDetails of(Course course) {
+        return new CourseDetails(course.getId(), course.getTitre(), course.getDescription(), course.getProfesseur(),
+            course.getCapacite(), course.getPlacesRestantes(), course.getVersion());
+    }
+}
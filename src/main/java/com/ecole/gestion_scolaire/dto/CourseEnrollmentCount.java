@@ -0,0 +1,22 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre d'inscrits d'un cours
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseEnrollmentCount {
+
+    private Long courseId;
+
+    private String titre;
+
+    private String professeur;
+
+    private Long enrollmentCount;
+}
@@ -0,0 +1,20 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Statistiques d'inscription : par cours (du plus suivi au moins suivi) et par professeur
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseStatistics {
+
+    private List<CourseEnrollmentCount> courses;
+
+    private List<ProfessorEnrollmentCount> professors;
+}
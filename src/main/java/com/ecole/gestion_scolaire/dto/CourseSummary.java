@@ -0,0 +1,25 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vue allégée d'un cours (sans la collection des inscriptions)
+ * Utilisée pour les listes paginées et les exports en flux
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSummary {
+
+    private Long id;
+
+    private String titre;
+
+    private String description;
+
+    private String professeur;
+
+    private Long version;
+}
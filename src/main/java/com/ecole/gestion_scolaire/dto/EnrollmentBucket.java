@@ -0,0 +1,20 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Nombre d'inscriptions sur une période (jour, semaine commençant le lundi ou mois), identifiée par son premier jour
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentBucket {
+
+    private LocalDate start;
+
+    private Long enrollmentCount;
+}
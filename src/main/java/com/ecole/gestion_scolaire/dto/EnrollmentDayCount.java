@@ -0,0 +1,20 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Nombre d'inscriptions d'un cours pour un jour donné (résultat du GROUP BY sur date_inscription)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentDayCount {
+
+    private Date day;
+
+    private Long enrollmentCount;
+}
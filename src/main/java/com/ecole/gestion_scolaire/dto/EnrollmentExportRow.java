@@ -0,0 +1,46 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Ligne d'export d'une inscription, avec le nom/email de l'étudiant et le titre/professeur du cours
+ * Construite directement par la requête (projection) : aucune entité n'est chargée
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentExportRow {
+
+    public static final List<String> CSV_HEADER = List.of(
+        "id", "dateInscription", "studentId", "studentNom", "studentEmail", "courseId", "courseTitre", "courseProfesseur");
+
+    private Long id;
+
+    private Date dateInscription;
+
+    private Long studentId;
+
+    private String studentNom;
+
+    private String studentEmail;
+
+    private Long courseId;
+
+    private String courseTitre;
+
+    private String courseProfesseur;
+
+    /**
+     * Valeurs dans l'ordre de CSV_HEADER
+     */
+    public List<Object> toCsvColumns() {
+        Object date = dateInscription instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : dateInscription;
+        return Arrays.asList(id, date, studentId, studentNom, studentEmail, courseId, courseTitre, courseProfesseur);
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Vue allégée d'une inscription : seuls les identifiants de l'étudiant et du cours
+ * sont exposés, ce qui évite de charger les entités associées
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentSummary {
+
+    private Long id;
+
+    private Date dateInscription;
+
+    private Long studentId;
+
+    private Long courseId;
+}
@@ -0,0 +1,47 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Suivi d'une inscription acceptée en mode asynchrone (202 Accepted)
+ * PENDING tant que l'inscription est dans la file, puis le résultat de son écriture en base
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentTicket {
+
+    private String ticketId;
+
+    private Status status;
+
+    private Long studentId;
+
+    private Long courseId;
+
+    private Long enrollmentId;
+
+    private String message;
+
+    private Date acceptedAt;
+
+    private Date completedAt;
+
+    /**
+     * PENDING, puis un des statuts de BulkEnrollmentReport.Status, ou FAILED si l'écriture a échoué
+     */
+    public enum Status {
+        PENDING,
+        CREATED,
+        WAITLISTED,
+        DUPLICATE,
+        STUDENT_NOT_FOUND,
+        COURSE_NOT_FOUND,
+        INVALID,
+        FAILED
+    }
+}
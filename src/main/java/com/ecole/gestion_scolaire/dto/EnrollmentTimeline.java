@@ -0,0 +1,29 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Inscriptions d'un cours entre deux dates, comptées par période (seules les périodes non vides sont listées)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentTimeline {
+
+    private Long courseId;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    private String bucket;
+
+    private Long total;
+
+    private List<EnrollmentBucket> buckets;
+}
@@ -0,0 +1,22 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de résultats pour la pagination par curseur (keyset)
+ * nextAfterId contient l'ID à passer en paramètre afterId pour obtenir la page suivante,
+ * ou null s'il n'y a plus de résultats
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> items;
+
+    private Long nextAfterId;
+}
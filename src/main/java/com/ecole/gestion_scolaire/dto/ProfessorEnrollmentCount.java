@@ -0,0 +1,20 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Nombre de cours et total des inscriptions d'un professeur
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProfessorEnrollmentCount {
+
+    private String professeur;
+
+    private Long courseCount;
+
+    private Long enrollmentCount;
+}
@@ -0,0 +1,22 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Version agrégée d'une liste d'inscrits (ou des cours d'un étudiant)
+ * Les IDs d'inscription ne sont jamais réutilisés et les versions ne font qu'augmenter :
+ * tout ajout, retrait ou modification d'un élément de la liste change au moins une des trois valeurs
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterVersion {
+
+    private Long count;
+
+    private Long enrollmentIdSum;
+
+    private Long versionSum;
+}
@@ -0,0 +1,63 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compte rendu d'un import d'étudiants
+ * Seules les MAX_REPORTED_REJECTIONS premières lignes rejetées sont détaillées,
+ * pour que la taille du rapport reste bornée quelle que soit la taille du fichier
+ */
+@Data
+@NoArgsConstructor
+public class StudentImportReport {
+
+    public static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    // Nombre de lignes de données lues
+    private long processed;
+
+    private long imported;
+
+    private long rejected;
+
+    // Nombre de lots validés en base
+    private int chunks;
+
+    private List<RejectedRow> rejections = new ArrayList<>();
+
+    public void rowRead() {
+        processed++;
+    }
+
+    public void chunkImported(int count) {
+        imported += count;
+        chunks++;
+    }
+
+    public void reject(long line, String email, String reason) {
+        rejected++;
+        if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+            rejections.add(new RejectedRow(line, email, reason));
+        }
+    }
+
+    /**
+     * Ligne rejetée, avec son numéro dans le fichier (en-tête compris)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+
+        private long line;
+
+        private String email;
+
+        private String reason;
+    }
+}
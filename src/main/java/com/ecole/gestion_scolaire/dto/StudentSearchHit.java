@@ -0,0 +1,22 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat de recherche d'étudiant : identité + score de pertinence (plus élevé = meilleur)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentSearchHit {
+
+    private Long id;
+
+    private String nom;
+
+    private String email;
+
+    private int score;
+}
@@ -0,0 +1,31 @@
+package com.ecole.gestion_scolaire.dto;
+
+import com.ecole.gestion_scolaire.model.Student;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vue allégée d'un étudiant (sans la collection des inscriptions)
+ * Utilisée pour toutes les réponses des endpoints étudiants (listes, flux, lecture, création, modification)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentSummary {
+
+    private Long id;
+
+    private String nom;
+
+    private String email;
+
+    private String telephone;
+
+    private Long version;
+
+    public static StudentSummary of(Student student) {
+        return new StudentSummary(student.getId(), student.getNom(), student.getEmail(), student.getTelephone(),
+            student.getVersion());
+    }
+}
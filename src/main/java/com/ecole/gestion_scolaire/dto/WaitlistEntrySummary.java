@@ -0,0 +1,33 @@
+package com.ecole.gestion_scolaire.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Entrée de liste d'attente sans ses relations (IDs seulement)
+ * position : rang dans la liste du cours, 1 = prochaine place libérée
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntrySummary {
+
+    private Long id;
+
+    private Long studentId;
+
+    private Long courseId;
+
+    private Date dateDemande;
+
+    private Date dateInscription;
+
+    private long position;
+
+    public WaitlistEntrySummary(Long id, Long studentId, Long courseId, Date dateDemande, Date dateInscription) {
+        this(id, studentId, courseId, dateDemande, dateInscription, 0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecole.gestion_scolaire.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Enregistre le nombre de requêtes SQL exécutées par requête HTTP
+ * (métrique http.server.requests.sql, par endpoint) : une régression N+1 y apparaît immédiatement
+ * L'en-tête de réponse X-SQL-Count est ajouté par SqlCountHeaderAdvice, avant l'écriture du corps
+ * Le compteur étant par thread, les requêtes traitées en asynchrone (/stream et /export via StreamingResponseBody,
+ * /api/reactive/** sur le scheduler JDBC) exécutent leur SQL hors du thread de requête : elles ne sont pas mesurées
+ * plutôt que d'enregistrer un faux zéro
+ */
+@Component
+public class SqlCountFilter extends OncePerRequestFilter {
+
+    public static final String METRIC_NAME = "http.server.requests.sql";
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.reset();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null && !request.isAsyncStarted()) {
+                DistributionSummary.builder(METRIC_NAME)
+                    .description("Nombre de requêtes SQL par requête HTTP")
+                    .tag("method", request.getMethod())
+                    .tag("uri", pattern.toString())
+                    .register(meterRegistry)
+                    .record(SqlStatementCounter.current());
+            }
+            SqlStatementCounter.clear();
+        }
+    }
+}
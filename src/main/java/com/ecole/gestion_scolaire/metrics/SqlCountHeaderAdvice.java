@@ -0,0 +1,40 @@
+package com.ecole.gestion_scolaire.metrics;
+
+import jakarta.servlet.DispatcherType;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Ajoute l'en-tête X-SQL-Count (requêtes SQL exécutées pour produire la réponse) juste avant l'écriture du corps
+ * Les chargements paresseux déclenchés pendant la sérialisation JSON ne sont comptés que par la métrique
+ * http.server.requests.sql, les en-têtes étant déjà envoyés
+ * Pas d'en-tête sur le dispatch asynchrone : le SQL a été exécuté sur un autre thread et n'est pas compté (voir SqlCountFilter)
+ */
+@ControllerAdvice
+public class SqlCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String HEADER = "X-SQL-Count";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && servletRequest.getServletRequest().getDispatcherType() == DispatcherType.ASYNC) {
+            return body;
+        }
+        response.getHeaders().set(HEADER, Integer.toString(SqlStatementCounter.current()));
+        return body;
+    }
+}
@@ -1,9 +1,13 @@
 package com.ecole.gestion_scolaire.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,9 +34,36 @@ public class Course {
     @Column(nullable = false)
     private String professeur;
 
+    // Nombre maximal d'inscrits, null = illimité
+    // Non modifiable par une mise à jour de l'entité : un changement passe par CourseSeatService.changeCapacity,
+    // qui ajuste places_restantes dans la même requête
+    @PositiveOrZero
+    @Column(updatable = false)
+    private Integer capacite;
+
+    // Places encore disponibles (null si capacité illimitée), décrémentées par UPDATE conditionnel à chaque inscription
+    // Jamais écrites par une mise à jour de l'entité : un PUT ne peut pas écraser les réservations concurrentes
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "places_restantes", updatable = false)
+    private Integer placesRestantes;
+
+    // Verrouillage optimiste, et base de l'ETag de GET /api/courses/{id} (jamais nulle, 0 par défaut en base)
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Relation One-to-Many avec Enrollment
     // Un cours peut avoir plusieurs inscriptions
+    // Jamais sérialisée : les réponses passent par des DTO (voir StudentSummary, CourseDetails)
+    @JsonIgnore
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Enrollment> enrollments = new ArrayList<>();
+
+    // À la création, toutes les places sont disponibles
+    @PrePersist
+    void initPlacesRestantes() {
+        placesRestantes = capacite;
+    }
 }
 
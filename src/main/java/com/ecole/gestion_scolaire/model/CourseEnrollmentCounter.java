@@ -0,0 +1,48 @@
+package com.ecole.gestion_scolaire.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Compteur d'inscriptions d'un cours, réparti sur plusieurs lignes ("stripes")
+ * Le nombre d'inscrits d'un cours est la somme de ses lignes. Chaque inscription incrémente une ligne
+ * choisie au hasard : les inscriptions simultanées à un même cours ne se bloquent pas toutes sur un seul verrou.
+ */
+@Entity
+@Table(name = "course_enrollment_counters")
+@IdClass(CourseEnrollmentCounter.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseEnrollmentCounter {
+
+    // Nombre de lignes par cours
+    public static final int STRIPES = 8;
+
+    @Id
+    @Column(name = "course_id")
+    private Long courseId;
+
+    @Id
+    private Integer stripe;
+
+    @Column(name = "enrollment_count", nullable = false)
+    private Long enrollmentCount;
+
+    /**
+     * Clé composite (course_id, stripe)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private Long courseId;
+
+        private Integer stripe;
+    }
+}
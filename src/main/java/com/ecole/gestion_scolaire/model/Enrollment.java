@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.Date;
 
@@ -12,20 +13,39 @@ import java.util.Date;
  * Cette entité fait le lien entre Student et Course (relation Many-to-Many)
  */
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", uniqueConstraints = @UniqueConstraint(
+    name = Enrollment.UNIQUE_STUDENT_COURSE, columnNames = {"student_id", "course_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Enrollment {
 
+    // Index unique (student_id, course_id) : un étudiant ne peut être inscrit qu'une fois à un cours
+    // C'est lui qui garantit l'absence de doublon, même pour deux inscriptions simultanées
+    public static final String UNIQUE_STUDENT_COURSE = "uk_enrollment_student_course";
+
+    // Index (course_id, student_id) et (course_id, date_inscription) : créés par les migrations V2 et V3 seulement,
+    // comme tous les index de requête. Déclarés ici, ils seraient aussi créés par ddl-auto=update, et la migration
+    // d'une telle base (baseline en V1 au passage au profil prod) échouerait sur un index déjà existant
+
+    // Identifiant issu d'une séquence "pooled" (table enrollments_seq sur MySQL) :
+    // Hibernate réserve 50 IDs à la fois, ce qui permet de regrouper les INSERT en lots JDBC
+    // (impossible avec IDENTITY, où chaque INSERT doit être exécuté seul pour obtenir son ID)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollment_seq")
+    @SequenceGenerator(name = "enrollment_seq", sequenceName = "enrollments_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "date_inscription", nullable = false)
     @Temporal(TemporalType.DATE)
     private Date dateInscription;
 
+    // Une inscription n'est jamais modifiée : la version protège surtout contre une suppression concurrente
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Relation Many-to-One avec Student
     // Plusieurs inscriptions peuvent appartenir à un même étudiant
     @ManyToOne(fetch = FetchType.LAZY)
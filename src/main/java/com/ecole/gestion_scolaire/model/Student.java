@@ -1,9 +1,11 @@
 package com.ecole.gestion_scolaire.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,8 +20,10 @@ import java.util.List;
 @AllArgsConstructor
 public class Student {
 
+    // Séquence "pooled" (table students_seq sur MySQL) pour permettre les INSERT par lots (imports)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -30,8 +34,17 @@ public class Student {
 
     private String telephone;
 
+    // Verrouillage optimiste : incrémentée à chaque modification, elle sert aussi d'ETag (voir EntityTags)
+    // Jamais nulle (Hibernate ne vérifie pas une version nulle) : 0 par défaut en base, posée à 0 par Hibernate à l'insertion
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Relation One-to-Many avec Enrollment
     // Un étudiant peut avoir plusieurs inscriptions
+    // Jamais sérialisée : les réponses passent par des DTO (voir StudentSummary, CourseDetails)
+    @JsonIgnore
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Enrollment> enrollments = new ArrayList<>();
 }
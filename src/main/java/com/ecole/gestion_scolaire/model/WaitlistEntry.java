@@ -0,0 +1,45 @@
+package com.ecole.gestion_scolaire.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * Entité représentant une demande d'inscription en liste d'attente (cours complet)
+ * L'ordre d'arrivée est celui des IDs : la première place libérée revient à l'entrée de plus petit ID
+ */
+@Entity
+@Table(name = "waitlist_entries",
+    uniqueConstraints = @UniqueConstraint(name = "uk_waitlist_student_course", columnNames = {"student_id", "course_id"}),
+    indexes = @Index(name = "idx_waitlist_course", columnList = "course_id, id"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistEntry {
+
+    // Séquence "pooled" comme pour Enrollment : les IDs croissent dans l'ordre d'allocation, pas de commit
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_seq")
+    @SequenceGenerator(name = "waitlist_seq", sequenceName = "waitlist_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "date_demande", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date dateDemande;
+
+    // Date d'inscription demandée, reprise lors de la promotion (null = date de la promotion)
+    @Column(name = "date_inscription")
+    @Temporal(TemporalType.DATE)
+    private Date dateInscription;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id", nullable = false)
+    private Student student;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    private Course course;
+}
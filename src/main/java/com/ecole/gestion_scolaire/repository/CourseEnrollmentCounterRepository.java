@@ -0,0 +1,61 @@
+package com.ecole.gestion_scolaire.repository;
+
+import com.ecole.gestion_scolaire.dto.CourseEnrollmentCount;
+import com.ecole.gestion_scolaire.dto.ProfessorEnrollmentCount;
+import com.ecole.gestion_scolaire.model.CourseEnrollmentCounter;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository des compteurs d'inscriptions par cours
+ * Les lectures agrègent les compteurs (quelques lignes par cours), jamais la table enrollments
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface CourseEnrollmentCounterRepository extends JpaRepository<CourseEnrollmentCounter, CourseEnrollmentCounter.Key> {
+
+    // Ajoute delta (positif ou négatif) à une ligne du compteur, en la créant si besoin (un seul aller-retour)
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into course_enrollment_counters (course_id, stripe, enrollment_count) "
+        + "values (:courseId, :stripe, :delta) "
+        + "on duplicate key update enrollment_count = enrollment_count + :delta")
+    int add(@Param("courseId") Long courseId, @Param("stripe") int stripe, @Param("delta") long delta);
+
+    // Supprime les compteurs des cours donnés
+    @Transactional
+    @Modifying
+    @Query("delete from CourseEnrollmentCounter k where k.courseId in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    // Recalcule tous les compteurs depuis la table enrollments (sur la ligne 0 de chaque cours)
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = "insert into course_enrollment_counters (course_id, stripe, enrollment_count) "
+        + "select course_id, 0, count(*) from enrollments group by course_id")
+    int rebuildFromEnrollments();
+
+    // Nombre d'inscrits par cours, du plus suivi au moins suivi (Pageable pour limiter au top N)
+    @Query("select new com.ecole.gestion_scolaire.dto.CourseEnrollmentCount(c.id, c.titre, c.professeur, "
+        + "coalesce(sum(k.enrollmentCount), 0L)) "
+        + "from Course c left join CourseEnrollmentCounter k on k.courseId = c.id "
+        + "group by c.id, c.titre, c.professeur "
+        + "order by coalesce(sum(k.enrollmentCount), 0L) desc, c.id")
+    List<CourseEnrollmentCount> findCourseCounts(Pageable pageable);
+
+    // Nombre de cours et d'inscriptions par professeur
+    @Query("select new com.ecole.gestion_scolaire.dto.ProfessorEnrollmentCount(c.professeur, count(distinct c.id), "
+        + "coalesce(sum(k.enrollmentCount), 0L)) "
+        + "from Course c left join CourseEnrollmentCounter k on k.courseId = c.id "
+        + "group by c.professeur "
+        + "order by coalesce(sum(k.enrollmentCount), 0L) desc, c.professeur")
+    List<ProfessorEnrollmentCount> findProfessorCounts();
+}
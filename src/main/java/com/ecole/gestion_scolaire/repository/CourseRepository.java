@@ -1,14 +1,36 @@
 package com.ecole.gestion_scolaire.repository;
 
+import com.ecole.gestion_scolaire.dto.CourseDetails;
+import com.ecole.gestion_scolaire.dto.CourseSummary;
 import com.ecole.gestion_scolaire.model.Course;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository pour l'entité Course
  * Fournit les méthodes CRUD de base + méthodes personnalisées si nécessaire
+ * Lectures en transaction lecture seule (envoyées au réplica s'il est activé, voir ReadWriteRoutingDataSource) ;
+ * les requêtes @Modifying déclarent leur propre transaction d'écriture
  */
 @Repository
+@Transactional(readOnly = true)
 public interface CourseRepository extends JpaRepository<Course, Long> {
     
     // Méthode pour trouver un cours par titre
@@ -16,5 +38,85 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     // Méthode pour trouver des cours par professeur
     java.util.List<Course> findByProfesseur(String professeur);
-}
 
+    // Lecture d'un seul cours sans sa collection d'inscriptions
+    @Query("select new com.ecole.gestion_scolaire.dto.CourseSummary(c.id, c.titre, c.description, c.professeur, c.version) from Course c where c.id = :id")
+    Optional<CourseSummary> findSummaryById(@Param("id") Long id);
+
+    // Lecture avec verrou de ligne (SELECT ... FOR UPDATE) : rien ne peut modifier le cours entre la vérification
+    // de If-Match et la fin de la transaction de modification
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Course c where c.id = :id")
+    Optional<Course> findByIdForUpdate(@Param("id") Long id);
+
+    // Parmi les IDs donnés, ceux qui existent en base (une seule requête IN)
+    @Query("select c.id from Course c where c.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Pagination par curseur : cours dont l'ID est strictement supérieur à lastId
+    @Query("select new com.ecole.gestion_scolaire.dto.CourseSummary(c.id, c.titre, c.description, c.professeur, c.version) "
+        + "from Course c where c.id > :lastId order by c.id")
+    List<CourseSummary> findPageAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // Liste complète (GET /api/courses) avec capacité et places restantes, sans collection d'inscriptions
+    @Query("select new com.ecole.gestion_scolaire.dto.CourseDetails(c.id, c.titre, c.description, c.professeur, "
+        + "c.capacite, c.placesRestantes, c.version) from Course c order by c.id")
+    List<CourseDetails> findAllDetails();
+
+    // Lecture en flux de tous les cours, ligne par ligne (à consommer dans une transaction)
+    @Query("select new com.ecole.gestion_scolaire.dto.CourseSummary(c.id, c.titre, c.description, c.professeur, c.version) "
+        + "from Course c order by c.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<CourseSummary> streamAll();
+
+    // Le cours a-t-il une capacité limitée ? (vide si le cours n'existe pas)
+    @Query("select case when c.capacite is null then false else true end from Course c where c.id = :id")
+    Optional<Boolean> findCapacityLimitedById(@Param("id") Long id);
+
+    // Réservation de n places par UPDATE conditionnel : 1 si les places ont été prises, 0 si le cours n'en a plus assez
+    // (ou n'a pas de limite : un cours illimité ne doit pas passer par ici, voir CourseSeatService.reserve)
+    // Sans SELECT préalable : le verrou de ligne n'est tenu que jusqu'à la fin de la transaction d'inscription
+    // La version n'est pas incrémentée : les places ne font pas partie de l'ETag du cours
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Course c set c.placesRestantes = c.placesRestantes - :n "
+        + "where c.id = :id and c.placesRestantes is not null and c.placesRestantes >= :n")
+    int reserveSeats(@Param("id") Long id, @Param("n") int n);
+
+    // Restitution de n places (sans effet si la capacité est illimitée)
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Course c set c.placesRestantes = c.placesRestantes + :n where c.id = :id and c.placesRestantes is not null")
+    int releaseSeats(@Param("id") Long id, @Param("n") int n);
+
+    // Restitution d'une place dans chacun des cours donnés (un étudiant quitte plusieurs cours)
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Course c set c.placesRestantes = c.placesRestantes + 1 where c.id in :ids and c.placesRestantes is not null")
+    int releaseOneSeatEach(@Param("ids") Collection<Long> ids);
+
+    // Changement d'une capacité déjà définie : les places restantes suivent l'écart, dans la même requête
+    // (places_restantes est affectée avant capacite : MySQL évalue les affectations dans l'ordre)
+    // La capacité fait partie du cours : la version (et donc l'ETag) change
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Course c set c.placesRestantes = c.placesRestantes + (:capacite - c.capacite), c.capacite = :capacite, "
+        + "c.version = c.version + 1 "
+        + "where c.id = :id and c.capacite is not null")
+    int changeCapacity(@Param("id") Long id, @Param("capacite") int capacite);
+
+    // Première capacité d'un cours illimité : places restantes = capacité - inscrits actuels
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Course c set c.capacite = :capacite, "
+        + "c.placesRestantes = :capacite - (select count(e) from Enrollment e where e.course.id = :id), "
+        + "c.version = c.version + 1 "
+        + "where c.id = :id and c.capacite is null")
+    int limitCapacity(@Param("id") Long id, @Param("capacite") int capacite);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Course c set c.capacite = null, c.placesRestantes = null, c.version = c.version + 1 where c.id = :id")
+    int removeCapacity(@Param("id") Long id);
+}
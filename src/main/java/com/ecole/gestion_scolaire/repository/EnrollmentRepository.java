@@ -1,18 +1,38 @@
 package com.ecole.gestion_scolaire.repository;
 
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentDayCount;
+import com.ecole.gestion_scolaire.dto.EnrollmentExportRow;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.RosterVersion;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
 import com.ecole.gestion_scolaire.model.Enrollment;
 import com.ecole.gestion_scolaire.model.Student;
 import com.ecole.gestion_scolaire.model.Course;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository pour l'entité Enrollment
  * Fournit les méthodes CRUD de base + méthodes personnalisées pour les requêtes
  */
 @Repository
+@Transactional(readOnly = true)
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     
     // Trouver toutes les inscriptions d'un étudiant
@@ -24,7 +44,98 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
     // Vérifier si un étudiant est déjà inscrit à un cours
     boolean existsByStudentAndCourse(Student student, Course course);
     
+    // IDs des cours auxquels un étudiant est inscrit (un couple étudiant/cours est unique)
+    @Query("select e.course.id from Enrollment e where e.student.id = :studentId")
+    List<Long> findCourseIdsByStudentId(@Param("studentId") Long studentId);
+
+    // Supprime en une requête toutes les inscriptions des cours donnés, sans charger les entités
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Enrollment e where e.course.id in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+
+    // Supprime en une requête toutes les inscriptions d'un étudiant, sans charger les entités
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Enrollment e where e.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    // Vérifier si un étudiant est déjà inscrit à un cours, à partir des seuls IDs (utilise l'index unique)
+    boolean existsByStudentIdAndCourseId(Long studentId, Long courseId);
+    
     // Trouver une inscription spécifique par étudiant et cours
     Enrollment findByStudentAndCourse(Student student, Course course);
-}
 
+    // Liste des étudiants inscrits à un cours, en une seule requête avec jointure
+    // (évite le SELECT supplémentaire par inscription du chargement paresseux de Enrollment.student)
+    @Query("select new com.ecole.gestion_scolaire.dto.StudentSummary(s.id, s.nom, s.email, s.telephone, s.version) "
+        + "from Enrollment e join e.student s where e.course.id = :courseId order by s.id")
+    List<StudentSummary> findStudentsByCourseId(@Param("courseId") Long courseId);
+
+    // Liste des cours d'un étudiant, en une seule requête avec jointure
+    @Query("select new com.ecole.gestion_scolaire.dto.CourseSummary(c.id, c.titre, c.description, c.professeur, c.version) "
+        + "from Enrollment e join e.course c where e.student.id = :studentId order by c.id")
+    List<CourseSummary> findCoursesByStudentId(@Param("studentId") Long studentId);
+
+    // Version agrégée de la liste des étudiants d'un cours (une seule ligne, sans lire les colonnes affichées)
+    @Query("select new com.ecole.gestion_scolaire.dto.RosterVersion(count(e), coalesce(sum(e.id), 0L), "
+        + "coalesce(sum(s.version), 0L)) from Enrollment e join e.student s where e.course.id = :courseId")
+    RosterVersion findStudentsVersionByCourseId(@Param("courseId") Long courseId);
+
+    // Version agrégée de la liste des cours d'un étudiant
+    @Query("select new com.ecole.gestion_scolaire.dto.RosterVersion(count(e), coalesce(sum(e.id), 0L), "
+        + "coalesce(sum(c.version), 0L)) from Enrollment e join e.course c where e.student.id = :studentId")
+    RosterVersion findCoursesVersionByStudentId(@Param("studentId") Long studentId);
+
+    // Inscriptions existantes parmi les combinaisons (étudiants x cours) données, en une seule requête
+    // Le résultat peut contenir des couples non demandés : l'appelant filtre sur les couples exacts
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentSummary(e.id, e.dateInscription, e.student.id, e.course.id) "
+        + "from Enrollment e where e.student.id in :studentIds and e.course.id in :courseIds")
+    List<EnrollmentSummary> findExisting(@Param("studentIds") Collection<Long> studentIds,
+                                         @Param("courseIds") Collection<Long> courseIds);
+
+    // Pagination par curseur : inscriptions dont l'ID est strictement supérieur à lastId
+    // Les clés étrangères sont lues directement, sans jointure vers students/courses
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentSummary(e.id, e.dateInscription, e.student.id, e.course.id) "
+        + "from Enrollment e where e.id > :lastId order by e.id")
+    List<EnrollmentSummary> findPageAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // Lecture d'une inscription sans charger l'étudiant ni le cours
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentSummary(e.id, e.dateInscription, e.student.id, e.course.id) "
+        + "from Enrollment e where e.id = :id")
+    Optional<EnrollmentSummary> findSummaryById(@Param("id") Long id);
+
+    // Liste complète (GET /api/enrollments) : identifiants de l'étudiant et du cours, sans jointure
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentSummary(e.id, e.dateInscription, e.student.id, e.course.id) "
+        + "from Enrollment e order by e.id")
+    List<EnrollmentSummary> findAllSummaries();
+
+    // Inscriptions d'un cours entre deux dates incluses (index (course_id, date_inscription))
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentSummary(e.id, e.dateInscription, e.student.id, e.course.id) "
+        + "from Enrollment e where e.course.id = :courseId and e.dateInscription between :from and :to "
+        + "order by e.dateInscription, e.id")
+    List<EnrollmentSummary> findByCourseIdAndDateRange(@Param("courseId") Long courseId,
+                                                       @Param("from") Date from, @Param("to") Date to);
+
+    // Nombre d'inscriptions d'un cours par jour entre deux dates incluses, agrégé par la base (GROUP BY)
+    // Une ligne par jour ayant au moins une inscription, lue dans l'index (course_id, date_inscription)
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentDayCount(e.dateInscription, count(e)) "
+        + "from Enrollment e where e.course.id = :courseId and e.dateInscription between :from and :to "
+        + "group by e.dateInscription order by e.dateInscription")
+    List<EnrollmentDayCount> countByDay(@Param("courseId") Long courseId,
+                                        @Param("from") Date from, @Param("to") Date to);
+
+    // Lecture en flux de toutes les inscriptions, ligne par ligne (à consommer dans une transaction)
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentSummary(e.id, e.dateInscription, e.student.id, e.course.id) "
+        + "from Enrollment e order by e.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<EnrollmentSummary> streamAll();
+
+    // Export en flux des inscriptions avec les informations de l'étudiant et du cours (une seule requête avec jointures)
+    // La projection ne crée aucune entité : le contexte de persistance reste vide pendant tout l'export
+    @Query("select new com.ecole.gestion_scolaire.dto.EnrollmentExportRow(e.id, e.dateInscription, "
+        + "s.id, s.nom, s.email, c.id, c.titre, c.professeur) "
+        + "from Enrollment e join e.student s join e.course c order by e.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    Stream<EnrollmentExportRow> streamExport();
+}
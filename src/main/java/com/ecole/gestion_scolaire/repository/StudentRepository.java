@@ -1,14 +1,32 @@
 package com.ecole.gestion_scolaire.repository;
 
+import com.ecole.gestion_scolaire.dto.StudentSummary;
 import com.ecole.gestion_scolaire.model.Student;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository pour l'entité Student
  * Fournit les méthodes CRUD de base + méthodes personnalisées si nécessaire
  */
 @Repository
+@Transactional(readOnly = true)
 public interface StudentRepository extends JpaRepository<Student, Long> {
     
     // Méthode pour trouver un étudiant par email
@@ -16,5 +34,44 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     
     // Méthode pour vérifier si un email existe déjà
     boolean existsByEmail(String email);
-}
 
+    // Parmi les emails donnés, ceux déjà utilisés (une seule requête IN par lot d'import)
+    @Query("select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Lecture d'un seul étudiant sans sa collection d'inscriptions
+    @Query("select new com.ecole.gestion_scolaire.dto.StudentSummary(s.id, s.nom, s.email, s.telephone, s.version) from Student s where s.id = :id")
+    Optional<StudentSummary> findSummaryById(@Param("id") Long id);
+
+    // Lecture avec verrou exclusif (SELECT ... FOR UPDATE) pour une modification : toujours sur la base principale
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Student s where s.id = :id")
+    Optional<Student> findByIdForUpdate(@Param("id") Long id);
+
+    // Verrouille la ligne de l'étudiant jusqu'à la fin de la transaction, sans charger l'entité ; vide s'il n'existe pas
+    @Transactional
+    @Query(nativeQuery = true, value = "select id from students where id = :id for update")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    // Parmi les IDs donnés, ceux qui existent en base (une seule requête IN)
+    @Query("select s.id from Student s where s.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Pagination par curseur : étudiants dont l'ID est strictement supérieur à lastId
+    // La taille de la page est portée par le Pageable (pas de requête COUNT)
+    @Query("select new com.ecole.gestion_scolaire.dto.StudentSummary(s.id, s.nom, s.email, s.telephone, s.version) "
+        + "from Student s where s.id > :lastId order by s.id")
+    List<StudentSummary> findPageAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // Liste complète (GET /api/students) : projection, sans entité ni collection d'inscriptions à charger
+    @Query("select new com.ecole.gestion_scolaire.dto.StudentSummary(s.id, s.nom, s.email, s.telephone, s.version) "
+        + "from Student s order by s.id")
+    List<StudentSummary> findAllSummaries();
+
+    // Lecture en flux de tous les étudiants, ligne par ligne (à consommer dans une transaction)
+    @Query("select new com.ecole.gestion_scolaire.dto.StudentSummary(s.id, s.nom, s.email, s.telephone, s.version) "
+        + "from Student s order by s.id")
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    Stream<StudentSummary> streamAll();
+}
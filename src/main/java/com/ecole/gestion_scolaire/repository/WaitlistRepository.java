@@ -0,0 +1,63 @@
+package com.ecole.gestion_scolaire.repository;
+
+import com.ecole.gestion_scolaire.dto.WaitlistEntrySummary;
+import com.ecole.gestion_scolaire.model.WaitlistEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository pour la liste d'attente des cours complets
+ */
+@Repository
+@Transactional(readOnly = true)
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    @Query("select new com.ecole.gestion_scolaire.dto.WaitlistEntrySummary(w.id, w.student.id, w.course.id, w.dateDemande, w.dateInscription) "
+        + "from WaitlistEntry w where w.student.id = :studentId and w.course.id = :courseId")
+    Optional<WaitlistEntrySummary> findSummary(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    // Liste d'attente d'un cours, dans l'ordre d'arrivée (index (course_id, id))
+    @Query("select new com.ecole.gestion_scolaire.dto.WaitlistEntrySummary(w.id, w.student.id, w.course.id, w.dateDemande, w.dateInscription) "
+        + "from WaitlistEntry w where w.course.id = :courseId order by w.id")
+    List<WaitlistEntrySummary> findByCourseIdInOrder(@Param("courseId") Long courseId, Pageable pageable);
+
+    // Suite de la liste d'attente après l'entrée afterId : une promotion ne relit jamais une entrée déjà essayée,
+    // même si la lecture non verrouillante (instantané REPEATABLE READ d'InnoDB) la montre encore
+    @Query("select new com.ecole.gestion_scolaire.dto.WaitlistEntrySummary(w.id, w.student.id, w.course.id, w.dateDemande, w.dateInscription) "
+        + "from WaitlistEntry w where w.course.id = :courseId and w.id > :afterId order by w.id")
+    List<WaitlistEntrySummary> findByCourseIdAfter(@Param("courseId") Long courseId, @Param("afterId") Long afterId,
+                                                   Pageable pageable);
+
+    // Parmi les cours donnés, ceux qui ont une liste d'attente
+    @Query("select distinct w.course.id from WaitlistEntry w where w.course.id in :courseIds")
+    List<Long> findCourseIdsWithWaitlist(@Param("courseIds") Collection<Long> courseIds);
+
+    // Rang d'une entrée : nombre d'entrées arrivées avant elle dans le même cours
+    @Query("select count(w) from WaitlistEntry w where w.course.id = :courseId and w.id < :id")
+    long countBefore(@Param("courseId") Long courseId, @Param("id") Long id);
+
+    // Suppression d'une entrée par son ID, sans la charger ; retourne 0 si une autre transaction l'a déjà retirée
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("delete from WaitlistEntry w where w.id = :id")
+    int deleteEntry(@Param("id") Long id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from WaitlistEntry w where w.student.id = :studentId")
+    int deleteByStudentId(@Param("studentId") Long studentId);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from WaitlistEntry w where w.course.id in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Long> courseIds);
+}
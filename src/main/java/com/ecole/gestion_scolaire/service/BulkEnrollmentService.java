@@ -0,0 +1,230 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.controller.EnrollmentController.EnrollmentRequest;
+import com.ecole.gestion_scolaire.dto.BulkEnrollmentReport;
+import com.ecole.gestion_scolaire.dto.BulkEnrollmentReport.ItemResult;
+import com.ecole.gestion_scolaire.dto.BulkEnrollmentReport.Status;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.WaitlistEntrySummary;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Service d'inscription groupée
+ * Le nombre de requêtes SQL ne dépend pas du nombre d'éléments : une requête IN pour les étudiants,
+ * une pour les cours, une pour les doublons, puis des INSERT regroupés en lots JDBC
+ * Si une inscription concurrente crée un des couples entre la vérification des doublons et l'INSERT,
+ * le lot est annulé puis rejoué élément par élément : seuls les éléments en conflit sont rejetés (DUPLICATE)
+ */
+@Service
+public class BulkEnrollmentService {
+
+    // Nombre maximal d'éléments acceptés par requête
+    public static final int MAX_BULK_SIZE = 1000;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private EnrollmentMembershipFilter membershipFilter;
+
+    @Autowired
+    private EnrollmentCounterService counterService;
+
+    @Autowired
+    private CourseSeatService seatService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkEnrollmentService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Inscrit les couples demandés dans une transaction
+     * Résultat de chaque élément dans l'ordre de la requête
+     */
+    public BulkEnrollmentReport enroll(List<EnrollmentRequest> requests) {
+        try {
+            return transactionTemplate.execute(status -> enrollInTransaction(requests));
+        } catch (DataIntegrityViolationException e) {
+            // Doublon créé entre la vérification et l'INSERT (inscription concurrente) : la transaction du lot
+            // est annulée, le lot est rejoué élément par élément pour n'écarter que les éléments en conflit
+            return enrollOneByOne(requests);
+        }
+    }
+
+    private BulkEnrollmentReport enrollOneByOne(List<EnrollmentRequest> requests) {
+        List<ItemResult> results = new ArrayList<>(requests.size());
+        int created = 0;
+        int waitlisted = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            EnrollmentRequest request = requests.get(i);
+            ItemResult result;
+            try {
+                result = transactionTemplate.execute(status ->
+                    enrollInTransaction(Collections.singletonList(request))).getResults().get(0);
+            } catch (DataIntegrityViolationException e) {
+                boolean duplicate = EnrollmentConflicts.isDuplicate(e);
+                result = new ItemResult(i, request.getStudentId(), request.getCourseId(),
+                    duplicate ? Status.DUPLICATE : Status.INVALID, null,
+                    duplicate ? "Erreur 400 : L'étudiant est déjà inscrit à ce cours."
+                        : "Erreur lors de l'inscription : " + e.getMessage());
+            }
+            result.setIndex(i);
+            if (result.getStatus() == Status.CREATED) {
+                created++;
+            } else if (result.getStatus() == Status.WAITLISTED) {
+                waitlisted++;
+            }
+            results.add(result);
+        }
+        return new BulkEnrollmentReport(created, waitlisted, requests.size() - created - waitlisted, results);
+    }
+
+    private BulkEnrollmentReport enrollInTransaction(List<EnrollmentRequest> requests) {
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> courseIds = new HashSet<>();
+        for (EnrollmentRequest request : requests) {
+            if (request != null && request.getStudentId() != null && request.getCourseId() != null) {
+                studentIds.add(request.getStudentId());
+                courseIds.add(request.getCourseId());
+            }
+        }
+
+        Set<Long> existingStudents = studentIds.isEmpty() ? Set.of() : studentRepository.findExistingIds(studentIds);
+        Set<Long> existingCourses = courseIds.isEmpty() ? Set.of() : courseRepository.findExistingIds(courseIds);
+
+        // Inscriptions déjà présentes en base, indexées par couple (étudiant, cours)
+        // Requête évitée si le filtre en mémoire garantit qu'aucun couple demandé n'est inscrit
+        Map<List<Long>, Long> enrolled = new HashMap<>();
+        if (!existingStudents.isEmpty() && !existingCourses.isEmpty() && mayContainEnrolledPair(requests)) {
+            for (EnrollmentSummary existing : enrollmentRepository.findExisting(existingStudents, existingCourses)) {
+                enrolled.put(List.of(existing.getStudentId(), existing.getCourseId()), existing.getId());
+            }
+        }
+
+        List<ItemResult> results = new ArrayList<>(requests.size());
+        List<Enrollment> toInsert = new ArrayList<>();
+        List<ItemResult> pendingResults = new ArrayList<>();
+        Set<List<Long>> seenInRequest = new HashSet<>();
+        Date today = new Date();
+
+        for (int i = 0; i < requests.size(); i++) {
+            EnrollmentRequest request = requests.get(i);
+            if (request == null || request.getStudentId() == null || request.getCourseId() == null) {
+                results.add(new ItemResult(i, request == null ? null : request.getStudentId(),
+                    request == null ? null : request.getCourseId(), Status.INVALID, null,
+                    "Erreur 400 : studentId et courseId sont obligatoires."));
+                continue;
+            }
+
+            Long studentId = request.getStudentId();
+            Long courseId = request.getCourseId();
+            List<Long> key = List.of(studentId, courseId);
+
+            if (!existingStudents.contains(studentId)) {
+                results.add(new ItemResult(i, studentId, courseId, Status.STUDENT_NOT_FOUND, null,
+                    "Erreur 404 : Étudiant avec l'ID " + studentId + " non trouvé."));
+            } else if (!existingCourses.contains(courseId)) {
+                results.add(new ItemResult(i, studentId, courseId, Status.COURSE_NOT_FOUND, null,
+                    "Erreur 404 : Cours avec l'ID " + courseId + " non trouvé."));
+            } else if (enrolled.containsKey(key) || !seenInRequest.add(key)) {
+                results.add(new ItemResult(i, studentId, courseId, Status.DUPLICATE, enrolled.get(key),
+                    "Erreur 400 : L'étudiant est déjà inscrit à ce cours."));
+            } else {
+                // Références sans SELECT : l'existence a déjà été vérifiée
+                Enrollment enrollment = new Enrollment();
+                enrollment.setStudent(studentRepository.getReferenceById(studentId));
+                enrollment.setCourse(courseRepository.getReferenceById(courseId));
+                enrollment.setDateInscription(request.getDateInscription() != null
+                    ? request.getDateInscription()
+                    : today);
+                toInsert.add(enrollment);
+
+                ItemResult result = new ItemResult(i, studentId, courseId, Status.CREATED, null, null);
+                pendingResults.add(result);
+                results.add(result);
+            }
+        }
+
+        // Places : une réservation par cours pour tout le lot ; au-delà de la capacité, les éléments
+        // (les derniers dans l'ordre de la requête) passent en liste d'attente au lieu d'être insérés
+        // Cours parcourus dans l'ordre des IDs : deux lots concurrents verrouillent les cours dans le même ordre
+        Map<Long, Integer> requestedPerCourse = new TreeMap<>();
+        for (ItemResult result : pendingResults) {
+            requestedPerCourse.merge(result.getCourseId(), 1, Integer::sum);
+        }
+        Map<Long, Integer> seatsPerCourse = new HashMap<>();
+        requestedPerCourse.forEach((courseId, requested) ->
+            seatsPerCourse.put(courseId, seatService.reserve(courseId, requested)));
+
+        List<Enrollment> seated = new ArrayList<>(toInsert.size());
+        List<ItemResult> seatedResults = new ArrayList<>(pendingResults.size());
+        int waitlisted = 0;
+        for (int i = 0; i < pendingResults.size(); i++) {
+            ItemResult result = pendingResults.get(i);
+            if (seatsPerCourse.merge(result.getCourseId(), -1, Integer::sum) >= 0) {
+                seated.add(toInsert.get(i));
+                seatedResults.add(result);
+            } else {
+                WaitlistEntrySummary entry = seatService.waitlist(result.getStudentId(), result.getCourseId(),
+                    requests.get(result.getIndex()).getDateInscription());
+                result.setStatus(Status.WAITLISTED);
+                result.setMessage("Cours complet : position " + entry.getPosition() + " en liste d'attente.");
+                waitlisted++;
+            }
+        }
+
+        // saveAll + flush : les INSERT partent par lots de hibernate.jdbc.batch_size
+        List<Enrollment> saved = enrollmentRepository.saveAll(seated);
+        enrollmentRepository.flush();
+        Map<Long, Long> createdPerCourse = new HashMap<>();
+        for (int i = 0; i < saved.size(); i++) {
+            seatedResults.get(i).setEnrollmentId(saved.get(i).getId());
+            membershipFilter.add(seatedResults.get(i).getStudentId(), seatedResults.get(i).getCourseId());
+            createdPerCourse.merge(seatedResults.get(i).getCourseId(), 1L, Long::sum);
+            changeFeed.enrollmentCreated(saved.get(i).getId(), seatedResults.get(i).getStudentId(),
+                seatedResults.get(i).getCourseId());
+        }
+        // Une mise à jour de compteur par cours concerné, pas par inscription
+        createdPerCourse.forEach(counterService::add);
+
+        return new BulkEnrollmentReport(saved.size(), waitlisted, requests.size() - saved.size() - waitlisted, results);
+    }
+
+    private boolean mayContainEnrolledPair(List<EnrollmentRequest> requests) {
+        if (!membershipFilter.isEnabled()) {
+            return true;
+        }
+        return requests.stream()
+            .filter(request -> request != null && request.getStudentId() != null && request.getCourseId() != null)
+            .anyMatch(request -> membershipFilter.mightContain(request.getStudentId(), request.getCourseId()));
+    }
+}
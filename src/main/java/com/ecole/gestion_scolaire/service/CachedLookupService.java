@@ -0,0 +1,62 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.datasource.ReadWriteRoutingDataSource;
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Lectures de cours et d'étudiants par ID, mises en cache (Caffeine, voir spring.cache.* dans application.properties)
+ * Le cache contient des vues allégées (sans collections JPA) : elles restent utilisables hors transaction.
+ * Toute modification ou suppression doit appeler evictCourse / evictStudent.
+ * Les absences ne sont pas mises en cache : un cours créé est visible immédiatement.
+ * Le cache est rempli depuis la base principale : une ligne périmée lue sur un réplica en retard serait
+ * sinon servie à tous les clients (y compris l'auteur de l'écriture) jusqu'à son expiration.
+ */
+@Service
+public class CachedLookupService {
+
+    public static final String COURSES_CACHE = "courses";
+
+    public static final String STUDENTS_CACHE = "students";
+
+    // Cours à capacité limitée ou non : évite aux inscriptions dans un cours illimité tout accès à sa ligne
+    public static final String COURSE_LIMITS_CACHE = "courseLimits";
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Cacheable(cacheNames = COURSES_CACHE, unless = "#result == null")
+    public Optional<CourseSummary> findCourse(Long id) {
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> courseRepository.findSummaryById(id));
+    }
+
+    @Cacheable(cacheNames = STUDENTS_CACHE, unless = "#result == null")
+    public Optional<StudentSummary> findStudent(Long id) {
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> studentRepository.findSummaryById(id));
+    }
+
+    @Cacheable(cacheNames = COURSE_LIMITS_CACHE, unless = "#result == null")
+    public Optional<Boolean> isCapacityLimited(Long id) {
+        return ReadWriteRoutingDataSource.readFromPrimary(() -> courseRepository.findCapacityLimitedById(id));
+    }
+
+    @Caching(evict = {@CacheEvict(cacheNames = COURSES_CACHE), @CacheEvict(cacheNames = COURSE_LIMITS_CACHE)})
+    public void evictCourse(Long id) {
+    }
+
+    @CacheEvict(cacheNames = STUDENTS_CACHE)
+    public void evictStudent(Long id) {
+    }
+}
@@ -0,0 +1,201 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.ChangeEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal en mémoire des modifications validées (inscriptions, étudiants, cours), lu par les abonnés de GET /api/changes
+ * Tampon circulaire de taille fixe : une modification est écrite une seule fois, quel que soit le nombre d'abonnés,
+ * et chacun la relit à son rythme depuis son dernier ID. Un abonné (ou une reconnexion) dont le dernier ID a déjà été
+ * écrasé reçoit un événement « reset » et doit recharger ses données
+ * Les modifications faites dans une transaction ne sont publiées qu'après son commit (jamais en cas de rollback)
+ * Les IDs envoyés aux abonnés sont préfixés par l'époque du processus (« époque-numéro », voir eventId) : un ID
+ * d'avant un redémarrage n'est jamais confondu avec un ID de la numérotation qui repart de 1
+ */
+@Service
+public class ChangeFeed {
+
+    public static final String ENROLLMENT_CREATED = "enrollment.created";
+    public static final String ENROLLMENT_DELETED = "enrollment.deleted";
+    public static final String STUDENT_CREATED = "student.created";
+    public static final String STUDENT_UPDATED = "student.updated";
+    public static final String STUDENT_DELETED = "student.deleted";
+    public static final String COURSE_CREATED = "course.created";
+    public static final String COURSE_UPDATED = "course.updated";
+    public static final String COURSE_DELETED = "course.deleted";
+
+    // Époque du processus : change à chaque démarrage
+    private final String epoch = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+
+    private final AtomicReferenceArray<ChangeEvent> ring;
+
+    private final int mask;
+
+    // Écritures sérialisées ; les lecteurs ne prennent le verrou que pour attendre
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition appended = lock.newCondition();
+
+    // ID du dernier événement écrit (0 : aucun), publié après l'écriture de sa case
+    private volatile long head;
+
+    public ChangeFeed(@Value("${app.changes.buffer-size:4096}") int bufferSize, MeterRegistry meterRegistry) {
+        int capacity = Integer.highestOneBit(Math.max(2, bufferSize - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        Gauge.builder("changes.last-event-id", this, ChangeFeed::head)
+            .description("ID du dernier événement du flux de modifications")
+            .register(meterRegistry);
+    }
+
+    public int capacity() {
+        return ring.length();
+    }
+
+    public long head() {
+        return head;
+    }
+
+    /**
+     * ID envoyé aux abonnés pour l'événement id de ce processus (époque-numéro)
+     */
+    public String eventId(long id) {
+        return epoch + "-" + id;
+    }
+
+    /**
+     * Numéro d'un ID reçu d'un abonné (Last-Event-ID), ou -1 s'il vient d'un autre processus (redémarrage) :
+     * readAfter(-1) est vide, l'abonné reçoit « reset »
+     * Lève IllegalArgumentException si l'ID n'a pas la forme époque-numéro
+     */
+    public long parseEventId(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        long id;
+        try {
+            id = Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ID d'événement invalide : " + eventId, e);
+        }
+        if (id < 0) {
+            throw new IllegalArgumentException("ID d'événement invalide : " + eventId);
+        }
+        return separator > 0 && eventId.substring(0, separator).equals(epoch) ? id : -1;
+    }
+
+    public void enrollmentCreated(Long enrollmentId, Long studentId, Long courseId) {
+        publish(ENROLLMENT_CREATED, enrollmentId, studentId, courseId);
+    }
+
+    public void enrollmentDeleted(Long enrollmentId, Long studentId, Long courseId) {
+        publish(ENROLLMENT_DELETED, enrollmentId, studentId, courseId);
+    }
+
+    /**
+     * Publie une modification : après le commit de la transaction en cours s'il y en a une, immédiatement sinon
+     */
+    public void publish(String type, Long entityId, Long studentId, Long courseId) {
+        ChangeEvent event = new ChangeEvent(null, type, entityId, studentId, courseId, null);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(List.of(event));
+            return;
+        }
+        // Une seule synchronisation par transaction (inscriptions groupées)
+        @SuppressWarnings("unchecked")
+        List<ChangeEvent> pending = (List<ChangeEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<ChangeEvent> events = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeFeed.this);
+                    if (status == STATUS_COMMITTED) {
+                        append(events);
+                    }
+                }
+            });
+            pending = events;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * Événements d'ID strictement supérieur à afterId, dans l'ordre
+     * Vide si certains ont déjà été écrasés, ou si afterId est inconnu (redémarrage) : l'abonné doit recharger
+     */
+    public Optional<List<ChangeEvent>> readAfter(long afterId) {
+        long last = head;
+        if (afterId < 0 || afterId > last || last - afterId > ring.length()) {
+            return Optional.empty();
+        }
+        List<ChangeEvent> events = new ArrayList<>((int) (last - afterId));
+        for (long id = afterId + 1; id <= last; id++) {
+            ChangeEvent event = ring.get((int) (id & mask));
+            // Case réécrite pendant la copie (head n'est publié qu'après toutes les cases d'un lot) :
+            // l'événement attendu a été écrasé
+            if (event == null || event.getId() != id) {
+                return Optional.empty();
+            }
+            events.add(event);
+        }
+        return Optional.of(events);
+    }
+
+    /**
+     * Attend un événement d'ID supérieur à afterId ; false si aucun n'est arrivé pendant timeout
+     */
+    public boolean awaitAfter(long afterId, Duration timeout) throws InterruptedException {
+        if (head > afterId) {
+            return true;
+        }
+        long nanos = timeout.toNanos();
+        lock.lock();
+        try {
+            while (head <= afterId) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Date now = new Date();
+            long id = head;
+            for (ChangeEvent event : events) {
+                id++;
+                event.setId(id);
+                event.setAt(now);
+                ring.set((int) (id & mask), event);
+            }
+            head = id;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
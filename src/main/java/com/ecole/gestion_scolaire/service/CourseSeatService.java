@@ -0,0 +1,235 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.WaitlistEntrySummary;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.WaitlistEntry;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.repository.WaitlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Places des cours à capacité limitée et liste d'attente
+ * Une place est prise par un UPDATE conditionnel sur places_restantes (jamais de SELECT ... FOR UPDATE) :
+ * la capacité ne peut pas être dépassée, même pour des centaines d'inscriptions simultanées au même cours
+ * Un cours sans limite (connu par CachedLookupService.isCapacityLimited) n'est pas touché : ses inscriptions ne
+ * verrouillent pas sa ligne et ne se sérialisent que sur les compteurs répartis (CourseEnrollmentCounter).
+ * Contrepartie : une limite posée sur un cours illimité ne voit pas les inscriptions en cours de validation,
+ * qui peuvent la dépasser d'autant
+ * Une place libérée revient d'abord au premier étudiant de la liste d'attente
+ * Les méthodes de réservation doivent être appelées dans la transaction qui crée ou supprime les inscriptions
+ */
+@Service
+public class CourseSeatService {
+
+    // Nombre d'entrées de liste d'attente lues à la fois lors d'une promotion
+    private static final int PROMOTION_PAGE_SIZE = 100;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private EnrollmentCounterService counterService;
+
+    @Autowired
+    private EnrollmentMembershipFilter membershipFilter;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    @Autowired
+    private CachedLookupService cachedLookupService;
+
+    /**
+     * Réserve jusqu'à n places dans le cours ; retourne le nombre de places obtenues (n si capacité illimitée)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int reserve(Long courseId, int n) {
+        if (n <= 0) {
+            return 0;
+        }
+        if (!isCapacityLimited(courseId)) {
+            return n;
+        }
+        if (courseRepository.reserveSeats(courseId, n) == 1) {
+            return n;
+        }
+        // Limite supprimée depuis sa mise en cache : l'étudiant ne doit pas attendre une place dans un cours illimité
+        if (!courseRepository.findCapacityLimitedById(courseId).orElse(true)) {
+            return n;
+        }
+        // Pas assez de places pour tout le lot : une place à la fois tant qu'il en reste
+        int reserved = 0;
+        while (n > 1 && reserved < n && courseRepository.reserveSeats(courseId, 1) == 1) {
+            reserved++;
+        }
+        return reserved;
+    }
+
+    /**
+     * Rend n places au cours après suppression d'inscriptions, puis promeut la liste d'attente
+     * Retourne les inscriptions créées pour les étudiants promus
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Enrollment> release(Long courseId, int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        if (isCapacityLimited(courseId)) {
+            courseRepository.releaseSeats(courseId, n);
+        }
+        return promote(courseId, n);
+    }
+
+    /**
+     * Rend une place dans chacun des cours donnés (suppression d'un étudiant), puis promeut les listes d'attente
+     * Deux requêtes quel que soit le nombre de cours, plus les promotions des seuls cours qui ont une liste d'attente
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void releaseOneEach(Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return;
+        }
+        courseRepository.releaseOneSeatEach(courseIds);
+        for (Long courseId : waitlistRepository.findCourseIdsWithWaitlist(courseIds)) {
+            promote(courseId, 1);
+        }
+    }
+
+    /**
+     * Met un étudiant en liste d'attente (sans effet s'il y est déjà) et retourne son entrée avec son rang
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public WaitlistEntrySummary waitlist(Long studentId, Long courseId, Date dateInscription) {
+        Optional<WaitlistEntrySummary> existing = waitlistRepository.findSummary(studentId, courseId);
+        if (existing.isPresent()) {
+            return withPosition(existing.get());
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setStudent(studentRepository.getReferenceById(studentId));
+        entry.setCourse(courseRepository.getReferenceById(courseId));
+        entry.setDateDemande(new Date());
+        entry.setDateInscription(dateInscription);
+        WaitlistEntry saved = waitlistRepository.saveAndFlush(entry);
+        return withPosition(new WaitlistEntrySummary(saved.getId(), studentId, courseId,
+            saved.getDateDemande(), dateInscription));
+    }
+
+    /**
+     * Liste d'attente d'un cours, dans l'ordre de promotion
+     */
+    @Transactional(readOnly = true)
+    public List<WaitlistEntrySummary> findWaitlist(Long courseId) {
+        List<WaitlistEntrySummary> entries = waitlistRepository.findByCourseIdInOrder(courseId, PageRequest.ofSize(Integer.MAX_VALUE));
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).setPosition(i + 1);
+        }
+        return entries;
+    }
+
+    /**
+     * Change la capacité d'un cours (null = illimitée) puis promeut la liste d'attente si des places se sont ouvertes
+     * Une capacité inférieure au nombre d'inscrits ne désinscrit personne : les nouvelles inscriptions attendent
+     * que le nombre d'inscrits repasse sous la capacité
+     * Retourne false si le cours n'existe pas
+     */
+    @Transactional
+    public boolean changeCapacity(Long courseId, Integer capacite) {
+        int updated;
+        if (capacite == null) {
+            updated = courseRepository.removeCapacity(courseId);
+        } else {
+            updated = courseRepository.changeCapacity(courseId, capacite);
+            if (updated == 0) {
+                updated = courseRepository.limitCapacity(courseId, capacite);
+            }
+        }
+        if (updated == 0) {
+            return false;
+        }
+        // Limite en cache invalidée à la validation (avant, une lecture concurrente y remettrait l'ancienne valeur)
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cachedLookupService.evictCourse(courseId);
+            }
+        });
+        promote(courseId, Integer.MAX_VALUE);
+        return true;
+    }
+
+    // Inscrit les premiers de la liste d'attente tant qu'une place peut être réservée pour eux (au plus max)
+    // Chaque entrée n'est essayée qu'une fois : sous REPEATABLE READ, la lecture de la liste renvoie l'instantané
+    // de la transaction, où figurent encore les entrées déjà promues par une transaction concurrente
+    private List<Enrollment> promote(Long courseId, int max) {
+        List<Enrollment> promoted = new ArrayList<>();
+        long lastTriedId = 0;
+        while (promoted.size() < max) {
+            List<WaitlistEntrySummary> head = waitlistRepository.findByCourseIdAfter(courseId, lastTriedId,
+                PageRequest.ofSize(Math.min(max - promoted.size(), PROMOTION_PAGE_SIZE)));
+            if (head.isEmpty()) {
+                return promoted;
+            }
+            for (WaitlistEntrySummary entry : head) {
+                if (reserve(courseId, 1) == 0) {
+                    return promoted;
+                }
+                lastTriedId = entry.getId();
+                // Seule la transaction dont le DELETE retire l'entrée inscrit l'étudiant ;
+                // si une autre l'a déjà promu, ou s'il est déjà inscrit, la place est rendue
+                if (waitlistRepository.deleteEntry(entry.getId()) == 0
+                        || enrollmentRepository.existsByStudentIdAndCourseId(entry.getStudentId(), courseId)) {
+                    courseRepository.releaseSeats(courseId, 1);
+                    continue;
+                }
+                promoted.add(enroll(entry));
+            }
+        }
+        return promoted;
+    }
+
+    private Enrollment enroll(WaitlistEntrySummary entry) {
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(studentRepository.getReferenceById(entry.getStudentId()));
+        enrollment.setCourse(courseRepository.getReferenceById(entry.getCourseId()));
+        enrollment.setDateInscription(entry.getDateInscription() != null ? entry.getDateInscription() : new Date());
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        counterService.add(entry.getCourseId(), 1);
+        membershipFilter.add(entry.getStudentId(), entry.getCourseId());
+        changeFeed.enrollmentCreated(saved.getId(), entry.getStudentId(), entry.getCourseId());
+        return saved;
+    }
+
+    // Cours inconnu : traité comme limité, la réservation échoue alors comme avant (aucune ligne mise à jour)
+    private boolean isCapacityLimited(Long courseId) {
+        return cachedLookupService.isCapacityLimited(courseId).orElse(true);
+    }
+
+    private WaitlistEntrySummary withPosition(WaitlistEntrySummary entry) {
+        entry.setPosition(waitlistRepository.countBefore(entry.getCourseId(), entry.getId()) + 1);
+        return entry;
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.web.EntityTags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Modifications d'un cours (titre, description, professeur, capacité)
+ * Une seule transaction : la ligne du cours est verrouillée avant la vérification de If-Match, puis les champs
+ * et la capacité changent ensemble (ou pas du tout)
+ */
+@Service
+public class CourseUpdateService {
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseSeatService seatService;
+
+    /**
+     * Modifie titre, description et professeur ; la capacité n'est changée que si details en donne une
+     * (absente = inchangée, la suppression de la limite passe par changeCapacity)
+     */
+    @Transactional
+    public Outcome update(Long id, Course details, String ifMatch) {
+        Optional<Course> locked = courseRepository.findByIdForUpdate(id);
+        if (locked.isEmpty()) {
+            return new Outcome(Outcome.Status.NOT_FOUND, null);
+        }
+        Course course = locked.get();
+        if (!EntityTags.ifMatch(ifMatch, EntityTags.of("course", id, course.getVersion()))) {
+            return new Outcome(Outcome.Status.PRECONDITION_FAILED, null);
+        }
+
+        course.setTitre(details.getTitre());
+        course.setDescription(details.getDescription());
+        course.setProfesseur(details.getProfesseur());
+        // Flush immédiat : la version renvoyée (ETag) est celle écrite en base
+        Course updated = courseRepository.saveAndFlush(course);
+        if (details.getCapacite() != null && !details.getCapacite().equals(updated.getCapacite())) {
+            seatService.changeCapacity(id, details.getCapacite());
+            updated = courseRepository.findById(id).orElseThrow();
+        }
+        return new Outcome(Outcome.Status.UPDATED, updated);
+    }
+
+    /**
+     * Change la capacité d'un cours (null = illimitée) ; une capacité augmentée ou supprimée inscrit aussitôt
+     * les premiers de la liste d'attente
+     */
+    @Transactional
+    public Outcome changeCapacity(Long id, Integer capacite, String ifMatch) {
+        Optional<Course> locked = courseRepository.findByIdForUpdate(id);
+        if (locked.isEmpty()) {
+            return new Outcome(Outcome.Status.NOT_FOUND, null);
+        }
+        Course course = locked.get();
+        if (!EntityTags.ifMatch(ifMatch, EntityTags.of("course", id, course.getVersion()))) {
+            return new Outcome(Outcome.Status.PRECONDITION_FAILED, null);
+        }
+        if (Objects.equals(capacite, course.getCapacite())) {
+            return new Outcome(Outcome.Status.UPDATED, course);
+        }
+        seatService.changeCapacity(id, capacite);
+        return new Outcome(Outcome.Status.UPDATED, courseRepository.findById(id).orElseThrow());
+    }
+
+    /**
+     * Issue d'une modification : cours modifié (avec sa nouvelle version), introuvable, ou If-Match périmé
+     */
+    public record Outcome(Status status, Course course) {
+
+        public enum Status {
+            UPDATED,
+            NOT_FOUND,
+            PRECONDITION_FAILED
+        }
+    }
+}
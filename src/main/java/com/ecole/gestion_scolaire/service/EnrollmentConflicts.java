@@ -0,0 +1,29 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.model.Enrollment;
+import org.hibernate.exception.ConstraintViolationException;
+
+import java.util.Locale;
+
+/**
+ * Reconnaît une violation de l'index unique (student_id, course_id) parmi les erreurs d'écriture
+ * (les autres violations, par exemple de clé étrangère, ne sont pas des doublons)
+ */
+public final class EnrollmentConflicts {
+
+    private EnrollmentConflicts() {
+    }
+
+    public static boolean isDuplicate(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String name = violation.getConstraintName();
+                String message = violation.getMessage();
+                String expected = Enrollment.UNIQUE_STUDENT_COURSE.toLowerCase(Locale.ROOT);
+                return (name != null && name.toLowerCase(Locale.ROOT).contains(expected))
+                    || (message != null && message.toLowerCase(Locale.ROOT).contains(expected));
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.CourseStatistics;
+import com.ecole.gestion_scolaire.model.CourseEnrollmentCounter;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Maintien des compteurs d'inscriptions par cours (voir CourseEnrollmentCounter) et statistiques
+ * Les méthodes de mise à jour doivent être appelées dans la transaction qui crée ou supprime les inscriptions
+ */
+@Service
+public class EnrollmentCounterService implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentCounterService.class);
+
+    @Autowired
+    private CourseEnrollmentCounterRepository counterRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long courseId, long delta) {
+        if (delta != 0) {
+            int stripe = ThreadLocalRandom.current().nextInt(CourseEnrollmentCounter.STRIPES);
+            counterRepository.add(courseId, stripe, delta);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeCourses(Collection<Long> courseIds) {
+        counterRepository.deleteByCourseIds(courseIds);
+    }
+
+    /**
+     * Statistiques : nombre d'inscrits par cours (limité aux top premiers si top est fourni) et par professeur
+     * Coût proportionnel au nombre de cours, pas au nombre d'inscriptions
+     */
+    @Transactional(readOnly = true)
+    public CourseStatistics statistics(Integer top) {
+        Pageable limit = top == null ? Pageable.unpaged() : PageRequest.of(0, Math.max(1, top));
+        return new CourseStatistics(counterRepository.findCourseCounts(limit), counterRepository.findProfessorCounts());
+    }
+
+    /**
+     * Au premier démarrage (table des compteurs vide), initialise les compteurs depuis les inscriptions existantes
+     * Exécuté avant que le serveur web n'accepte des requêtes
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (counterRepository.count() == 0) {
+                int courses = counterRepository.rebuildFromEnrollments();
+                if (courses > 0) {
+                    log.info("Compteurs d'inscriptions initialisés pour {} cours", courses);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom en mémoire sur les couples (étudiant, cours) inscrits
+ * Réponse "absent" = certainement pas inscrit : la vérification en base peut être évitée.
+ * Réponse "peut-être" = il faut interroger la base (faux positifs possibles, environ fpp).
+ * Les suppressions ne retirent rien du filtre : elles ne produisent que des faux positifs, sans effet sur l'exactitude.
+ * Désactivé par défaut (app.enrollments.membership-filter.enabled).
+ */
+@Component
+public class EnrollmentMembershipFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentMembershipFilter.class);
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private final boolean enabled;
+
+    private final int hashCount;
+
+    private final long bitCount;
+
+    private final AtomicLongArray bits;
+
+    // Tant que le filtre n'est pas chargé depuis la base, il répond toujours "peut-être"
+    private volatile boolean loaded;
+
+    public EnrollmentMembershipFilter(
+            @Value("${app.enrollments.membership-filter.enabled:false}") boolean enabled,
+            @Value("${app.enrollments.membership-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${app.enrollments.membership-filter.fpp:0.01}") double fpp) {
+        this.enabled = enabled;
+        // Dimensionnement classique : m = -n ln(p) / (ln 2)^2, k = m/n ln 2
+        long m = enabled ? (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))) : 64;
+        this.bitCount = Math.max(64, m);
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Faut-il vérifier en base si ce couple est déjà inscrit ?
+     * Toujours faux si le filtre est désactivé : l'index unique suffit alors à détecter le doublon à l'INSERT
+     */
+    public boolean shouldCheckDatabase(Long studentId, Long courseId) {
+        return enabled && mightContain(studentId, courseId);
+    }
+
+    /**
+     * Vrai si le couple est peut-être inscrit, faux s'il ne l'est certainement pas
+     */
+    public boolean mightContain(Long studentId, Long courseId) {
+        if (!enabled || !loaded) {
+            return true;
+        }
+        long hash1 = hash(studentId, courseId);
+        long hash2 = Long.rotateLeft(hash1, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * À appeler après chaque inscription enregistrée
+     */
+    public void add(Long studentId, Long courseId) {
+        if (!enabled) {
+            return;
+        }
+        long hash1 = hash(studentId, courseId);
+        long hash2 = Long.rotateLeft(hash1, 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = bits.get(index);
+            } while ((current & mask) == 0 && !bits.compareAndSet(index, current, current | mask));
+        }
+    }
+
+    /**
+     * Chargement initial depuis la table enrollments, lue en flux
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long[] count = {0};
+        try (var rows = enrollmentRepository.streamAll()) {
+            rows.forEach(row -> {
+                add(row.getStudentId(), row.getCourseId());
+                count[0]++;
+            });
+        }
+        loaded = true;
+        log.info("Filtre d'inscriptions chargé : {} couples, {} bits, {} fonctions de hachage", count[0], bitCount, hashCount);
+    }
+
+    // Mélange des deux IDs (finaliseur de SplitMix64)
+    private static long hash(Long studentId, Long courseId) {
+        long h = studentId * 0x9E3779B97F4A7C15L + courseId;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.BulkDeleteReport;
+import com.ecole.gestion_scolaire.dto.WaitlistEntrySummary;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.repository.WaitlistRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Écritures qui créent ou suppriment des inscriptions
+ * Chaque méthode met à jour les compteurs d'inscriptions et les places des cours dans la même transaction que l'écriture
+ * Les suppressions en cascade passent par des requêtes DELETE groupées : les collections enrollments
+ * de Student et Course ne sont jamais chargées
+ */
+@Service
+public class EnrollmentService {
+
+    // Nombre maximal de cours supprimés par requête groupée
+    public static final int MAX_BULK_DELETE_SIZE = 1000;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private EnrollmentCounterService counterService;
+
+    @Autowired
+    private CourseSeatService seatService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    /**
+     * Crée une inscription (l'étudiant et le cours doivent exister), ou une entrée de liste d'attente si le cours est complet
+     * Lève DataIntegrityViolationException si le couple étudiant/cours est déjà inscrit
+     */
+    @Transactional
+    public Outcome create(Long studentId, Long courseId, Date dateInscription) {
+        // La place est prise avant l'INSERT ; elle est rendue par le rollback si l'INSERT échoue (doublon)
+        if (seatService.reserve(courseId, 1) == 0) {
+            if (enrollmentRepository.existsByStudentIdAndCourseId(studentId, courseId)) {
+                return new Outcome(Outcome.Status.DUPLICATE, null, null);
+            }
+            return new Outcome(Outcome.Status.WAITLISTED, null, seatService.waitlist(studentId, courseId, dateInscription));
+        }
+
+        // Références sans SELECT : seules les clés étrangères sont nécessaires
+        Enrollment enrollment = new Enrollment();
+        enrollment.setStudent(studentRepository.getReferenceById(studentId));
+        enrollment.setCourse(courseRepository.getReferenceById(courseId));
+        enrollment.setDateInscription(dateInscription != null ? dateInscription : new Date());
+
+        Enrollment saved = enrollmentRepository.saveAndFlush(enrollment);
+        counterService.add(courseId, 1);
+        changeFeed.enrollmentCreated(saved.getId(), studentId, courseId);
+        return new Outcome(Outcome.Status.CREATED, saved, null);
+    }
+
+    /**
+     * Supprime une inscription
+     * Retourne false si elle n'existe pas
+     */
+    @Transactional
+    public boolean delete(Long enrollmentId) {
+        Optional<Enrollment> enrollment = enrollmentRepository.findById(enrollmentId);
+        if (enrollment.isEmpty()) {
+            return false;
+        }
+        Long courseId = enrollment.get().getCourse().getId();
+        Long studentId = enrollment.get().getStudent().getId();
+        enrollmentRepository.delete(enrollment.get());
+        // La ligne du cours (s'il a une capacité limitée) est verrouillée avant les compteurs, comme pour une inscription
+        seatService.release(courseId, 1);
+        counterService.add(courseId, -1);
+        changeFeed.enrollmentDeleted(enrollmentId, studentId, courseId);
+        return true;
+    }
+
+    /**
+     * Supprime un étudiant et ses inscriptions
+     * Les inscriptions sont supprimées par une seule requête, sans être chargées en mémoire
+     * La ligne de l'étudiant est verrouillée avant la lecture de ses cours : une inscription en cours de création
+     * (la vérification de clé étrangère d'InnoDB prend un verrou partagé sur l'étudiant) est validée avant cette lecture,
+     * ou échoue après la suppression ; aucune inscription n'est supprimée sans rendre sa place ni décompter son compteur
+     * Retourne false s'il n'existe pas
+     */
+    @Transactional
+    public boolean deleteStudent(Long studentId) {
+        if (studentRepository.lockById(studentId).isEmpty()) {
+            return false;
+        }
+        List<Long> courseIds = enrollmentRepository.findCourseIdsByStudentId(studentId);
+        enrollmentRepository.deleteByStudentId(studentId);
+        waitlistRepository.deleteByStudentId(studentId);
+        // Une place libérée par cours quitté, promue à l'étudiant suivant de la liste d'attente
+        // (lignes des cours verrouillées avant les compteurs)
+        seatService.releaseOneEach(courseIds);
+        for (Long courseId : courseIds) {
+            counterService.add(courseId, -1);
+            // Suppression groupée : l'ID de l'inscription n'est pas connu, le couple étudiant/cours suffit
+            changeFeed.enrollmentDeleted(null, studentId, courseId);
+        }
+        studentRepository.deleteAllByIdInBatch(List.of(studentId));
+        changeFeed.publish(ChangeFeed.STUDENT_DELETED, studentId, studentId, null);
+        return true;
+    }
+
+    /**
+     * Supprime un cours, ses inscriptions et son compteur
+     * Retourne false s'il n'existe pas
+     */
+    @Transactional
+    public boolean deleteCourse(Long courseId) {
+        return deleteCourses(List.of(courseId)).getDeleted() == 1;
+    }
+
+    /**
+     * Supprime plusieurs cours, leurs inscriptions et leurs compteurs
+     * Quatre requêtes de suppression (inscriptions, liste d'attente, compteurs, cours) quel que soit le nombre d'inscrits
+     * Les IDs inconnus sont ignorés et listés dans le résultat
+     */
+    @Transactional
+    public BulkDeleteReport deleteCourses(Collection<Long> courseIds) {
+        Set<Long> existing = courseRepository.findExistingIds(courseIds);
+        List<Long> notFound = courseIds.stream()
+            .filter(id -> !existing.contains(id))
+            .distinct()
+            .toList();
+        if (existing.isEmpty()) {
+            return new BulkDeleteReport(0, 0, notFound);
+        }
+
+        int enrollmentsDeleted = enrollmentRepository.deleteByCourseIds(existing);
+        waitlistRepository.deleteByCourseIds(existing);
+        counterService.removeCourses(existing);
+        courseRepository.deleteAllByIdInBatch(existing);
+        // Les inscriptions supprimées avec le cours sont couvertes par course.deleted
+        for (Long courseId : existing) {
+            changeFeed.publish(ChangeFeed.COURSE_DELETED, courseId, null, courseId);
+        }
+        return new BulkDeleteReport(existing.size(), enrollmentsDeleted, notFound);
+    }
+
+    /**
+     * Issue d'une demande d'inscription : inscription créée, mise en liste d'attente (cours complet) ou doublon
+     */
+    public record Outcome(Status status, Enrollment enrollment, WaitlistEntrySummary waitlistEntry) {
+
+        public enum Status {
+            CREATED,
+            WAITLISTED,
+            DUPLICATE
+        }
+    }
+}
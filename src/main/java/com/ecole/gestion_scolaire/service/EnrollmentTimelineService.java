@@ -0,0 +1,85 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.EnrollmentBucket;
+import com.ecole.gestion_scolaire.dto.EnrollmentDayCount;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentTimeline;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Inscriptions d'un cours sur une période et comptage par jour, semaine ou mois
+ * Le comptage par jour est fait par la base (GROUP BY sur l'index (course_id, date_inscription)) ;
+ * seules les lignes agrégées (au plus une par jour) sont regroupées ici en semaines ou en mois
+ */
+@Service
+public class EnrollmentTimelineService {
+
+    /**
+     * Période de regroupement, identifiée par son premier jour
+     */
+    public enum Bucket {
+        DAY, WEEK, MONTH;
+
+        public static Optional<Bucket> parse(String value) {
+            for (Bucket bucket : values()) {
+                if (bucket.name().equalsIgnoreCase(value)) {
+                    return Optional.of(bucket);
+                }
+            }
+            return Optional.empty();
+        }
+
+        LocalDate start(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+    }
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    public List<EnrollmentSummary> findBetween(Long courseId, LocalDate from, LocalDate to) {
+        return enrollmentRepository.findByCourseIdAndDateRange(courseId, java.sql.Date.valueOf(from), java.sql.Date.valueOf(to));
+    }
+
+    public EnrollmentTimeline timeline(Long courseId, LocalDate from, LocalDate to, Bucket bucket) {
+        List<EnrollmentDayCount> days = enrollmentRepository.countByDay(courseId, java.sql.Date.valueOf(from),
+            java.sql.Date.valueOf(to));
+
+        // Les jours arrivent triés : les périodes restent dans l'ordre chronologique
+        Map<LocalDate, Long> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (EnrollmentDayCount day : days) {
+            counts.merge(bucket.start(toLocalDate(day.getDay())), day.getEnrollmentCount(), Long::sum);
+            total += day.getEnrollmentCount();
+        }
+
+        List<EnrollmentBucket> buckets = new ArrayList<>(counts.size());
+        counts.forEach((start, count) -> buckets.add(new EnrollmentBucket(start, count)));
+        return new EnrollmentTimeline(courseId, from, to, bucket.name().toLowerCase(Locale.ROOT), total, buckets);
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        if (date instanceof java.sql.Date sqlDate) {
+            return sqlDate.toLocalDate();
+        }
+        return date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,229 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.controller.EnrollmentController.EnrollmentRequest;
+import com.ecole.gestion_scolaire.dto.BulkEnrollmentReport;
+import com.ecole.gestion_scolaire.dto.BulkEnrollmentReport.ItemResult;
+import com.ecole.gestion_scolaire.dto.EnrollmentTicket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File d'écriture différée des inscriptions (pics d'inscription)
+ * Le contrôleur valide la requête, la place dans une file bornée et répond 202 avec un ticket ;
+ * un thread unique vide la file par lots et les écrit via BulkEnrollmentService (une transaction par lot).
+ * File pleine : submit refuse la requête (le contrôleur répond 503 avec Retry-After).
+ * À l'arrêt, après l'arrêt du serveur web, la file est vidée en base avant de libérer la connexion.
+ * Les inscriptions en file sont en mémoire : un arrêt brutal du processus les perd.
+ * Désactivé par défaut (app.enrollments.write-behind.enabled).
+ */
+@Component
+public class EnrollmentWriteBehindQueue implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentWriteBehindQueue.class);
+
+    // Arrêté après le serveur web (phases plus élevées), avant la fermeture de la base
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    private final boolean enabled;
+
+    private final int batchSize;
+
+    private final long lingerMillis;
+
+    private final BlockingQueue<Pending> queue;
+
+    // Tickets consultables après l'écriture pendant la durée de rétention
+    private final Cache<String, EnrollmentTicket> tickets;
+
+    private final Counter rejectedCounter;
+
+    private volatile boolean accepting;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public EnrollmentWriteBehindQueue(
+            @Value("${app.enrollments.write-behind.enabled:false}") boolean enabled,
+            @Value("${app.enrollments.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.enrollments.write-behind.batch-size:500}") int batchSize,
+            @Value("${app.enrollments.write-behind.linger-ms:20}") long lingerMillis,
+            @Value("${app.enrollments.write-behind.ticket-retention:1h}") Duration ticketRetention,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, Math.min(batchSize, BulkEnrollmentService.MAX_BULK_SIZE));
+        this.lingerMillis = lingerMillis;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.tickets = Caffeine.newBuilder()
+            .expireAfterWrite(ticketRetention)
+            .maximumSize(Math.max(100_000L, queueCapacity * 10L))
+            .build();
+        Gauge.builder("enrollments.write_behind.queue", queue, BlockingQueue::size)
+            .description("Inscriptions acceptées en attente d'écriture")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("enrollments.write_behind.rejected")
+            .description("Inscriptions refusées car la file était pleine ou à l'arrêt")
+            .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Place une inscription dans la file
+     * Retourne le ticket PENDING, ou vide si la file est pleine ou en cours d'arrêt
+     */
+    public Optional<EnrollmentTicket> submit(Long studentId, Long courseId, Date dateInscription) {
+        EnrollmentTicket ticket = new EnrollmentTicket(UUID.randomUUID().toString(), EnrollmentTicket.Status.PENDING,
+            studentId, courseId, null, null, new Date(), null);
+        Pending pending = new Pending(ticket, dateInscription);
+
+        tickets.put(ticket.getTicketId(), ticket);
+        boolean queued = accepting && queue.offer(pending);
+        // Arrêt commencé entre-temps : le thread d'écriture a pu finir de vider la file
+        if (queued && !accepting && queue.remove(pending)) {
+            queued = false;
+        }
+        if (!queued) {
+            tickets.invalidate(ticket.getTicketId());
+            rejectedCounter.increment();
+            return Optional.empty();
+        }
+        return Optional.of(ticket);
+    }
+
+    public Optional<EnrollmentTicket> findTicket(String ticketId) {
+        return Optional.ofNullable(tickets.getIfPresent(ticketId));
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        writer = new Thread(this::drainLoop, "enrollment-writer");
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        accepting = false;
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("File d'écriture des inscriptions arrêtée ({} en attente)", queue.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // Boucle du thread d'écriture : attend une inscription, laisse lingerMillis aux suivantes puis écrit le lot
+    // Après stop(), continue jusqu'à ce que la file soit vide
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                if (lingerMillis > 0 && running && queue.size() < batchSize - 1) {
+                    Thread.sleep(lingerMillis);
+                }
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                // L'arrêt se fait par le drapeau running, pas par interruption : on continue à vider la file
+                Thread.interrupted();
+            } catch (RuntimeException e) {
+                log.error("Échec de l'écriture d'un lot de {} inscriptions", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        try {
+            // Un doublon créé entre la vérification et l'INSERT (inscription synchrone concurrente) est rejoué
+            // élément par élément par BulkEnrollmentService : seuls les éléments en conflit sont DUPLICATE
+            BulkEnrollmentReport report = bulkEnrollmentService.enroll(batch.stream().map(Pending::toRequest).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), report.getResults().get(i));
+            }
+        } catch (RuntimeException e) {
+            for (Pending pending : batch) {
+                fail(pending, "Erreur lors de l'inscription : " + e.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    // Un nouveau ticket remplace l'ancien : les lecteurs ne voient jamais un ticket à moitié mis à jour
+    private void complete(Pending pending, ItemResult result) {
+        EnrollmentTicket ticket = pending.ticket();
+        tickets.put(ticket.getTicketId(), new EnrollmentTicket(ticket.getTicketId(),
+            EnrollmentTicket.Status.valueOf(result.getStatus().name()), ticket.getStudentId(), ticket.getCourseId(),
+            result.getEnrollmentId(), result.getMessage(), ticket.getAcceptedAt(), new Date()));
+    }
+
+    private void fail(Pending pending, String message) {
+        EnrollmentTicket ticket = pending.ticket();
+        tickets.put(ticket.getTicketId(), new EnrollmentTicket(ticket.getTicketId(), EnrollmentTicket.Status.FAILED,
+            ticket.getStudentId(), ticket.getCourseId(), null, message, ticket.getAcceptedAt(), new Date()));
+    }
+
+    private record Pending(EnrollmentTicket ticket, Date dateInscription) {
+
+        EnrollmentRequest toRequest() {
+            EnrollmentRequest request = new EnrollmentRequest();
+            request.setStudentId(ticket.getStudentId());
+            request.setCourseId(ticket.getCourseId());
+            request.setDateInscription(dateInscription);
+            return request;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Lectures en Flux/Mono au-dessus des repositories JPA (bloquants)
+ * Chaque appel JDBC s'exécute sur un scheduler borné (au plus app.reactive.jdbc-threads threads, moins que la taille
+ * du pool de connexions) : aucun thread de requête n'attend la base, et une rafale de lectures fait la queue
+ * dans le scheduler au lieu d'épuiser le pool de connexions des endpoints MVC
+ * Les listes complètes sont lues par pages (pagination par curseur), une page à la fois selon la demande du
+ * consommateur : un client lent ne retient ni connexion ni transaction, seulement la page en cours d'envoi
+ */
+@Service
+public class ReactiveReadService {
+
+    private final Scheduler jdbcScheduler;
+
+    private final int pageSize;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private CachedLookupService cachedLookupService;
+
+    public ReactiveReadService(
+            @Value("${app.reactive.jdbc-threads:8}") int jdbcThreads,
+            @Value("${app.reactive.jdbc-queue-capacity:10000}") int queueCapacity,
+            @Value("${app.reactive.page-size:200}") int pageSize) {
+        this.jdbcScheduler = Schedulers.newBoundedElastic(jdbcThreads, queueCapacity, "reactive-jdbc");
+        this.pageSize = pageSize;
+    }
+
+    public Flux<StudentSummary> students() {
+        return keyset(studentRepository::findPageAfter, StudentSummary::getId);
+    }
+
+    public Flux<CourseSummary> courses() {
+        return keyset(courseRepository::findPageAfter, CourseSummary::getId);
+    }
+
+    public Flux<EnrollmentSummary> enrollments() {
+        return keyset(enrollmentRepository::findPageAfter, EnrollmentSummary::getId);
+    }
+
+    public Mono<StudentSummary> student(Long id) {
+        return blocking(() -> cachedLookupService.findStudent(id)).flatMap(Mono::justOrEmpty);
+    }
+
+    public Mono<CourseSummary> course(Long id) {
+        return blocking(() -> cachedLookupService.findCourse(id)).flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Étudiants inscrits à un cours ; Mono vide si le cours n'existe pas
+     */
+    public Mono<Flux<StudentSummary>> studentsOfCourse(Long courseId) {
+        return course(courseId).map(course ->
+            blocking(() -> enrollmentRepository.findStudentsByCourseId(courseId)).flatMapIterable(Function.identity()));
+    }
+
+    /**
+     * Cours d'un étudiant ; Mono vide si l'étudiant n'existe pas
+     */
+    public Mono<Flux<CourseSummary>> coursesOfStudent(Long studentId) {
+        return student(studentId).map(student ->
+            blocking(() -> enrollmentRepository.findCoursesByStudentId(studentId)).flatMapIterable(Function.identity()));
+    }
+
+    @PreDestroy
+    void dispose() {
+        jdbcScheduler.dispose();
+    }
+
+    // Au plus une page d'avance (prefetch 1) : la page suivante est lue pendant l'envoi de la page courante
+    private <T> Flux<T> keyset(BiFunction<Long, Pageable, List<T>> page, Function<T, Long> id) {
+        return page(page, 0L)
+            .expand(rows -> rows.size() < pageSize
+                ? Mono.empty()
+                : page(page, id.apply(rows.get(rows.size() - 1))))
+            .concatMapIterable(Function.identity(), 1);
+    }
+
+    private <T> Mono<List<T>> page(BiFunction<Long, Pageable, List<T>> page, Long afterId) {
+        return blocking(() -> page.apply(afterId, PageRequest.ofSize(pageSize)));
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+}
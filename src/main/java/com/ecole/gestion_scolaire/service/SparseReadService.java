@@ -0,0 +1,106 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Lectures à colonnes choisies (fields=) et inclusion des inscriptions (include=) pour les listes d'étudiants et de cours
+ * La clause SELECT ne contient que les colonnes demandées ; les cours des étudiants (ou les étudiants des cours)
+ * sont lus en une seule requête avec jointure pour toute la liste, quel que soit son nombre d'éléments
+ */
+@Service
+@Transactional(readOnly = true)
+public class SparseReadService {
+
+    public static final List<String> STUDENT_FIELDS = List.of("id", "nom", "email", "telephone", "version");
+
+    public static final List<String> COURSE_FIELDS =
+        List.of("id", "titre", "description", "professeur", "capacite", "placesRestantes", "version");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // fields provient de FieldSelection.parse : uniquement des noms de STUDENT_FIELDS
+    public List<Map<String, Object>> findStudents(List<String> fields) {
+        return select("Student", "s", fields);
+    }
+
+    // fields provient de FieldSelection.parse : uniquement des noms de COURSE_FIELDS
+    public List<Map<String, Object>> findCourses(List<String> fields) {
+        return select("Course", "c", fields);
+    }
+
+    /**
+     * Cours de chaque étudiant (d'un seul étudiant si studentId n'est pas null), en une requête
+     */
+    public Map<Long, List<CourseSummary>> findCoursesByStudent(Long studentId) {
+        TypedQuery<Tuple> query = entityManager.createQuery(
+            "select e.student.id, c.id, c.titre, c.description, c.professeur, c.version "
+                + "from Enrollment e join e.course c"
+                + (studentId != null ? " where e.student.id = :studentId" : "")
+                + " order by c.id", Tuple.class);
+        if (studentId != null) {
+            query.setParameter("studentId", studentId);
+        }
+        return query.getResultStream().collect(Collectors.groupingBy(
+            row -> row.get(0, Long.class),
+            Collectors.mapping(row -> new CourseSummary(row.get(1, Long.class), row.get(2, String.class),
+                row.get(3, String.class), row.get(4, String.class), row.get(5, Long.class)), Collectors.toList())));
+    }
+
+    /**
+     * Étudiants de chaque cours (d'un seul cours si courseId n'est pas null), en une requête
+     */
+    public Map<Long, List<StudentSummary>> findStudentsByCourse(Long courseId) {
+        TypedQuery<Tuple> query = entityManager.createQuery(
+            "select e.course.id, s.id, s.nom, s.email, s.telephone, s.version "
+                + "from Enrollment e join e.student s"
+                + (courseId != null ? " where e.course.id = :courseId" : "")
+                + " order by s.id", Tuple.class);
+        if (courseId != null) {
+            query.setParameter("courseId", courseId);
+        }
+        return query.getResultStream().collect(Collectors.groupingBy(
+            row -> row.get(0, Long.class),
+            Collectors.mapping(row -> new StudentSummary(row.get(1, Long.class), row.get(2, String.class),
+                row.get(3, String.class), row.get(4, String.class), row.get(5, Long.class)), Collectors.toList())));
+    }
+
+    /**
+     * Ajoute à chaque ligne la liste rattachée (liste vide si aucune inscription)
+     */
+    public static <T> void attach(List<Map<String, Object>> rows, String name, Map<Long, List<T>> related) {
+        for (Map<String, Object> row : rows) {
+            row.put(name, related.getOrDefault((Long) row.get("id"), List.of()));
+        }
+    }
+
+    private List<Map<String, Object>> select(String entity, String alias, List<String> fields) {
+        String columns = fields.stream().map(field -> alias + "." + field).collect(Collectors.joining(", "));
+        List<Tuple> tuples = entityManager.createQuery(
+            "select " + columns + " from " + entity + " " + alias + " order by " + alias + ".id", Tuple.class)
+            .getResultList();
+
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < fields.size(); i++) {
+                row.put(fields.get(i), tuple.get(i));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
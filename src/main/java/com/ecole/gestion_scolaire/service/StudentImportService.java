@@ -0,0 +1,275 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.StudentImportReport;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service d'import d'étudiants depuis un fichier CSV ou NDJSON (un objet JSON par ligne)
+ * Le fichier est lu ligne par ligne et traité par lots de CHUNK_SIZE : une requête IN sur les emails
+ * par lot, puis les INSERT du lot dans une transaction. Seul le lot courant est gardé en mémoire.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+
+    public static final int CHUNK_SIZE = 500;
+
+    /**
+     * Formats de fichier acceptés
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentSearchIndex searchIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public StudentImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importe les étudiants lus depuis le reader
+     * Lève IllegalArgumentException si l'en-tête CSV ne contient pas les colonnes nom et email
+     */
+    public StudentImportReport importStudents(Reader reader, Format format) throws IOException {
+        StudentImportReport report = new StudentImportReport();
+        BufferedReader lines = new BufferedReader(reader);
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        CsvHeader header = null;
+        long lineNumber = 0;
+        String line;
+
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = CsvHeader.parse(line);
+                continue;
+            }
+
+            report.rowRead();
+            try {
+                chunk.add(format == Format.CSV ? header.toRow(lineNumber, line) : parseJson(lineNumber, line));
+            } catch (JsonProcessingException e) {
+                report.reject(lineNumber, null, "Ligne illisible : " + e.getOriginalMessage());
+                continue;
+            } catch (IllegalArgumentException e) {
+                report.reject(lineNumber, null, "Ligne illisible : " + e.getMessage());
+                continue;
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+
+        log.info("Import d'étudiants terminé : {} lignes lues, {} importées, {} rejetées",
+            report.getProcessed(), report.getImported(), report.getRejected());
+        return report;
+    }
+
+    private ImportRow parseJson(long lineNumber, String line) throws JsonProcessingException {
+        StudentSummary value = objectMapper.readValue(line, StudentSummary.class);
+        return new ImportRow(lineNumber, value.getNom(), value.getEmail(), value.getTelephone());
+    }
+
+    private void importChunk(List<ImportRow> chunk, StudentImportReport report) {
+        // 1. Validation et doublons à l'intérieur du lot (les lots précédents sont déjà en base)
+        Map<String, ImportRow> candidates = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            if (isBlank(row.nom())) {
+                report.reject(row.line(), row.email(), "Le nom est obligatoire.");
+            } else if (isBlank(row.email()) || !row.email().contains("@")) {
+                report.reject(row.line(), row.email(), "Email invalide.");
+            } else if (candidates.putIfAbsent(normalize(row.email()), row) != null) {
+                report.reject(row.line(), row.email(), "Email en double dans le fichier.");
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 2. Une seule requête IN pour tout le lot, sur les emails tels qu'ils seront insérés (sans espaces)
+        // et sous leur forme normalisée (clés de candidates), quelle que soit la collation de la colonne
+        Set<String> emails = new LinkedHashSet<>(candidates.keySet());
+        candidates.values().forEach(row -> emails.add(row.email().trim()));
+        for (String taken : studentRepository.findExistingEmails(emails)) {
+            ImportRow row = candidates.remove(normalize(taken));
+            if (row != null) {
+                report.reject(row.line(), row.email(), "Un étudiant avec cet email existe déjà.");
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 3. INSERT du lot dans une transaction (regroupés par hibernate.jdbc.batch_size)
+        List<Student> students = candidates.values().stream().map(ImportRow::toStudent).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> studentRepository.saveAllAndFlush(students));
+            report.chunkImported(students.size());
+            students.forEach(student -> searchIndex.put(student.getId(), student.getNom(), student.getEmail()));
+        } catch (DataIntegrityViolationException e) {
+            // Un email a été créé entre la vérification et l'insertion (requête concurrente) :
+            // on rejoue le lot ligne par ligne pour n'écarter que les lignes en conflit
+            entityManager.clear();
+            importRowByRow(new ArrayList<>(candidates.values()), report);
+        }
+
+        // Les étudiants importés n'ont plus à rester dans le contexte de persistance
+        entityManager.clear();
+        log.debug("Import d'étudiants : lot {} validé ({} lignes lues)", report.getChunks(), report.getProcessed());
+    }
+
+    private void importRowByRow(List<ImportRow> rows, StudentImportReport report) {
+        int imported = 0;
+        for (ImportRow row : rows) {
+            try {
+                Student student = row.toStudent();
+                transactionTemplate.executeWithoutResult(status -> studentRepository.saveAndFlush(student));
+                searchIndex.put(student.getId(), student.getNom(), student.getEmail());
+                imported++;
+            } catch (DataIntegrityViolationException e) {
+                entityManager.clear();
+                report.reject(row.line(), row.email(), "Un étudiant avec cet email existe déjà.");
+            }
+        }
+        report.chunkImported(imported);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Ligne de données du fichier, avec son numéro de ligne
+     */
+    private record ImportRow(long line, String nom, String email, String telephone) {
+
+        Student toStudent() {
+            Student student = new Student();
+            student.setNom(nom.trim());
+            student.setEmail(email.trim());
+            student.setTelephone(isBlank(telephone) ? null : telephone.trim());
+            return student;
+        }
+    }
+
+    /**
+     * En-tête CSV : position des colonnes nom, email et telephone (dans n'importe quel ordre)
+     * Le séparateur est "," ou ";" (export Excel), déduit de la ligne d'en-tête
+     */
+    private record CsvHeader(char separator, int nom, int email, int telephone) {
+
+        static CsvHeader parse(String line) {
+            char separator = line.indexOf(';') >= 0 && line.indexOf(',') < 0 ? ';' : ',';
+            List<String> columns = split(line, separator);
+            int nom = -1;
+            int email = -1;
+            int telephone = -1;
+            for (int i = 0; i < columns.size(); i++) {
+                switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "nom" -> nom = i;
+                    case "email" -> email = i;
+                    case "telephone", "téléphone" -> telephone = i;
+                    default -> { }
+                }
+            }
+            if (nom < 0 || email < 0) {
+                throw new IllegalArgumentException("En-tête CSV invalide : les colonnes nom et email sont obligatoires.");
+            }
+            return new CsvHeader(separator, nom, email, telephone);
+        }
+
+        ImportRow toRow(long lineNumber, String line) {
+            List<String> values = split(line, separator);
+            return new ImportRow(lineNumber, column(values, nom), column(values, email), column(values, telephone));
+        }
+
+        private static String column(List<String> values, int index) {
+            return index >= 0 && index < values.size() ? values.get(index) : null;
+        }
+
+        /**
+         * Découpe une ligne CSV (champs entre guillemets et "" échappés acceptés, pas de retour à la ligne dans un champ)
+         */
+        private static List<String> split(String line, char separator) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == separator) {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("guillemet non fermé");
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,505 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.StudentSearchHit;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche en mémoire sur le nom et l'email des étudiants (saisie semi-automatique)
+ * Chaque étudiant occupe un "slot" (entier) ; pour chaque trigramme du texte normalisé (minuscules, sans accents),
+ * l'index garde la liste triée des slots qui le contiennent (tableaux d'int).
+ * Une recherche intersecte les listes des trigrammes de la requête, majore le score de chaque candidat à partir
+ * des seules listes (début d'un mot du nom, début de l'email) et ne lit le texte que des candidats qui peuvent
+ * encore entrer dans le top K.
+ * Une modification ou une suppression marque l'ancien slot comme supprimé (les listes restent triées en ajout seul) ;
+ * l'index est compacté quand les slots supprimés deviennent trop nombreux.
+ */
+@Component
+public class StudentSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSearchIndex.class);
+
+    // Longueur minimale d'un mot de requête (2 caractères : recherche par début de mot uniquement)
+    public static final int MIN_QUERY_LENGTH = 2;
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    public static final int MAX_LIMIT = 50;
+
+    // Marque de début de mot : "^al" est le trigramme des mots qui commencent par "al"
+    private static final char WORD_START = '^';
+
+    // Marques réservées au classement : début d'un mot du nom, début de l'email
+    private static final char NOM_WORD_START = '\u0001';
+    private static final char EMAIL_START = '\u0002';
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final boolean enabled;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Données par slot ; ids[slot] == 0 pour un slot supprimé
+    private long[] ids = new long[1024];
+    private String[] noms = new String[1024];
+    private String[] emails = new String[1024];
+    private String[] texts = new String[1024];
+    private int[] nomLengths = new int[1024];
+    private int slotCount;
+    private int deadSlots;
+
+    private final Map<Long, Integer> slotById = new HashMap<>();
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // Pendant le chargement initial : IDs modifiés ou supprimés entre-temps, à ne pas écraser par la lecture en base
+    private Set<Long> touchedDuringLoad = new HashSet<>();
+
+    private volatile boolean loaded;
+
+    public StudentSearchIndex(@Value("${app.students.search-index.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return enabled && loaded;
+    }
+
+    /**
+     * Ajoute ou remplace un étudiant (à appeler après l'enregistrement)
+     */
+    public void put(Long id, String nom, String email) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(id);
+            }
+            removeSlot(id);
+            addSlot(id, nom, email);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un étudiant (à appeler après la suppression)
+     */
+    public void remove(Long id) {
+        if (!enabled || id == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (touchedDuringLoad != null) {
+                touchedDuringLoad.add(id);
+            }
+            removeSlot(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Les limit meilleurs étudiants dont le nom ou l'email contient tous les mots de la requête
+     * Classement : mot du nom qui commence par le mot cherché, puis début de l'email, puis simple sous-chaîne ;
+     * à score égal, le nom le plus court puis l'ID le plus petit
+     */
+    public List<StudentSearchHit> search(String query, int limit) {
+        List<String> words = queryWords(query);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] candidates = candidates(words);
+            if (candidates == null) {
+                return List.of();
+            }
+
+            // Listes de classement de chaque mot, parcourues avec un curseur (les candidats sont triés)
+            Cursor[] nomStarts = new Cursor[words.size()];
+            Cursor[] emailStarts = new Cursor[words.size()];
+            for (int i = 0; i < words.size(); i++) {
+                String word = words.get(i);
+                nomStarts[i] = new Cursor(postings.get(gram(NOM_WORD_START, word.charAt(0), word.charAt(1))));
+                emailStarts[i] = new Cursor(postings.get(gram(EMAIL_START, word.charAt(0), word.charAt(1))));
+            }
+
+            // Tas des limit meilleurs résultats, le moins bon en tête
+            PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, Scored.WORST_FIRST);
+            for (int slot : candidates) {
+                if (ids[slot] == 0) {
+                    continue;
+                }
+                // Majorant du score, sans lire le texte : inutile d'aller plus loin s'il ne bat pas le moins bon du tas
+                int bound = 0;
+                for (int i = 0; i < words.size(); i++) {
+                    bound += nomStarts[i].contains(slot) ? 3 : emailStarts[i].contains(slot) ? 2 : 1;
+                }
+                if (best.size() == limit && !best.peek().isBeatenBy(bound, nomLengths[slot], ids[slot])) {
+                    continue;
+                }
+
+                int score = score(slot, words);
+                if (score == 0) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(new Scored(slot, score, nomLengths[slot], ids[slot]));
+                } else if (best.peek().isBeatenBy(score, nomLengths[slot], ids[slot])) {
+                    best.poll();
+                    best.add(new Scored(slot, score, nomLengths[slot], ids[slot]));
+                }
+            }
+
+            StudentSearchHit[] hits = new StudentSearchHit[best.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                Scored scored = best.poll();
+                hits[i] = new StudentSearchHit(scored.id, noms[scored.slot], emails[scored.slot], scored.score);
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Construction initiale depuis la table students, lue en flux
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        try (var rows = studentRepository.streamAll()) {
+            rows.forEach(this::loadRow);
+        }
+        lock.writeLock().lock();
+        try {
+            touchedDuringLoad = null;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Index de recherche des étudiants construit : {} étudiants, {} trigrammes en {} ms",
+            size(), postings.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void loadRow(StudentSummary row) {
+        lock.writeLock().lock();
+        try {
+            if (!touchedDuringLoad.contains(row.getId())) {
+                addSlot(row.getId(), row.getNom(), row.getEmail());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addSlot(long id, String nom, String email) {
+        if (slotCount == ids.length) {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            noms = Arrays.copyOf(noms, capacity);
+            emails = Arrays.copyOf(emails, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            nomLengths = Arrays.copyOf(nomLengths, capacity);
+        }
+        int slot = slotCount++;
+        String normalizedNom = normalize(nom);
+        String normalizedEmail = normalize(email);
+        ids[slot] = id;
+        noms[slot] = nom == null ? "" : nom;
+        emails[slot] = email == null ? "" : email;
+        texts[slot] = normalizedNom + ' ' + normalizedEmail;
+        nomLengths[slot] = noms[slot].length();
+        slotById.put(id, slot);
+
+        for (long gram : grams(normalizedNom, normalizedEmail)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(slot);
+        }
+    }
+
+    private void removeSlot(long id) {
+        Integer slot = slotById.remove(id);
+        if (slot != null) {
+            ids[slot] = 0;
+            noms[slot] = null;
+            emails[slot] = null;
+            texts[slot] = null;
+            deadSlots++;
+        }
+    }
+
+    // Reconstruit l'index sans les slots supprimés quand ils représentent plus de la moitié des slots vivants
+    private void compactIfNeeded() {
+        if (deadSlots < 1024 || deadSlots < slotById.size() / 2) {
+            return;
+        }
+        long[] oldIds = ids;
+        String[] oldNoms = noms;
+        String[] oldEmails = emails;
+        int oldCount = slotCount;
+
+        int capacity = Math.max(1024, slotById.size() + (slotById.size() >> 1));
+        ids = new long[capacity];
+        noms = new String[capacity];
+        emails = new String[capacity];
+        texts = new String[capacity];
+        nomLengths = new int[capacity];
+        slotCount = 0;
+        deadSlots = 0;
+        slotById.clear();
+        postings.clear();
+        for (int slot = 0; slot < oldCount; slot++) {
+            if (oldIds[slot] != 0) {
+                addSlot(oldIds[slot], oldNoms[slot], oldEmails[slot]);
+            }
+        }
+    }
+
+    // Candidats : intersection des listes de chaque trigramme de chaque mot, de la plus courte à la plus longue
+    private int[] candidates(List<String> words) {
+        List<Postings> lists = new ArrayList<>();
+        for (String word : words) {
+            for (long gram : queryGrams(word)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return null;
+                }
+                lists.add(list);
+            }
+        }
+        lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+        int[] result = Arrays.copyOf(lists.get(0).slots, lists.get(0).size);
+        int size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = intersect(result, size, lists.get(i));
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // Garde dans result (trié) les slots présents dans other (trié)
+    // Fusion linéaire si les deux listes ont des tailles proches, recherche dichotomique si other est bien plus longue
+    private static int intersect(int[] result, int size, Postings other) {
+        int kept = 0;
+        int from = 0;
+        boolean merge = other.size < size * 16L;
+        for (int i = 0; i < size && from < other.size; i++) {
+            int slot = result[i];
+            if (merge) {
+                while (from < other.size && other.slots[from] < slot) {
+                    from++;
+                }
+                if (from < other.size && other.slots[from] == slot) {
+                    result[kept++] = slot;
+                    from++;
+                }
+            } else {
+                int position = Arrays.binarySearch(other.slots, from, other.size, slot);
+                if (position >= 0) {
+                    result[kept++] = slot;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+        }
+        return kept;
+    }
+
+    private int score(int slot, List<String> words) {
+        String text = texts[slot];
+        int emailStart = text.lastIndexOf(' ') + 1;
+        int total = 0;
+        for (String word : words) {
+            int best = 0;
+            int position = text.indexOf(word);
+            while (position >= 0 && best < 3) {
+                boolean wordStart = position == 0 || !Character.isLetterOrDigit(text.charAt(position - 1));
+                if (position == emailStart) {
+                    best = Math.max(best, 2);
+                } else if (wordStart && position < emailStart) {
+                    best = 3;
+                } else {
+                    best = Math.max(best, 1);
+                }
+                position = text.indexOf(word, position + 1);
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    // Trigrammes indexés : ceux de chaque mot précédé de la marque de début, ceux du texte complet
+    // (sous-chaînes qui traversent la ponctuation, ex. "n.d" dans "jean.dupont") et les marques de classement
+    private static Set<Long> grams(String nom, String email) {
+        Set<Long> grams = new HashSet<>();
+        for (String word : WORD_SEPARATORS.split(nom)) {
+            if (!word.isEmpty()) {
+                addGrams(grams, WORD_START + word);
+            }
+            if (word.length() >= 2) {
+                grams.add(gram(NOM_WORD_START, word.charAt(0), word.charAt(1)));
+            }
+        }
+        for (String word : WORD_SEPARATORS.split(email)) {
+            if (!word.isEmpty()) {
+                addGrams(grams, WORD_START + word);
+            }
+        }
+        if (email.length() >= 2) {
+            grams.add(gram(EMAIL_START, email.charAt(0), email.charAt(1)));
+        }
+        addGrams(grams, nom + ' ' + email);
+        return grams;
+    }
+
+    // Trigrammes d'un mot de requête : début de mot pour 2 caractères, sous-chaîne au-delà
+    private static Set<Long> queryGrams(String word) {
+        Set<Long> grams = new LinkedHashSet<>();
+        addGrams(grams, word.length() < 3 ? WORD_START + word : word);
+        return grams;
+    }
+
+    private static void addGrams(Set<Long> grams, String value) {
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            grams.add(gram(value.charAt(i), value.charAt(i + 1), value.charAt(i + 2)));
+        }
+    }
+
+    private static long gram(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static List<String> queryWords(String query) {
+        List<String> words = new ArrayList<>();
+        if (query == null) {
+            return words;
+        }
+        for (String word : normalize(query).split("\\s+")) {
+            if (word.length() >= MIN_QUERY_LENGTH) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Liste de slots triée, en ajout seul
+     */
+    private static final class Postings {
+
+        private int[] slots = new int[4];
+
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size + (size >> 1) + 1);
+            }
+            slots[size++] = slot;
+        }
+    }
+
+    /**
+     * Parcours croissant d'une liste de slots (null = liste vide)
+     */
+    private static final class Cursor {
+
+        private final Postings list;
+
+        private int position;
+
+        Cursor(Postings list) {
+            this.list = list;
+        }
+
+        // Les slots demandés doivent être croissants d'un appel à l'autre
+        boolean contains(int slot) {
+            if (list == null) {
+                return false;
+            }
+            while (position < list.size && list.slots[position] < slot) {
+                position++;
+            }
+            return position < list.size && list.slots[position] == slot;
+        }
+    }
+
+    private record Scored(int slot, int score, int nomLength, long id) {
+
+        static final Comparator<Scored> WORST_FIRST = Comparator
+            .comparingInt(Scored::score)
+            .thenComparing(Scored::nomLength, Comparator.reverseOrder())
+            .thenComparing(Scored::id, Comparator.reverseOrder());
+
+        // Vrai si un résultat (score, nomLength, id) serait mieux classé que celui-ci
+        boolean isBeatenBy(int otherScore, int otherNomLength, long otherId) {
+            if (otherScore != score) {
+                return otherScore > score;
+            }
+            if (otherNomLength != nomLength) {
+                return otherNomLength < nomLength;
+            }
+            return otherId < id;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.web.EntityTags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Modification d'un étudiant (nom, email, téléphone)
+ * Une seule transaction en écriture, donc sur la base principale : la ligne est verrouillée avant les vérifications
+ * de If-Match et d'unicité de l'email, qui ne portent jamais sur les données en retard d'un réplica
+ */
+@Service
+public class StudentUpdateService {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    /**
+     * Modifie nom, email et téléphone
+     * Lève DataIntegrityViolationException si l'email est pris par une autre transaction après la vérification
+     * (index unique sur l'email)
+     */
+    @Transactional
+    public Outcome update(Long id, Student details, String ifMatch) {
+        Optional<Student> locked = studentRepository.findByIdForUpdate(id);
+        if (locked.isEmpty()) {
+            return new Outcome(Outcome.Status.NOT_FOUND, null);
+        }
+        Student student = locked.get();
+        if (!EntityTags.ifMatch(ifMatch, EntityTags.of("student", id, student.getVersion()))) {
+            return new Outcome(Outcome.Status.PRECONDITION_FAILED, null);
+        }
+        if (!student.getEmail().equals(details.getEmail()) && studentRepository.existsByEmail(details.getEmail())) {
+            return new Outcome(Outcome.Status.EMAIL_TAKEN, null);
+        }
+
+        student.setNom(details.getNom());
+        student.setEmail(details.getEmail());
+        student.setTelephone(details.getTelephone());
+        // Flush immédiat : la version renvoyée (ETag) est celle écrite en base
+        return new Outcome(Outcome.Status.UPDATED, studentRepository.saveAndFlush(student));
+    }
+
+    /**
+     * Issue d'une modification : étudiant modifié (avec sa nouvelle version), introuvable, If-Match périmé,
+     * ou email déjà utilisé par un autre étudiant
+     */
+    public record Outcome(Status status, Student student) {
+
+        public enum Status {
+            UPDATED,
+            NOT_FOUND,
+            PRECONDITION_FAILED,
+            EMAIL_TAKEN
+        }
+    }
+}
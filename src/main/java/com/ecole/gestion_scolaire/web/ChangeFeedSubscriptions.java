@@ -0,0 +1,116 @@
+package com.ecole.gestion_scolaire.web;
+
+import com.ecole.gestion_scolaire.dto.ChangeEvent;
+import com.ecole.gestion_scolaire.service.ChangeFeed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Abonnés Server-Sent Events du flux de modifications (GET /api/changes)
+ * Chaque abonné est servi par un thread virtuel qui relit le tampon de ChangeFeed depuis son dernier ID :
+ * la publication ne dépend pas du nombre d'abonnés, et un client lent ne retarde que lui-même
+ * (s'il prend plus de app.changes.buffer-size événements de retard, il reçoit « reset »)
+ */
+@Component
+public class ChangeFeedSubscriptions implements DisposableBean {
+
+    public static final String RESET_EVENT = "reset";
+
+    private final ChangeFeed changeFeed;
+
+    private final Duration heartbeat;
+
+    private final Duration timeout;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    public ChangeFeedSubscriptions(ChangeFeed changeFeed, MeterRegistry meterRegistry,
+                                   @Value("${app.changes.heartbeat:15s}") Duration heartbeat,
+                                   @Value("${app.changes.timeout:30m}") Duration timeout) {
+        this.changeFeed = changeFeed;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        Gauge.builder("changes.subscribers", subscribers, AtomicInteger::get)
+            .description("Abonnés connectés au flux de modifications")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ouvre un abonnement : événements postérieurs à lastEventId (reprise après reconnexion),
+     * ou seulement les nouveaux si lastEventId est absent ; « reset » d'abord si lastEventId vient d'un autre processus
+     * Lève IllegalArgumentException si lastEventId n'est pas un ID d'événement
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        long cursor = lastEventId != null ? changeFeed.parseEventId(lastEventId) : changeFeed.head();
+        // Durée maximale d'un abonnement (app.changes.timeout, spring.mvc.async.request-timeout étant illimité) :
+        // la réponse se termine et le client se reconnecte avec Last-Event-ID ; un client disparu sans que
+        // l'écriture d'un heartbeat échoue ne garde pas indéfiniment son thread et sa place d'admission « feed »
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> {
+            open.set(false);
+            emitter.complete();
+        });
+        emitter.onError(e -> open.set(false));
+        subscribers.incrementAndGet();
+        executor.execute(() -> stream(emitter, open, cursor));
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, AtomicBoolean open, long cursor) {
+        try {
+            while (open.get()) {
+                Optional<List<ChangeEvent>> events = changeFeed.readAfter(cursor);
+                if (events.isEmpty()) {
+                    // Événements manquants (trop de retard, ou ID d'avant un redémarrage) : le client recharge
+                    // ses données puis reprend à partir de cet ID
+                    cursor = changeFeed.head();
+                    String resetId = changeFeed.eventId(cursor);
+                    emitter.send(SseEmitter.event().id(resetId).name(RESET_EVENT)
+                        .data(Map.of("lastEventId", resetId), MediaType.APPLICATION_JSON));
+                    continue;
+                }
+                for (ChangeEvent event : events.get()) {
+                    emitter.send(SseEmitter.event().id(changeFeed.eventId(event.getId())).name(event.getType())
+                        .data(event, MediaType.APPLICATION_JSON));
+                    cursor = event.getId();
+                }
+                if (!changeFeed.awaitAfter(cursor, heartbeat)) {
+                    // Garde la connexion ouverte à travers les proxys et détecte les clients partis
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client déconnecté ou réponse déjà terminée
+            emitter.completeWithError(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } finally {
+            subscribers.decrementAndGet();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecole.gestion_scolaire.web;
+
+import com.ecole.gestion_scolaire.dto.RosterVersion;
+import org.springframework.util.StringUtils;
+
+/**
+ * ETags forts calculés à partir des colonnes @Version (GET conditionnels et If-Match)
+ * Le tag est connu avant de lire la réponse : un If-None-Match à jour donne un 304 sans requête de liste
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * ETag d'une entité : "student-12-v3"
+     */
+    public static String of(String kind, Long id, Long version) {
+        return "\"" + kind + "-" + id + "-v" + version + "\"";
+    }
+
+    /**
+     * ETag d'une liste rattachée à une entité : "course-4-students-120-81234-360"
+     */
+    public static String ofRoster(String kind, Long id, String roster, RosterVersion version) {
+        return "\"" + kind + "-" + id + "-" + roster + "-" + version.getCount() + "-"
+            + version.getEnrollmentIdSum() + "-" + version.getVersionSum() + "\"";
+    }
+
+    /**
+     * ETag d'une entité renvoyée avec une liste rattachée (include=) : "student-12-v3-courses-2-81-4"
+     */
+    public static String ofEmbedded(String kind, Long id, Long version, String roster, RosterVersion rosterVersion) {
+        return "\"" + kind + "-" + id + "-v" + version + "-" + roster + "-" + rosterVersion.getCount() + "-"
+            + rosterVersion.getEnrollmentIdSum() + "-" + rosterVersion.getVersionSum() + "\"";
+    }
+
+    /**
+     * Vrai si l'en-tête If-Match est absent, vaut "*" ou contient l'ETag courant
+     */
+    public static boolean ifMatch(String ifMatch, String currentTag) {
+        if (!StringUtils.hasText(ifMatch) || ifMatch.trim().equals("*")) {
+            return true;
+        }
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(currentTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
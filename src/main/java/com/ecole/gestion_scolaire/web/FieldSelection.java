@@ -0,0 +1,61 @@
+package com.ecole.gestion_scolaire.web;
+
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paramètre fields= des listes et lectures par ID (fields=id,nom) : colonnes demandées par le client
+ * Seuls les noms de la liste autorisée sont acceptés, ce qui permet de les placer tels quels dans la clause SELECT
+ */
+public final class FieldSelection {
+
+    private FieldSelection() {
+    }
+
+    /**
+     * Champs demandés, dans l'ordre autorisé, id toujours en premier ; tous les champs si fields est vide
+     * IllegalArgumentException si un champ est inconnu
+     */
+    public static List<String> parse(String fields, List<String> allowed) {
+        if (!StringUtils.hasText(fields)) {
+            return allowed;
+        }
+        List<String> requested = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Champ inconnu : " + name + " (champs possibles : "
+                    + String.join(", ", allowed) + ")");
+            }
+            requested.add(name);
+        }
+        List<String> selected = new ArrayList<>();
+        for (String name : allowed) {
+            if (name.equals("id") || requested.contains(name)) {
+                selected.add(name);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Copie des seuls champs sélectionnés d'une vue déjà chargée (lecture via le cache)
+     */
+    public static Map<String, Object> project(Object view, List<String> fields) {
+        BeanWrapper wrapper = new BeanWrapperImpl(view);
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            row.put(field, wrapper.getPropertyValue(field));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecole.gestion_scolaire.web;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration Jackson des réponses JSON
+ * Le module Blackbird remplace les appels par réflexion aux getters/setters des DTO par des accesseurs générés :
+ * enregistré comme bean, il est ajouté à l'ObjectMapper de Spring Boot (et donc à ResponseStreamWriter)
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecole.gestion_scolaire.web;
+
+import com.ecole.gestion_scolaire.dto.KeysetPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilitaires pour la pagination par curseur (WHERE id > afterId ORDER BY id LIMIT n)
+ * Contrairement à OFFSET, le coût d'une page ne dépend pas de sa position dans la table
+ */
+public final class KeysetPagination {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private KeysetPagination() {
+    }
+
+    /**
+     * Borne la taille demandée entre 1 et MAX_PAGE_SIZE
+     */
+    public static int boundedSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Limite de lecture : une ligne de plus que la page pour savoir s'il existe une page suivante
+     */
+    public static Pageable probe(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Construit la page à partir des lignes lues avec probe(size)
+     */
+    public static <T> KeysetPage<T> toPage(List<T> rows, int size, Function<T, Long> idOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new KeysetPage<>(items, idOf.apply(items.get(size - 1)));
+    }
+}
@@ -0,0 +1,134 @@
+package com.ecole.gestion_scolaire.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Écrit un Stream de résultats directement dans la réponse HTTP (tableau JSON, NDJSON ou CSV)
+ * Chaque ligne est sérialisée dès qu'elle est lue depuis la base : la mémoire utilisée
+ * reste constante quelle que soit la taille de la table
+ */
+@Component
+public class ResponseStreamWriter {
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ResponseStreamWriter(ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        // Pas de flush du flux de sortie à chaque objet : le tampon de Tomcat regroupe les écritures
+        this.objectMapper = objectMapper.copy().disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Tableau JSON : [ {...}, {...} ]
+     * Le Stream est ouvert dans une transaction en lecture seule (nécessaire pour garder
+     * le curseur JDBC ouvert) sur le thread qui écrit la réponse
+     */
+    public <T> StreamingResponseBody jsonArray(Supplier<Stream<T>> source) {
+        return out -> inTransaction(source, rows -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                rows.forEach(row -> {
+                    try {
+                        generator.writeObject(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        });
+    }
+
+    /**
+     * NDJSON : un objet JSON par ligne
+     */
+    public <T> StreamingResponseBody ndjson(Supplier<Stream<T>> source) {
+        return out -> inTransaction(source, rows -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                rows.forEach(row -> {
+                    try {
+                        generator.writeObject(row);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * CSV (séparateur ",", champs entre guillemets si nécessaire) avec une ligne d'en-tête
+     */
+    public <T> StreamingResponseBody csv(List<String> header, Supplier<Stream<T>> source,
+                                         Function<T, List<?>> columns) {
+        return out -> inTransaction(source, rows -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeCsvLine(writer, header);
+            rows.forEach(row -> {
+                try {
+                    writeCsvLine(writer, columns.apply(row));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        });
+    }
+
+    private <T> void inTransaction(Supplier<Stream<T>> source, RowsConsumer<T> consumer) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<T> rows = source.get()) {
+                consumer.accept(rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                String text = value.toString();
+                if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(text.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(text);
+                }
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    @FunctionalInterface
+    private interface RowsConsumer<T> {
+        void accept(Stream<T> rows) throws IOException;
+    }
+}
@@ -0,0 +1,73 @@
+-- Schéma initial : tables des entités JPA (Student, Course, Enrollment, CourseEnrollmentCounter, WaitlistEntry)
+-- Identique au schéma créé par ddl-auto=update ; une base existante créée ainsi est marquée à cette version
+-- (spring.flyway.baseline-on-migrate) sans réexécuter ce script
+
+create table courses (
+    id bigint not null auto_increment,
+    titre varchar(255) not null,
+    description varchar(255),
+    professeur varchar(255) not null,
+    capacite integer,
+    places_restantes integer,
+    version bigint default 0 not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table students (
+    id bigint not null,
+    nom varchar(255) not null,
+    email varchar(255) not null,
+    telephone varchar(255),
+    version bigint default 0 not null,
+    primary key (id),
+    constraint uk_students_email unique (email)
+) engine=InnoDB;
+
+create table enrollments (
+    id bigint not null,
+    student_id bigint not null,
+    course_id bigint not null,
+    date_inscription date not null,
+    version bigint default 0 not null,
+    primary key (id),
+    constraint uk_enrollment_student_course unique (student_id, course_id),
+    constraint fk_enrollments_student foreign key (student_id) references students (id),
+    constraint fk_enrollments_course foreign key (course_id) references courses (id)
+) engine=InnoDB;
+
+create table course_enrollment_counters (
+    course_id bigint not null,
+    stripe integer not null,
+    enrollment_count bigint not null,
+    primary key (stripe, course_id)
+) engine=InnoDB;
+
+create table waitlist_entries (
+    id bigint not null,
+    student_id bigint not null,
+    course_id bigint not null,
+    date_demande datetime(6) not null,
+    date_inscription date,
+    primary key (id),
+    constraint uk_waitlist_student_course unique (student_id, course_id),
+    constraint fk_waitlist_student foreign key (student_id) references students (id),
+    constraint fk_waitlist_course foreign key (course_id) references courses (id)
+) engine=InnoDB;
+
+create index idx_waitlist_course on waitlist_entries (course_id, id);
+
+-- Séquences des identifiants (générateur SEQUENCE émulé par une table sous MySQL, blocs de 50)
+create table students_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into students_seq values (1);
+
+create table enrollments_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into enrollments_seq values (1);
+
+create table waitlist_entries_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into waitlist_entries_seq values (1);
@@ -0,0 +1,9 @@
+-- Index des requêtes par cours (absents du schéma ddl-auto : seuls l'unicité et les clés étrangères en créaient)
+
+-- Liste des inscrits d'un cours, suppression des inscriptions d'un cours, ETag de la liste d'inscrits :
+-- l'index unique (student_id, course_id) ne sert que les recherches par étudiant
+create index idx_enrollments_course on enrollments (course_id, student_id);
+
+-- Statistiques (jointure des compteurs sur le cours) et suppression des compteurs d'un cours :
+-- la clé primaire (stripe, course_id) commence par le numéro de bande
+create index idx_counters_course on course_enrollment_counters (course_id);
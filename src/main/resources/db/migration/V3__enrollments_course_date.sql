@@ -0,0 +1,3 @@
+-- Inscriptions d'un cours sur une période (GET /api/courses/{id}/enrollments?from=&to=) et comptage par jour
+-- (GET /api/courses/{id}/enrollments/timeline) : filtre, tri et GROUP BY servis par l'index seul
+create index idx_enrollments_course_date on enrollments (course_id, date_inscription);
@@ -0,0 +1,18 @@
+-- Tables de séquence des identifiants sur une base marquée en V1 (baseline-on-migrate) : une base créée par
+-- ddl-auto=update avant le passage de students et enrollments en séquence ne les a pas
+-- next_val est ensuite porté au-delà des IDs existants au démarrage (IdSequenceSeeder)
+
+create table if not exists students_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into students_seq (next_val) select 1 from dual where not exists (select * from students_seq);
+
+create table if not exists enrollments_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into enrollments_seq (next_val) select 1 from dual where not exists (select * from enrollments_seq);
+
+create table if not exists waitlist_entries_seq (
+    next_val bigint
+) engine=InnoDB;
+insert into waitlist_entries_seq (next_val) select 1 from dual where not exists (select * from waitlist_entries_seq);
@@ -0,0 +1,10 @@
+-- Colonne version sur une base marquée en V1 (baseline-on-migrate) : ajoutée nullable par ddl-auto=update,
+-- elle est restée nulle pour les lignes existantes (verrouillage optimiste inopérant, ETag construit sur null)
+
+update students set version = 0 where version is null;
+update courses set version = 0 where version is null;
+update enrollments set version = 0 where version is null;
+
+alter table students modify version bigint default 0 not null;
+alter table courses modify version bigint default 0 not null;
+alter table enrollments modify version bigint default 0 not null;
@@ -0,0 +1,194 @@
+package com.ecole.gestion_scolaire;
+
+import com.ecole.gestion_scolaire.datasource.IdSequenceSeeder;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.CourseEnrollmentCounter;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.model.WaitlistEntry;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.repository.WaitlistRepository;
+import org.flywaydb.core.Flyway;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.MySQLDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie les migrations Flyway avec la configuration du profil prod : schéma créé par les migrations seules,
+ * validé par Hibernate (ddl-auto=validate) contre les entités, initialisation paresseuse active
+ * Dialecte MySQL comme en production : séquences émulées par les tables *_seq des migrations
+ */
+@SpringBootTest(properties = {
+	"spring.flyway.enabled=true",
+	"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+	"spring.jpa.hibernate.ddl-auto=validate",
+	"spring.main.lazy-initialization=true"
+})
+class SchemaMigrationTests {
+
+	@Autowired
+	private Flyway flyway;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private WaitlistRepository waitlistRepository;
+
+	@AfterEach
+	void cleanUp() {
+		waitlistRepository.deleteAllInBatch();
+		enrollmentRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void migrationsCreateTheSchemaAndIndexes() {
+		assertThat(flyway.info().current().getVersion().getVersion()).isEqualTo("5");
+		assertThat(flyway.info().pending()).isEmpty();
+
+		List<String> indexes = jdbcTemplate.queryForList(
+			"select lower(index_name) from information_schema.indexes where lower(index_name) like 'idx_%'", String.class);
+		assertThat(indexes).contains("idx_enrollments_course", "idx_enrollments_course_date", "idx_counters_course", "idx_waitlist_course");
+	}
+
+	@Test
+	void ddlAutoSchemaIsBaselinedThenMigrated() {
+		// Base de développement : schéma créé par Hibernate (ddl-auto=update), sans historique Flyway
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+			"jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		try (SessionFactory sessionFactory = buildWithDdlAuto(dataSource)) {
+			// Lignes créées du temps des IDs IDENTITY : students_seq absente (base antérieure aux séquences),
+			// enrollments_seq créée à 1 par ddl-auto=update
+			jdbc.execute("drop table students_seq");
+			// Colonnes version ajoutées nullables par ddl-auto=update sur des tables déjà remplies
+			for (String table : List.of("students", "courses", "enrollments")) {
+				jdbc.execute("alter table " + table + " modify version bigint null");
+			}
+			jdbc.update("insert into courses (id, titre, professeur) values (3, 'Existant', 'Prof. Migration')");
+			jdbc.update("insert into students (id, nom, email) values (120, 'Ancien', 'ancien@ecole.test')");
+			jdbc.update("insert into enrollments (id, student_id, course_id, date_inscription) values (75, 120, 3, current_date)");
+			jdbc.update("update students set version = null");
+			jdbc.update("update courses set version = null");
+			jdbc.update("update enrollments set version = null");
+
+			// Passage au profil prod : marquée en version 1 (baseline-on-migrate), puis V2 et suivantes appliquées
+			Flyway prod = Flyway.configure()
+				.dataSource(dataSource)
+				.baselineOnMigrate(true)
+				.baselineVersion("1")
+				.load();
+			prod.migrate();
+			// Fait au démarrage de l'application
+			IdSequenceSeeder.seed(jdbc);
+
+			assertThat(prod.info().current().getVersion().getVersion()).isEqualTo("5");
+			assertThat(prod.info().pending()).isEmpty();
+			List<String> indexes = jdbc.queryForList(
+				"select lower(index_name) from information_schema.indexes where lower(index_name) like 'idx_%'", String.class);
+			assertThat(indexes).contains("idx_enrollments_course", "idx_enrollments_course_date", "idx_counters_course");
+			// Versions des lignes existantes posées à 0, colonnes désormais non nulles
+			for (String table : List.of("students", "courses", "enrollments")) {
+				assertThat(jdbc.queryForObject("select version from " + table, Long.class)).isZero();
+				assertThat(jdbc.queryForObject("select is_nullable from information_schema.columns "
+					+ "where lower(table_name) = ? and lower(column_name) = 'version'", String.class, table)).isEqualTo("NO");
+			}
+
+			// Les nouveaux IDs viennent après les lignes existantes
+			Student student = new Student();
+			student.setNom("Nouveau");
+			student.setEmail("nouveau@ecole.test");
+			Enrollment enrollment = new Enrollment();
+			enrollment.setStudent(student);
+			enrollment.setDateInscription(new Date());
+			sessionFactory.inTransaction(session -> {
+				enrollment.setCourse(session.getReference(Course.class, 3L));
+				session.persist(student);
+				session.persist(enrollment);
+			});
+			assertThat(student.getId()).isGreaterThan(120L);
+			assertThat(enrollment.getId()).isGreaterThan(75L);
+			assertThat(jdbc.queryForObject("select count(*) from students", Long.class)).isEqualTo(2);
+		}
+	}
+
+	@Test
+	void entitiesArePersistedWithMigratedSequences() {
+		Course course = new Course();
+		course.setTitre("Bases de données");
+		course.setProfesseur("Prof. Migration");
+		course.setCapacite(1);
+		course = courseRepository.save(course);
+		assertThat(course.getPlacesRestantes()).isEqualTo(1);
+
+		Student first = new Student();
+		first.setNom("Premier");
+		first.setEmail("premier@ecole.test");
+		Student second = new Student();
+		second.setNom("Second");
+		second.setEmail("second@ecole.test");
+		List<Student> students = studentRepository.saveAll(List.of(first, second));
+
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(students.get(0));
+		enrollment.setCourse(course);
+		enrollment.setDateInscription(new Date());
+		enrollmentRepository.save(enrollment);
+
+		WaitlistEntry entry = new WaitlistEntry();
+		entry.setStudent(students.get(1));
+		entry.setCourse(course);
+		entry.setDateDemande(new Date());
+		waitlistRepository.save(entry);
+
+		assertThat(enrollmentRepository.findStudentsByCourseId(course.getId())).hasSize(1);
+		assertThat(waitlistRepository.count()).isEqualTo(1);
+	}
+
+	// Même génération de schéma qu'au démarrage en développement (ddl-auto=update, nommage Spring Boot)
+	private static SessionFactory buildWithDdlAuto(DriverManagerDataSource dataSource) {
+		StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+			.applySetting(AvailableSettings.DATASOURCE, dataSource)
+			.applySetting(AvailableSettings.DIALECT, MySQLDialect.class.getName())
+			.applySetting(AvailableSettings.HBM2DDL_AUTO, "update")
+			.applySetting(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName())
+			.applySetting(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName())
+			.build();
+		// Le schéma est créé à la construction de la SessionFactory
+		return new MetadataSources(registry)
+			.addAnnotatedClasses(Student.class, Course.class, Enrollment.class, CourseEnrollmentCounter.class,
+				WaitlistEntry.class)
+			.buildMetadata()
+			.buildSessionFactory();
+	}
+}
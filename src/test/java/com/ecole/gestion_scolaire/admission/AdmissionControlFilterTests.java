@@ -0,0 +1,136 @@
+package com.ecole.gestion_scolaire.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie le débit par client (429 avec Retry-After, clients indépendants) et les limites de requêtes simultanées
+ * par classe d'endpoint (une liste lente ne bloque pas les lectures par ID), ainsi que les métriques de refus
+ */
+class AdmissionControlFilterTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void clientsAreRateLimitedIndependently() throws Exception {
+		AdmissionControlFilter filter = filter(1, 3, 10);
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(call(filter, "GET", "/api/students/1", "10.0.0.1", null).getStatus()).isEqualTo(200);
+		}
+		MockHttpServletResponse rejected = call(filter, "GET", "/api/students/1", "10.0.0.1", null);
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(rejected.getContentAsString()).startsWith("Erreur 429");
+
+		// Autre adresse, puis même adresse avec une clé d'API : seaux distincts
+		assertThat(call(filter, "GET", "/api/students/1", "10.0.0.2", null).getStatus()).isEqualTo(200);
+		assertThat(call(filter, "GET", "/api/students/1", "10.0.0.1", "cle-partenaire").getStatus()).isEqualTo(200);
+
+		assertThat(meterRegistry.get(AdmissionControlFilter.REJECTED_METRIC)
+			.tag("class", "lookup").tag("reason", "rate-limit").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void unknownApiKeysShareTheAddressBucket() throws Exception {
+		AdmissionControlFilter filter = filter(1, 3, 10);
+
+		// Une clé inventée à chaque requête ne donne pas un nouveau seau : le client reste limité par son adresse
+		for (int i = 0; i < 3; i++) {
+			assertThat(call(filter, "GET", "/api/students/1", "10.0.0.3", "cle-" + i).getStatus()).isEqualTo(200);
+		}
+		assertThat(call(filter, "GET", "/api/students/1", "10.0.0.3", "cle-3").getStatus()).isEqualTo(429);
+		assertThat(call(filter, "GET", "/api/students/1", "10.0.0.3", null).getStatus()).isEqualTo(429);
+
+		// Une clé connue garde son propre seau, quelle que soit l'adresse
+		assertThat(call(filter, "GET", "/api/students/1", "10.0.0.3", "cle-partenaire").getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void slowListsDoNotStarveLookups() throws Exception {
+		AdmissionControlFilter filter = filter(1000, 1000, 1);
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		// Une liste lente occupe la seule place de la classe « list »
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<MockHttpServletResponse> slowList = executor.submit(() -> {
+				MockHttpServletResponse response = new MockHttpServletResponse();
+				filter.doFilter(request("GET", "/api/enrollments", "10.0.0.1", null), response,
+					(req, res) -> {
+						entered.countDown();
+						try {
+							release.await(10, TimeUnit.SECONDS);
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+						}
+					});
+				return response;
+			});
+			assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+			assertThat(call(filter, "GET", "/api/courses", "10.0.0.2", null).getStatus()).isEqualTo(429);
+			assertThat(call(filter, "GET", "/api/courses/7", "10.0.0.2", null).getStatus()).isEqualTo(200);
+			assertThat(call(filter, "POST", "/api/enrollments", "10.0.0.2", null).getStatus()).isEqualTo(200);
+			assertThat(meterRegistry.get(AdmissionControlFilter.IN_FLIGHT_METRIC).tag("class", "list").gauge().value())
+				.isEqualTo(1);
+
+			release.countDown();
+			assertThat(slowList.get(10, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// Place libérée à la fin de la liste lente
+		assertThat(call(filter, "GET", "/api/courses", "10.0.0.2", null).getStatus()).isEqualTo(200);
+		assertThat(meterRegistry.get(AdmissionControlFilter.REJECTED_METRIC)
+			.tag("class", "list").tag("reason", "concurrency").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void endpointsAreClassifiedByCost() {
+		assertThat(EndpointClass.of("GET", "/api/enrollments")).isEqualTo(EndpointClass.LIST);
+		assertThat(EndpointClass.of("GET", "/api/courses/3/students")).isEqualTo(EndpointClass.LIST);
+		assertThat(EndpointClass.of("GET", "/api/students/page")).isEqualTo(EndpointClass.LIST);
+		assertThat(EndpointClass.of("GET", "/api/students/42")).isEqualTo(EndpointClass.LOOKUP);
+		assertThat(EndpointClass.of("GET", "/api/enrollments/tickets/abc")).isEqualTo(EndpointClass.LOOKUP);
+		assertThat(EndpointClass.of("PUT", "/api/students/42")).isEqualTo(EndpointClass.WRITE);
+		assertThat(EndpointClass.of("GET", "/api/changes")).isEqualTo(EndpointClass.FEED);
+	}
+
+	private AdmissionControlFilter filter(double rate, int burst, int listLimit) {
+		return new AdmissionControlFilter(new ClientRateLimiter(rate, burst, 1000), "X-API-Key", Set.of("cle-partenaire"),
+			Map.of(EndpointClass.LIST, listLimit, EndpointClass.LOOKUP, 10, EndpointClass.WRITE, 10, EndpointClass.FEED, 10),
+			meterRegistry);
+	}
+
+	private MockHttpServletResponse call(AdmissionControlFilter filter, String method, String path, String address,
+										 String apiKey) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request(method, path, address, apiKey), response, new MockFilterChain());
+		return response;
+	}
+
+	private MockHttpServletRequest request(String method, String path, String address, String apiKey) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.setRemoteAddr(address);
+		if (apiKey != null) {
+			request.addHeader("X-API-Key", apiKey);
+		}
+		return request;
+	}
+}
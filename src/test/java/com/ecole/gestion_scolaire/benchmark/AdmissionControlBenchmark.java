@@ -0,0 +1,81 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.admission.AdmissionControlFilter;
+import com.ecole.gestion_scolaire.admission.ClientRateLimiter;
+import com.ecole.gestion_scolaire.admission.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête admise du contrôle d'admission (seau du client, classe d'endpoint, place de concurrence),
+ * sans serveur ni base, avec `clients` adresses différentes et 4 threads concurrents
+ * Lancement : mvn test-compile exec:exec -Pjmh -Djmh.args=AdmissionControlBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class AdmissionControlBenchmark {
+
+	private static final FilterChain NO_OP = (request, response) -> {
+	};
+
+	@Param({"1", "10000"})
+	public int clients;
+
+	private AdmissionControlFilter filter;
+
+	private MockHttpServletRequest[] requests;
+
+	@Setup
+	public void setUp() {
+		// Limites assez hautes pour que toutes les requêtes soient admises : on mesure le chemin nominal
+		filter = new AdmissionControlFilter(new ClientRateLimiter(1e9, 1_000_000, 100_000), "X-API-Key", Set.of(),
+			Map.of(EndpointClass.LIST, 1000, EndpointClass.LOOKUP, 1000, EndpointClass.WRITE, 1000, EndpointClass.FEED, 1000),
+			new SimpleMeterRegistry());
+		requests = new MockHttpServletRequest[clients];
+		for (int i = 0; i < clients; i++) {
+			requests[i] = new MockHttpServletRequest("GET", i % 2 == 0 ? "/api/students/" + i : "/api/enrollments");
+			requests[i].setRemoteAddr("10.0." + (i / 256) + "." + (i % 256));
+		}
+	}
+
+	@Benchmark
+	public int admit(ClientIndex index) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(requests[index.next(clients)], response, NO_OP);
+		return response.getStatus();
+	}
+
+	@State(Scope.Thread)
+	public static class ClientIndex {
+
+		private int next;
+
+		int next(int clients) {
+			next = next + 1 == clients ? 0 : next + 1;
+			return next;
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.GestionScolaireApplication;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rush d'inscriptions en boucle ouverte : l'application démarre sur la base H2 en mémoire, alimentée avec
+ * load.students étudiants et load.courses cours (deux inscriptions par étudiant), puis reçoit load.rate requêtes
+ * par seconde, quel que soit son temps de réponse, selon le mélange load.mix :
+ * enroll (POST /api/enrollments), roster (GET /api/courses/{id}/students), course-list (GET /api/courses),
+ * student-page (GET /api/students/page)
+ * La latence est mesurée depuis l'instant d'envoi prévu : un serveur saturé ne ralentit pas le générateur
+ * et son retard apparaît dans les percentiles
+ * Lancement : mvn test -Pload-test [-Dload.rate=300 -Dload.duration=60 -Dload.mix=enroll=80,roster=20]
+ * Résultat : target/benchmarks/load-test.json (débit, p50/p99/p999, erreurs et statuts par opération)
+ */
+@Tag("benchmark")
+@Tag("load-test")
+class RegistrationRushLoadTests {
+
+	private static final int STUDENTS = Integer.getInteger("load.students", 5000);
+
+	private static final int COURSES = Integer.getInteger("load.courses", 100);
+
+	private static final int COURSES_PER_STUDENT = 2;
+
+	private static final int RATE = Integer.getInteger("load.rate", 100);
+
+	private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup", 5);
+
+	private static final int DURATION_SECONDS = Integer.getInteger("load.duration", 30);
+
+	private static final String MIX = System.getProperty("load.mix", "enroll=50,roster=30,course-list=10,student-page=10");
+
+	private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+	private enum Operation {
+		ENROLL("enroll"), ROSTER("roster"), COURSE_LIST("course-list"), STUDENT_PAGE("student-page");
+
+		private final String key;
+
+		Operation(String key) {
+			this.key = key;
+		}
+
+		static Operation of(String key) {
+			for (Operation operation : values()) {
+				if (operation.key.equals(key)) {
+					return operation;
+				}
+			}
+			throw new IllegalArgumentException("Opération inconnue dans load.mix : " + key);
+		}
+	}
+
+	@Test
+	void replayRegistrationRush() throws Exception {
+		Map<Operation, Integer> mix = parseMix(MIX);
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GestionScolaireApplication.class)
+				.properties("server.port=0", "logging.level.root=WARN")
+				.run();
+			 ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Seed seed = seed(context);
+			String base = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.executor(executor).connectTimeout(REQUEST_TIMEOUT).build();
+
+			// Même suite de requêtes d'une exécution à l'autre (graine fixe) : rapports comparables entre versions
+			Random random = new Random(42);
+			run(client, base, seed, mix, random, WARMUP_SECONDS);
+			Phase measured = run(client, base, seed, mix, random, DURATION_SECONDS);
+
+			String json = measured.toJson();
+			Path report = Path.of("target", "benchmarks", "load-test.json");
+			Files.createDirectories(report.getParent());
+			Files.writeString(report, json);
+			System.out.println(json);
+
+			assertThat(measured.total().requests()).isEqualTo((long) RATE * DURATION_SECONDS);
+			assertThat(measured.total().errorRate()).isLessThanOrEqualTo(MAX_ERROR_RATE);
+		}
+	}
+
+	// Envoie RATE requêtes par seconde pendant seconds secondes, sans attendre les réponses, puis attend la dernière
+	private Phase run(HttpClient client, String base, Seed seed, Map<Operation, Integer> mix, Random random,
+					  int seconds) {
+		Map<Operation, OperationStats> stats = new LinkedHashMap<>();
+		mix.keySet().forEach(operation -> stats.put(operation, new OperationStats()));
+		int weights = mix.values().stream().mapToInt(Integer::intValue).sum();
+
+		long total = (long) RATE * seconds;
+		long interval = 1_000_000_000L / RATE;
+		long maxLag = 0;
+		List<CompletableFuture<?>> pending = new ArrayList<>();
+		long start = System.nanoTime();
+		for (long i = 0; i < total; i++) {
+			long intended = start + i * interval;
+			long wait = intended - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			} else {
+				maxLag = Math.max(maxLag, -wait);
+			}
+
+			Operation operation = pick(mix, weights, random);
+			HttpRequest request = request(operation, base, seed, random);
+			OperationStats target = stats.get(operation);
+			pending.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+				.handle((response, error) -> {
+					target.record(System.nanoTime() - intended, response != null ? response.statusCode() : -1);
+					return null;
+				}));
+		}
+		CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+		return new Phase(stats, (System.nanoTime() - start) / 1e9, maxLag / 1e6);
+	}
+
+	private HttpRequest request(Operation operation, String base, Seed seed, Random random) {
+		long studentId = seed.studentIds[random.nextInt(seed.studentIds.length)];
+		long courseId = seed.courseIds[random.nextInt(seed.courseIds.length)];
+		return switch (operation) {
+			case ENROLL -> HttpRequest.newBuilder(URI.create(base + "/api/enrollments"))
+				.timeout(REQUEST_TIMEOUT)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}"))
+				.build();
+			case ROSTER -> get(base + "/api/courses/" + courseId + "/students");
+			case COURSE_LIST -> get(base + "/api/courses");
+			case STUDENT_PAGE -> get(base + "/api/students/page?afterId=" + (studentId - 1) + "&size=50");
+		};
+	}
+
+	private HttpRequest get(String uri) {
+		return HttpRequest.newBuilder(URI.create(uri)).timeout(REQUEST_TIMEOUT).GET().build();
+	}
+
+	private Operation pick(Map<Operation, Integer> mix, int weights, Random random) {
+		int draw = random.nextInt(weights);
+		for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+			draw -= entry.getValue();
+			if (draw < 0) {
+				return entry.getKey();
+			}
+		}
+		throw new IllegalStateException();
+	}
+
+	// "enroll=50,roster=30" : poids relatifs de chaque opération
+	private static Map<Operation, Integer> parseMix(String mix) {
+		Map<Operation, Integer> weights = new LinkedHashMap<>();
+		for (String part : mix.split(",")) {
+			String[] entry = part.trim().split("=");
+			int weight = Integer.parseInt(entry[1].trim());
+			if (weight > 0) {
+				weights.put(Operation.of(entry[0].trim()), weight);
+			}
+		}
+		assertThat(weights).as("load.mix").isNotEmpty();
+		return weights;
+	}
+
+	private Seed seed(ConfigurableApplicationContext context) {
+		StudentRepository studentRepository = context.getBean(StudentRepository.class);
+		CourseRepository courseRepository = context.getBean(CourseRepository.class);
+		EnrollmentRepository enrollmentRepository = context.getBean(EnrollmentRepository.class);
+
+		List<Course> courses = new ArrayList<>();
+		for (int i = 0; i < COURSES; i++) {
+			Course course = new Course();
+			course.setTitre("Cours " + i);
+			course.setDescription("Description du cours " + i);
+			course.setProfesseur("Professeur " + i % 20);
+			courses.add(course);
+		}
+		courses = courseRepository.saveAll(courses);
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("rush" + i + "@ecole.test");
+			student.setTelephone("0600" + i);
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+				Enrollment enrollment = new Enrollment();
+				enrollment.setStudent(students.get(i));
+				enrollment.setCourse(courses.get((i + k * 7) % COURSES));
+				enrollment.setDateInscription(new Date());
+				enrollments.add(enrollment);
+			}
+		}
+		enrollmentRepository.saveAll(enrollments);
+
+		return new Seed(students.stream().mapToLong(Student::getId).toArray(),
+			courses.stream().mapToLong(Course::getId).toArray());
+	}
+
+	private record Seed(long[] studentIds, long[] courseIds) {
+	}
+
+	// Latences et statuts d'une opération ; statut -1 : délai dépassé ou connexion refusée
+	private static final class OperationStats {
+
+		private long[] latencies = new long[1024];
+
+		private int count;
+
+		private final Map<Integer, Long> statuses = new TreeMap<>();
+
+		synchronized void record(long latencyNanos, int status) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latencyNanos;
+			statuses.merge(status, 1L, Long::sum);
+		}
+
+		synchronized Summary summarize(double seconds) {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			long errors = statuses.entrySet().stream()
+				.filter(entry -> entry.getKey() < 0 || entry.getKey() >= 500)
+				.mapToLong(Map.Entry::getValue).sum();
+			return new Summary(sorted, errors, new TreeMap<>(statuses), seconds);
+		}
+	}
+
+	// Erreurs : statut 5xx ou pas de réponse ; les 4xx (doublon d'inscription) sont des réponses normales
+	private record Summary(long[] sortedLatencies, long errors, Map<Integer, Long> statuses, double seconds) {
+
+		long requests() {
+			return sortedLatencies.length;
+		}
+
+		double errorRate() {
+			return requests() == 0 ? 0 : (double) errors / requests();
+		}
+
+		double percentileMillis(double percentile) {
+			if (sortedLatencies.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+			return sortedLatencies[Math.max(0, index)] / 1e6;
+		}
+
+		static Summary merge(List<Summary> summaries, double seconds) {
+			long[] all = summaries.stream().flatMapToLong(summary -> Arrays.stream(summary.sortedLatencies)).sorted().toArray();
+			Map<Integer, Long> statuses = new TreeMap<>();
+			summaries.forEach(summary -> summary.statuses.forEach((status, n) -> statuses.merge(status, n, Long::sum)));
+			return new Summary(all, summaries.stream().mapToLong(Summary::errors).sum(), statuses, seconds);
+		}
+
+		String toJson() {
+			String statusJson = statuses.entrySet().stream()
+				.map(entry -> "\"" + entry.getKey() + "\": " + entry.getValue())
+				.collect(Collectors.joining(", ", "{", "}"));
+			return String.format(Locale.ROOT,
+				"{\"requests\": %d, \"throughputPerSecond\": %.1f, \"p50Millis\": %.2f, \"p99Millis\": %.2f, "
+					+ "\"p999Millis\": %.2f, \"maxMillis\": %.2f, \"errors\": %d, \"errorRate\": %.4f, \"statuses\": %s}",
+				requests(), requests() / seconds, percentileMillis(50), percentileMillis(99), percentileMillis(99.9),
+				percentileMillis(100), errors, errorRate(), statusJson);
+		}
+	}
+
+	private record Phase(Map<Operation, OperationStats> stats, double seconds, double maxSchedulerLagMillis) {
+
+		Summary total() {
+			return Summary.merge(stats.values().stream().map(operation -> operation.summarize(seconds)).toList(), seconds);
+		}
+
+		String toJson() {
+			String operations = stats.entrySet().stream()
+				.map(entry -> "    \"" + entry.getKey().key + "\": " + entry.getValue().summarize(seconds).toJson())
+				.collect(Collectors.joining(",\n"));
+			return String.format(Locale.ROOT,
+				"{\n  \"students\": %d,\n  \"courses\": %d,\n  \"targetRate\": %d,\n  \"durationSeconds\": %d,\n"
+					+ "  \"mix\": \"%s\",\n  \"elapsedSeconds\": %.2f,\n  \"maxSchedulerLagMillis\": %.2f,\n"
+					+ "  \"total\": %s,\n  \"operations\": {\n%s\n  }\n}\n",
+				STUDENTS, COURSES, RATE, DURATION_SECONDS, MIX, seconds, maxSchedulerLagMillis, total().toJson(), operations);
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micro-benchmarks des requêtes des repositories sur la base alimentée par SeededDatabase
+ * Lancement : mvn test-compile exec:exec -Pjmh -Djmh.args=RepositoryBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public List<Student> findAllStudents(SeededDatabase db) {
+		return db.studentRepository.findAll();
+	}
+
+	@Benchmark
+	public List<Course> findAllCourses(SeededDatabase db) {
+		return db.courseRepository.findAll();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public List<Enrollment> findAllEnrollments(SeededDatabase db) {
+		return db.enrollmentRepository.findAll();
+	}
+
+	@Benchmark
+	public List<Enrollment> findByCourse(SeededDatabase db) {
+		return db.enrollmentRepository.findByCourse(db.sampleCourse);
+	}
+
+	@Benchmark
+	public List<Enrollment> findByStudent(SeededDatabase db) {
+		return db.enrollmentRepository.findByStudent(db.sampleStudent);
+	}
+
+	@Benchmark
+	public boolean existsByEmail(SeededDatabase db) {
+		return db.studentRepository.existsByEmail(db.sampleEmail);
+	}
+
+	@Benchmark
+	public boolean existsByStudentAndCourse(SeededDatabase db) {
+		return db.enrollmentRepository.existsByStudentAndCourse(db.sampleStudent, db.sampleCourse);
+	}
+}
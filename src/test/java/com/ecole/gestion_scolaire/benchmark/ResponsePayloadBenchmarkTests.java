@@ -0,0 +1,163 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.GestionScolaireApplication;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Taille des réponses (sans compression et en gzip) et latence des listes complètes
+ * GET /api/students, /api/courses et /api/enrollments, sur un serveur réel, étudiants inscrits à plusieurs cours
+ * Lancement : mvn test -Pbenchmark -Dtest=ResponsePayloadBenchmarkTests
+ * Résultat : target/benchmarks/response-payload.json
+ */
+@Tag("benchmark")
+class ResponsePayloadBenchmarkTests {
+
+	private static final int STUDENTS = 2000;
+
+	private static final int COURSES = 50;
+
+	private static final int COURSES_PER_STUDENT = 2;
+
+	private static final int WARMUP_REQUESTS = 50;
+
+	private static final int MEASURED_REQUESTS = 200;
+
+	@Test
+	void measureListPayloads() throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GestionScolaireApplication.class)
+				.properties("server.port=0")
+				.run()) {
+			seed(context);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(30)).build();
+
+			List<Result> results = new ArrayList<>();
+			for (String path : List.of("/api/students", "/api/courses", "/api/enrollments")) {
+				for (String encoding : List.of("identity", "gzip")) {
+					results.add(measure(client, URI.create("http://localhost:" + port + path), path, encoding));
+				}
+			}
+
+			String json = "{\n  \"students\": " + STUDENTS + ",\n  \"courses\": " + COURSES
+				+ ",\n  \"enrollments\": " + STUDENTS * COURSES_PER_STUDENT + ",\n  \"results\": [\n"
+				+ results.stream().map(result -> "    " + result.toJson()).collect(Collectors.joining(",\n"))
+				+ "\n  ]\n}\n";
+			Path report = Path.of("target", "benchmarks", "response-payload.json");
+			Files.createDirectories(report.getParent());
+			Files.writeString(report, json);
+			System.out.println(json);
+
+			assertThat(results).allMatch(result -> result.status == 200);
+		}
+	}
+
+	private Result measure(HttpClient client, URI uri, String path, String encoding) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder(uri)
+			.header("Accept-Encoding", encoding)
+			.timeout(Duration.ofSeconds(60)).GET().build();
+		long[] latencies = new long[MEASURED_REQUESTS];
+		int status = 0;
+		int bytes = 0;
+		String contentEncoding = "identity";
+		for (int i = -WARMUP_REQUESTS; i < MEASURED_REQUESTS; i++) {
+			long sent = System.nanoTime();
+			try {
+				HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+				status = response.statusCode();
+				bytes = response.body().length;
+				contentEncoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+			} catch (IOException e) {
+				// réponse interrompue (erreur pendant l'écriture du corps)
+				status = -1;
+			}
+			if (i >= 0) {
+				latencies[i] = System.nanoTime() - sent;
+			}
+		}
+		return new Result(path, encoding, contentEncoding, status, bytes, latencies);
+	}
+
+	private void seed(ConfigurableApplicationContext context) {
+		StudentRepository studentRepository = context.getBean(StudentRepository.class);
+		CourseRepository courseRepository = context.getBean(CourseRepository.class);
+		EnrollmentRepository enrollmentRepository = context.getBean(EnrollmentRepository.class);
+
+		List<Course> courses = new ArrayList<>();
+		for (int i = 0; i < COURSES; i++) {
+			Course course = new Course();
+			course.setTitre("Cours " + i);
+			course.setDescription("Description du cours " + i);
+			course.setProfesseur("Professeur " + i % 10);
+			courses.add(course);
+		}
+		courses = courseRepository.saveAll(courses);
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("payload" + i + "@ecole.test");
+			student.setTelephone("0600" + i);
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+				Enrollment enrollment = new Enrollment();
+				enrollment.setStudent(students.get(i));
+				enrollment.setCourse(courses.get((i + k * 7) % COURSES));
+				enrollment.setDateInscription(new Date());
+				enrollments.add(enrollment);
+			}
+		}
+		enrollmentRepository.saveAll(enrollments);
+	}
+
+	private record Result(String path, String acceptEncoding, String contentEncoding, int status, int bytes,
+						  long[] latencies) {
+
+		double percentileMillis(double percentile) {
+			long[] sorted = latencies.clone();
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+
+		String toJson() {
+			return String.format(Locale.ROOT,
+				"{\"path\": \"%s\", \"acceptEncoding\": \"%s\", \"contentEncoding\": \"%s\", \"status\": %d, "
+					+ "\"bytes\": %d, \"p50Millis\": %.2f, \"p99Millis\": %.2f}",
+				path, acceptEncoding, contentEncoding, status, bytes, percentileMillis(50), percentileMillis(99));
+		}
+	}
+}
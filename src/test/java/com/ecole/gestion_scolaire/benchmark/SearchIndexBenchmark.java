@@ -0,0 +1,64 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.dto.StudentSearchHit;
+import com.ecole.gestion_scolaire.service.StudentSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence de la recherche d'étudiants dans l'index en mémoire (sans base ni HTTP)
+ * Noms générés à partir de prénoms et noms courants, emails uniques
+ * Lancement : mvn test-compile exec:exec -Pjmh -Djmh.args=SearchIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class SearchIndexBenchmark {
+
+	private static final String[] FIRST_NAMES = {"Jean", "Marie", "Pierre", "Sophie", "Luc", "Camille", "Hélène",
+		"Nicolas", "Julie", "Thomas", "Léa", "Antoine", "Chloé", "Hugo", "Inès", "Louis", "Manon", "Nathan", "Emma", "Yanis"};
+
+	private static final String[] LAST_NAMES = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit",
+		"Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "David", "Bertrand", "Roux",
+		"Vincent", "Fournier", "Morel", "Girard", "André", "Mercier", "Dupont", "Lambert", "Bonnet", "François",
+		"Martinez", "Legrand", "Kibambe", "Nguyen", "Diallo", "Traoré", "Mbappé", "Rousseau", "Blanc", "Guérin"};
+
+	@Param({"500000"})
+	public int students;
+
+	// Requêtes de saisie semi-automatique : début de mot, nom complet, fragment d'email
+	@Param({"du", "dupo", "jean dup", "helene lef", "1234"})
+	public String query;
+
+	private StudentSearchIndex index;
+
+	@Setup
+	public void setUp() {
+		index = new StudentSearchIndex(true);
+		for (int i = 1; i <= students; i++) {
+			String first = FIRST_NAMES[i % FIRST_NAMES.length];
+			String last = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length];
+			index.put((long) i, first + " " + last, first.toLowerCase() + "." + last.toLowerCase() + i + "@ecole.test");
+		}
+	}
+
+	@Benchmark
+	public List<StudentSearchHit> search() {
+		return index.search(query, StudentSearchIndex.DEFAULT_LIMIT);
+	}
+}
@@ -0,0 +1,111 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.GestionScolaireApplication;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * État JMH partagé : contexte Spring sans serveur web, sur la base H2 en mémoire des tests,
+ * alimenté avec un volume de données configurable (-p students=... -p courses=... -p coursesPerStudent=...)
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+	@Param({"10000"})
+	public int students;
+
+	@Param({"200"})
+	public int courses;
+
+	@Param({"5"})
+	public int coursesPerStudent;
+
+	public ConfigurableApplicationContext context;
+
+	public StudentRepository studentRepository;
+
+	public CourseRepository courseRepository;
+
+	public EnrollmentRepository enrollmentRepository;
+
+	// Étudiant et cours de référence pour les recherches ciblées
+	public Student sampleStudent;
+
+	public Course sampleCourse;
+
+	public String sampleEmail;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = new SpringApplicationBuilder(GestionScolaireApplication.class)
+			.web(WebApplicationType.NONE)
+			.properties("logging.level.root=WARN")
+			.run();
+		studentRepository = context.getBean(StudentRepository.class);
+		courseRepository = context.getBean(CourseRepository.class);
+		enrollmentRepository = context.getBean(EnrollmentRepository.class);
+
+		List<Course> courseRows = new ArrayList<>(courses);
+		for (int i = 0; i < courses; i++) {
+			Course course = new Course();
+			course.setTitre("Cours " + i);
+			course.setDescription("Description du cours " + i);
+			course.setProfesseur("Professeur " + (i % 20));
+			courseRows.add(course);
+		}
+		courseRows = courseRepository.saveAll(courseRows);
+
+		List<Student> studentRows = new ArrayList<>(students);
+		for (int i = 0; i < students; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("etudiant" + i + "@ecole.test");
+			student.setTelephone("0600" + i);
+			studentRows.add(student);
+		}
+		studentRows = studentRepository.saveAll(studentRows);
+
+		List<Enrollment> enrollments = new ArrayList<>();
+		Date today = new Date();
+		for (int i = 0; i < studentRows.size(); i++) {
+			for (int j = 0; j < coursesPerStudent; j++) {
+				Enrollment enrollment = new Enrollment();
+				enrollment.setStudent(studentRows.get(i));
+				enrollment.setCourse(courseRows.get((i + j) % courseRows.size()));
+				enrollment.setDateInscription(today);
+				enrollments.add(enrollment);
+			}
+			if (enrollments.size() >= 5000) {
+				enrollmentRepository.saveAll(enrollments);
+				enrollments.clear();
+			}
+		}
+		enrollmentRepository.saveAll(enrollments);
+
+		sampleStudent = studentRows.get(studentRows.size() / 2);
+		sampleCourse = courseRows.get(sampleStudent.getId().intValue() % courseRows.size());
+		sampleEmail = sampleStudent.getEmail();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+}
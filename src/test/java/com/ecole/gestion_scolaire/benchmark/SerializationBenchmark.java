@@ -0,0 +1,130 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.dto.EnrollmentSummary;
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de la sérialisation JSON des réponses (ObjectMapper configuré comme celui de Spring Boot)
+ * Les listes ont la taille d'une page ou d'une liste de cours (-p size=...)
+ * enrollmentEntities sérialise l'entité Enrollment avec son étudiant et son cours imbriqués (là où EnrollmentSummary
+ * ne porte que leurs IDs) ; les entités sont détachées et déjà chargées : seul le coût de sérialisation est mesuré,
+ * pas le chargement paresseux des relations
+ * Lancement : mvn test-compile exec:exec -Pjmh -Djmh.args=SerializationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+	@Param({"1", "100", "1000"})
+	public int size;
+
+	private ObjectMapper objectMapper;
+
+	private List<StudentSummary> students;
+
+	private List<CourseSummary> courses;
+
+	private List<EnrollmentSummary> enrollments;
+
+	private List<Student> studentEntities;
+
+	private List<Course> courseEntities;
+
+	private List<Enrollment> enrollmentEntities;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		students = new ArrayList<>(size);
+		courses = new ArrayList<>(size);
+		enrollments = new ArrayList<>(size);
+		studentEntities = new ArrayList<>(size);
+		courseEntities = new ArrayList<>(size);
+		enrollmentEntities = new ArrayList<>(size);
+		Date today = new Date();
+		for (long i = 0; i < size; i++) {
+			students.add(new StudentSummary(i, "Étudiant " + i, "etudiant" + i + "@ecole.test", "0600" + i, 0L));
+			courses.add(new CourseSummary(i, "Cours " + i, "Description du cours " + i, "Professeur " + i % 20, 0L));
+			enrollments.add(new EnrollmentSummary(i, today, i, i % 200));
+
+			Student student = new Student();
+			student.setId(i);
+			student.setNom("Étudiant " + i);
+			student.setEmail("etudiant" + i + "@ecole.test");
+			student.setTelephone("0600" + i);
+			studentEntities.add(student);
+
+			Course course = new Course();
+			course.setId(i);
+			course.setTitre("Cours " + i);
+			course.setDescription("Description du cours " + i);
+			course.setProfesseur("Professeur " + i % 20);
+			courseEntities.add(course);
+
+			Enrollment enrollment = new Enrollment();
+			enrollment.setId(i);
+			enrollment.setDateInscription(today);
+			enrollment.setVersion(0L);
+			enrollment.setStudent(student);
+			enrollment.setCourse(courseEntities.get((int) (i % 200)));
+			enrollmentEntities.add(enrollment);
+		}
+	}
+
+	@Benchmark
+	public byte[] studentSummaries() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(students);
+	}
+
+	@Benchmark
+	public byte[] courseSummaries() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(courses);
+	}
+
+	@Benchmark
+	public byte[] enrollmentSummaries() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(enrollments);
+	}
+
+	@Benchmark
+	public byte[] studentEntities() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(studentEntities);
+	}
+
+	@Benchmark
+	public byte[] courseEntities() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(courseEntities);
+	}
+
+	@Benchmark
+	public byte[] enrollmentEntities() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(enrollmentEntities);
+	}
+}
@@ -0,0 +1,227 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.GestionScolaireApplication;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare l'effet de clients lents sur le serveur entre la liste MVC (GET /api/students) et le flux réactif
+ * (GET /api/reactive/students) : SLOW_CONSUMERS clients lisent la liste à 50 Ko/s pendant que des requêtes
+ * de contrôle (GET /api/courses/{id}) mesurent la latence vue par les autres clients
+ * Tomcat limité à TOMCAT_THREADS threads, pool de POOL_SIZE connexions (la moitié pour le scheduler réactif),
+ * petits tampons réseau : un client lent bloque l'écriture de sa réponse
+ * Lancement : mvn test -Pbenchmark -Dtest=SlowConsumerBenchmarkTests
+ * Résultat : target/benchmarks/slow-consumers.json
+ */
+@Tag("benchmark")
+class SlowConsumerBenchmarkTests {
+
+	private static final int STUDENT_COUNT = 10_000;
+
+	private static final int SLOW_CONSUMERS = 64;
+
+	private static final int TOMCAT_THREADS = 16;
+
+	private static final int POOL_SIZE = 10;
+
+	private static final int PROBES = 50;
+
+	private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(2);
+
+	@Test
+	void compareStacksUnderSlowConsumers() throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GestionScolaireApplication.class)
+				.properties("server.port=0",
+					"spring.threads.virtual.enabled=false",
+					"server.tomcat.threads.max=" + TOMCAT_THREADS,
+					"server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+					"spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+					"spring.datasource.hikari.minimum-idle=" + POOL_SIZE,
+					"spring.datasource.hikari.connection-timeout=2000",
+					"app.reactive.jdbc-threads=" + POOL_SIZE / 2)
+				.initializers(ctx -> ctx.getBeanFactory().registerSingleton("smallSendBuffer",
+					(WebServerFactoryCustomizer<TomcatServletWebServerFactory>) factory -> factory.addConnectorCustomizers(
+						connector -> connector.setProperty("socket.txBufSize", "8192"))))
+				.run()) {
+			long courseId = seed(context);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			HikariDataSource pool = context.getBean(HikariDataSource.class);
+
+			// Le flux réactif d'abord : les threads Tomcat bloqués par la phase MVC ne faussent pas la mesure
+			Result reactive = run("reactive", port, "/api/reactive/students", "application/x-ndjson", courseId, pool);
+			Result mvc = run("mvc", port, "/api/students", "application/json", courseId, pool);
+
+			String json = "{\n  \"slowConsumers\": " + SLOW_CONSUMERS + ",\n"
+				+ "  \"tomcatThreads\": " + TOMCAT_THREADS + ",\n"
+				+ "  \"poolSize\": " + POOL_SIZE + ",\n"
+				+ "  \"students\": " + STUDENT_COUNT + ",\n"
+				+ "  \"mvc\": " + mvc.toJson() + ",\n"
+				+ "  \"reactive\": " + reactive.toJson() + "\n}\n";
+			Path report = Path.of("target", "benchmarks", "slow-consumers.json");
+			Files.createDirectories(report.getParent());
+			Files.writeString(report, json);
+			System.out.println(json);
+
+			assertThat(reactive.probeErrors).isZero();
+			assertThat(reactive.maxActiveConnections).isLessThan(POOL_SIZE);
+		}
+	}
+
+	private Result run(String stack, int port, String path, String accept, long courseId, HikariDataSource pool)
+			throws Exception {
+		AtomicBoolean stop = new AtomicBoolean();
+		AtomicLong bytesRead = new AtomicLong();
+		AtomicInteger rejected = new AtomicInteger();
+		AtomicInteger maxActive = new AtomicInteger();
+		List<Thread> consumers = new ArrayList<>();
+		for (int i = 0; i < SLOW_CONSUMERS; i++) {
+			consumers.add(Thread.ofPlatform().daemon().start(() -> slowRead(port, path, accept, stop, bytesRead, rejected)));
+		}
+		Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+			while (!stop.get()) {
+				maxActive.accumulateAndGet(pool.getHikariPoolMXBean().getActiveConnections(), Math::max);
+				pause(10);
+			}
+		});
+		pause(2000);
+
+		HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+			.connectTimeout(PROBE_TIMEOUT).build();
+		HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/courses/" + courseId))
+			.timeout(PROBE_TIMEOUT).GET().build();
+		long[] latencies = new long[PROBES];
+		int errors = 0;
+		for (int i = 0; i < PROBES; i++) {
+			long sent = System.nanoTime();
+			try {
+				if (client.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+					errors++;
+				}
+			} catch (IOException e) {
+				errors++;
+			}
+			latencies[i] = System.nanoTime() - sent;
+			pause(50);
+		}
+
+		stop.set(true);
+		for (Thread consumer : consumers) {
+			consumer.join();
+		}
+		sampler.join();
+		client.close();
+		// Laisse les écritures interrompues libérer threads et connexions avant la phase suivante
+		pause(2000);
+		return new Result(stack, latencies, errors, maxActive.get(), bytesRead.get(), rejected.get());
+	}
+
+	// Client lent : petit tampon de réception, 1 Ko lu toutes les 20 ms ; compté dans rejected si la réponse n'est pas 200
+	private void slowRead(int port, String path, String accept, AtomicBoolean stop, AtomicLong bytesRead,
+						  AtomicInteger rejected) {
+		try (Socket socket = new Socket()) {
+			socket.setReceiveBufferSize(4096);
+			socket.connect(new InetSocketAddress("localhost", port));
+			socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nAccept: " + accept
+				+ "\r\nConnection: close\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+			InputStream in = socket.getInputStream();
+			byte[] buffer = new byte[1024];
+			boolean statusRead = false;
+			while (!stop.get()) {
+				int read = in.read(buffer);
+				if (read < 0) {
+					return;
+				}
+				if (!statusRead) {
+					statusRead = true;
+					if (!new String(buffer, 0, Math.min(read, 12), StandardCharsets.US_ASCII).endsWith(" 200")) {
+						rejected.incrementAndGet();
+					}
+				}
+				bytesRead.addAndGet(read);
+				pause(20);
+			}
+		} catch (IOException e) {
+			rejected.incrementAndGet();
+		}
+	}
+
+	private static void pause(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private long seed(ConfigurableApplicationContext context) {
+		StudentRepository studentRepository = context.getBean(StudentRepository.class);
+		CourseRepository courseRepository = context.getBean(CourseRepository.class);
+
+		Course course = new Course();
+		course.setTitre("Systèmes réactifs");
+		course.setProfesseur("Prof. Benchmark");
+		course = courseRepository.save(course);
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("lent" + i + "@ecole.test");
+			students.add(student);
+		}
+		studentRepository.saveAll(students);
+		return course.getId();
+	}
+
+	private record Result(String stack, long[] latencies, int probeErrors, int maxActiveConnections, long bytesRead,
+						  int rejectedConsumers) {
+
+		double percentileMillis(double percentile) {
+			long[] sorted = latencies.clone();
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+
+		String toJson() {
+			return String.format(Locale.ROOT,
+				"{\"stack\": \"%s\", \"probes\": %d, \"probeErrors\": %d, \"probeP50Millis\": %.2f, "
+					+ "\"probeP99Millis\": %.2f, \"maxActiveConnections\": %d, \"slowConsumerBytes\": %d, "
+					+ "\"rejectedSlowConsumers\": %d}",
+				stack, latencies.length, probeErrors, percentileMillis(50), percentileMillis(99),
+				maxActiveConnections, bytesRead, rejectedConsumers);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.GestionScolaireApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Mesure le temps de démarrage (JVM comprise, « process running for » du journal de démarrage) de l'application
+ * construite par le profil fast-startup, dans des JVM séparées, sur une base H2 fichier :
+ * ddl-auto=update (configuration par défaut), profil prod (Flyway, initialisation paresseuse), puis AOT, puis AOT + CDS
+ * Lancement : mvn package -Pfast-startup -DskipTests -Dcds.skip=true && mvn test -Pbenchmark -Dtest=StartupBenchmarkTests
+ * Résultat : target/benchmarks/startup.json
+ */
+@Tag("benchmark")
+class StartupBenchmarkTests {
+
+	private static final int MEASURED_RUNS = 5;
+
+	private static final Pattern STARTED = Pattern.compile("Started .* in [0-9.]+ seconds \\(process running for ([0-9.]+)\\)");
+
+	private final Path workDir = Path.of("target", "startup-benchmark").toAbsolutePath();
+
+	@Test
+	void compareStartupModes() throws Exception {
+		Path appDir = Path.of("target", "app").toAbsolutePath();
+		Path appJar;
+		try (Stream<Path> files = Files.list(appDir)) {
+			appJar = files.filter(file -> file.getFileName().toString().endsWith("-app.jar")).findFirst().orElse(null);
+		} catch (IOException e) {
+			appJar = null;
+		}
+		assumeTrue(appJar != null, "Construire d'abord l'application : mvn package -Pfast-startup -DskipTests -Dcds.skip=true");
+
+		// H2 ajouté après le jar : le classpath d'exécution prolonge celui de l'archive CDS
+		Path h2 = Path.of(org.h2.Driver.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		String classpath = appJar + java.io.File.pathSeparator + h2;
+		Path archive = workDir.resolve("app.jsa");
+		Files.createDirectories(workDir);
+		Files.deleteIfExists(archive);
+		try (Stream<Path> files = Files.list(workDir)) {
+			for (Path file : files.filter(file -> file.getFileName().toString().endsWith(".db")).toList()) {
+				Files.delete(file);
+			}
+		}
+
+		// Entraînement CDS comme dans le profil fast-startup (arrêt après l'initialisation du contexte)
+		run(classpath, List.of("-XX:ArchiveClassesAtExit=" + archive, "-Dspring.context.exit=onRefresh",
+			"-Dspring.aot.enabled=true"), "training", true, false);
+		assertThat(archive).exists();
+
+		List<Scenario> scenarios = List.of(
+			measure(classpath, "ddl-auto-update", List.of(), false),
+			measure(classpath, "prod", List.of(), true),
+			measure(classpath, "prod-aot", List.of("-Dspring.aot.enabled=true"), true),
+			measure(classpath, "prod-aot-cds", List.of("-Dspring.aot.enabled=true", "-XX:SharedArchiveFile=" + archive), true));
+
+		String json = "{\n  \"measuredRuns\": " + MEASURED_RUNS + ",\n  \"scenarios\": [\n"
+			+ scenarios.stream().map(scenario -> "    " + scenario.toJson()).collect(Collectors.joining(",\n"))
+			+ "\n  ]\n}\n";
+		Path report = Path.of("target", "benchmarks", "startup.json");
+		Files.createDirectories(report.getParent());
+		Files.writeString(report, json);
+		System.out.println(json);
+
+		assertThat(scenarios.get(3).median()).isLessThan(scenarios.get(0).median());
+	}
+
+	// Un démarrage de préchauffage (création ou migration du schéma) puis MEASURED_RUNS démarrages mesurés
+	private Scenario measure(String classpath, String name, List<String> jvmArguments, boolean prod) throws Exception {
+		run(classpath, jvmArguments, name, prod, true);
+		double[] seconds = new double[MEASURED_RUNS];
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			seconds[i] = run(classpath, jvmArguments, name, prod, true);
+		}
+		return new Scenario(name, seconds);
+	}
+
+	private double run(String classpath, List<String> jvmArguments, String name, boolean prod, boolean waitForStart)
+			throws Exception {
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(jvmArguments);
+		command.addAll(List.of("-cp", classpath, GestionScolaireApplication.class.getName(),
+			"--server.port=0",
+			"--spring.datasource.url=jdbc:h2:file:" + workDir.resolve(prod ? "prod" : "update") + ";MODE=MySQL",
+			"--spring.datasource.username=sa",
+			"--spring.datasource.password="));
+		if (prod) {
+			command.add("--spring.profiles.active=prod");
+		}
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		Double seconds = null;
+		try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = output.readLine()) != null) {
+				Matcher started = STARTED.matcher(line);
+				if (started.find()) {
+					seconds = Double.parseDouble(started.group(1));
+					if (waitForStart) {
+						break;
+					}
+				}
+			}
+		}
+		process.destroy();
+		if (!process.waitFor(60, TimeUnit.SECONDS)) {
+			process.destroyForcibly().waitFor();
+		}
+		if (waitForStart) {
+			assertThat(seconds).as("démarrage " + name).isNotNull();
+			return seconds;
+		}
+		return 0;
+	}
+
+	private record Scenario(String name, double[] seconds) {
+
+		double median() {
+			double[] sorted = seconds.clone();
+			Arrays.sort(sorted);
+			return sorted[sorted.length / 2];
+		}
+
+		String toJson() {
+			return String.format(Locale.ROOT, "{\"name\": \"%s\", \"medianSeconds\": %.3f, \"minSeconds\": %.3f, \"runs\": %s}",
+				name, median(), Arrays.stream(seconds).min().orElse(0), Arrays.toString(seconds));
+		}
+	}
+}
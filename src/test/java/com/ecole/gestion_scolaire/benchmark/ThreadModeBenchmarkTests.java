@@ -0,0 +1,159 @@
+package com.ecole.gestion_scolaire.benchmark;
+
+import com.ecole.gestion_scolaire.GestionScolaireApplication;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare le débit et la latence p99 des lectures de liste (roster) entre le pool de threads Tomcat
+ * et les threads virtuels, avec 2000 requêtes simultanées
+ * Lancement : mvn test -Pbenchmark -Dtest=ThreadModeBenchmarkTests
+ * Résultat : target/benchmarks/thread-mode.json
+ */
+@Tag("benchmark")
+class ThreadModeBenchmarkTests {
+
+	private static final int CONCURRENT_REQUESTS = 2000;
+
+	private static final int ROSTER_SIZE = 200;
+
+	private static final int MEASURED_WAVES = 5;
+
+	@Test
+	void compareThreadModesUnderConcurrentRosterReads() throws Exception {
+		Result platform = run(false);
+		Result virtual = run(true);
+
+		String json = "{\n  \"concurrentRequests\": " + CONCURRENT_REQUESTS + ",\n"
+			+ "  \"platform\": " + platform.toJson() + ",\n"
+			+ "  \"virtual\": " + virtual.toJson() + "\n}\n";
+		Path report = Path.of("target", "benchmarks", "thread-mode.json");
+		Files.createDirectories(report.getParent());
+		Files.writeString(report, json);
+		System.out.println(json);
+
+		assertThat(platform.errors).isZero();
+		assertThat(virtual.errors).isZero();
+	}
+
+	private Result run(boolean virtualThreads) throws Exception {
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(GestionScolaireApplication.class)
+				.properties("server.port=0",
+					"spring.threads.virtual.enabled=" + virtualThreads,
+					"spring.datasource.hikari.maximum-pool-size=20")
+				.run()) {
+			long courseId = seed(context);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			URI uri = URI.create("http://localhost:" + port + "/api/courses/" + courseId + "/students");
+
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(30)).build();
+			wave(client, uri, new long[CONCURRENT_REQUESTS], new AtomicInteger()); // préchauffage
+
+			long[] latencies = new long[CONCURRENT_REQUESTS * MEASURED_WAVES];
+			AtomicInteger errors = new AtomicInteger();
+			long start = System.nanoTime();
+			for (int i = 0; i < MEASURED_WAVES; i++) {
+				long[] waveLatencies = new long[CONCURRENT_REQUESTS];
+				wave(client, uri, waveLatencies, errors);
+				System.arraycopy(waveLatencies, 0, latencies, i * CONCURRENT_REQUESTS, CONCURRENT_REQUESTS);
+			}
+			long elapsed = System.nanoTime() - start;
+			return new Result(virtualThreads ? "virtual" : "platform", latencies, elapsed, errors.get());
+		}
+	}
+
+	private void wave(HttpClient client, URI uri, long[] latencies, AtomicInteger errors) {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+		List<CompletableFuture<Void>> calls = new ArrayList<>(CONCURRENT_REQUESTS);
+		for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+			int slot = i;
+			long sent = System.nanoTime();
+			calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+				.handle((response, error) -> {
+					latencies[slot] = System.nanoTime() - sent;
+					if (error != null || response.statusCode() != 200) {
+						errors.incrementAndGet();
+					}
+					return null;
+				}));
+		}
+		CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+	}
+
+	private long seed(ConfigurableApplicationContext context) {
+		StudentRepository studentRepository = context.getBean(StudentRepository.class);
+		CourseRepository courseRepository = context.getBean(CourseRepository.class);
+		EnrollmentRepository enrollmentRepository = context.getBean(EnrollmentRepository.class);
+
+		Course course = new Course();
+		course.setTitre("Systèmes distribués");
+		course.setProfesseur("Prof. Benchmark");
+		course = courseRepository.save(course);
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < ROSTER_SIZE; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("bench" + i + "@ecole.test");
+			students.add(student);
+		}
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (Student student : studentRepository.saveAll(students)) {
+			Enrollment enrollment = new Enrollment();
+			enrollment.setStudent(student);
+			enrollment.setCourse(course);
+			enrollment.setDateInscription(new Date());
+			enrollments.add(enrollment);
+		}
+		enrollmentRepository.saveAll(enrollments);
+		return course.getId();
+	}
+
+	private record Result(String mode, long[] latencies, long elapsedNanos, int errors) {
+
+		double throughput() {
+			return latencies.length / (elapsedNanos / 1e9);
+		}
+
+		double percentileMillis(double percentile) {
+			long[] sorted = latencies.clone();
+			Arrays.sort(sorted);
+			int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+
+		String toJson() {
+			return String.format(Locale.ROOT,
+				"{\"mode\": \"%s\", \"requests\": %d, \"errors\": %d, \"throughputPerSecond\": %.1f, "
+					+ "\"p50Millis\": %.2f, \"p99Millis\": %.2f}",
+				mode, latencies.length, errors, throughput(), percentileMillis(50), percentileMillis(99));
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.BulkEnrollmentService;
+import com.jayway.jsonpath.JsonPath;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie l'inscription groupée POST /api/enrollments/bulk : résultat de chaque élément dans l'ordre de la requête,
+ * nombre de requêtes SQL indépendant du nombre d'éléments et taille maximale de la requête
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BulkEnrollmentTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private List<Student> students;
+
+	private Course course;
+
+	@BeforeEach
+	void seed() {
+		students = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("groupe" + i + "@ecole.test");
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+
+		course = new Course();
+		course.setTitre("Inscriptions groupées");
+		course.setProfesseur("Prof. Lot");
+		course = courseRepository.save(course);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void eachItemIsReportedInRequestOrder() throws Exception {
+		String first = mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + item(id(0), course.getId()) + "]"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		Number existingId = JsonPath.read(first, "$.results[0].enrollmentId");
+
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + String.join(",",
+					item(id(1), course.getId()),
+					item(id(0), course.getId()),
+					item(id(1), course.getId()),
+					item(999999L, course.getId()),
+					item(id(2), 999999L),
+					"{\"studentId\":" + id(3) + "}",
+					item(id(2), course.getId())) + "]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(2))
+			.andExpect(jsonPath("$.waitlisted").value(0))
+			.andExpect(jsonPath("$.rejected").value(5))
+			.andExpect(jsonPath("$.results.length()").value(7))
+			.andExpect(jsonPath("$.results[0].status").value("CREATED"))
+			.andExpect(jsonPath("$.results[0].enrollmentId").isNumber())
+			// Déjà inscrit en base : l'ID de l'inscription existante est renvoyé
+			.andExpect(jsonPath("$.results[1].status").value("DUPLICATE"))
+			.andExpect(jsonPath("$.results[1].enrollmentId").value(existingId))
+			// Doublon à l'intérieur de la requête
+			.andExpect(jsonPath("$.results[2].status").value("DUPLICATE"))
+			.andExpect(jsonPath("$.results[3].status").value("STUDENT_NOT_FOUND"))
+			.andExpect(jsonPath("$.results[3].message").value("Erreur 404 : Étudiant avec l'ID 999999 non trouvé."))
+			.andExpect(jsonPath("$.results[4].status").value("COURSE_NOT_FOUND"))
+			.andExpect(jsonPath("$.results[5].status").value("INVALID"))
+			.andExpect(jsonPath("$.results[5].courseId").value(nullValue()))
+			.andExpect(jsonPath("$.results[6].index").value(6))
+			.andExpect(jsonPath("$.results[6].status").value("CREATED"));
+
+		assertThat(enrollmentRepository.count()).isEqualTo(3);
+	}
+
+	@Test
+	void statementCountDoesNotGrowWithItems() throws Exception {
+		long small = statementsFor(students.subList(0, 10));
+		long large = statementsFor(students.subList(10, 200));
+
+		// Seuls varient les lots d'INSERT (hibernate.jdbc.batch_size = 50) et les blocs d'IDs de la séquence (50 par
+		// lecture) : au plus 4 de chaque pour 190 éléments, contre 1 pour 10, et jamais une requête par élément
+		assertThat(large).isLessThanOrEqualTo(small + 6);
+		assertThat(enrollmentRepository.count()).isEqualTo(200);
+	}
+
+	@Test
+	void requestSizeIsBounded() throws Exception {
+		mockMvc.perform(post("/api/enrollments/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().string("Erreur 400 : La liste des inscriptions est vide."));
+
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(unknownStudents(BulkEnrollmentService.MAX_BULK_SIZE + 1)))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().string("Erreur 400 : Au plus " + BulkEnrollmentService.MAX_BULK_SIZE
+				+ " inscriptions par requête."));
+
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(unknownStudents(BulkEnrollmentService.MAX_BULK_SIZE)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.rejected").value(BulkEnrollmentService.MAX_BULK_SIZE))
+			.andExpect(jsonPath("$.results[999].status").value("STUDENT_NOT_FOUND"));
+	}
+
+	private long statementsFor(List<Student> batch) throws Exception {
+		List<String> items = batch.stream().map(student -> item(student.getId(), course.getId())).toList();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + String.join(",", items) + "]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(batch.size()));
+		return statistics.getPrepareStatementCount();
+	}
+
+	private String unknownStudents(int count) {
+		List<String> items = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			items.add(item(900000L + i, course.getId()));
+		}
+		return "[" + String.join(",", items) + "]";
+	}
+
+	private long id(int index) {
+		return students.get(index).getId();
+	}
+
+	private static String item(Long studentId, Long courseId) {
+		return "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}";
+	}
+}
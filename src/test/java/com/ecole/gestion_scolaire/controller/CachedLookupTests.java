@@ -0,0 +1,161 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.dto.CourseSummary;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.CachedLookupService;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie le cache des lectures par ID (CachedLookupService) : lectures suivantes servies sans la base,
+ * invalidation par PUT et DELETE, et absences (Optional vide) jamais mises en cache
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CachedLookupTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CachedLookupService cachedLookupService;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Course course;
+
+	private Student student;
+
+	@BeforeEach
+	void seed() {
+		course = new Course();
+		course.setTitre("Algèbre");
+		course.setProfesseur("Prof. Cache");
+		course = courseRepository.save(course);
+
+		student = new Student();
+		student.setNom("Lecteur");
+		student.setEmail("lecteur@ecole.test");
+		student = studentRepository.save(student);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+		cacheManager.getCache(CachedLookupService.COURSES_CACHE).clear();
+		cacheManager.getCache(CachedLookupService.STUDENTS_CACHE).clear();
+	}
+
+	@Test
+	void lookupsAreCachedUntilTheCourseIsUpdated() throws Exception {
+		double misses = gets(CachedLookupService.COURSES_CACHE, "miss");
+		double hits = gets(CachedLookupService.COURSES_CACHE, "hit");
+
+		mockMvc.perform(get("/api/courses/" + course.getId()))
+			.andExpect(jsonPath("$.titre").value("Algèbre"));
+		// Modification hors API : la lecture suivante vient du cache, pas de la base
+		jdbcTemplate.update("update courses set titre = 'Modifié en base' where id = ?", course.getId());
+		mockMvc.perform(get("/api/courses/" + course.getId()))
+			.andExpect(jsonPath("$.titre").value("Algèbre"));
+		assertThat(gets(CachedLookupService.COURSES_CACHE, "miss")).isEqualTo(misses + 1);
+		assertThat(gets(CachedLookupService.COURSES_CACHE, "hit")).isEqualTo(hits + 1);
+
+		// PUT : entrée invalidée, la lecture suivante recharge la ligne
+		mockMvc.perform(put("/api/courses/" + course.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"titre\":\"Algèbre linéaire\",\"professeur\":\"Prof. Cache\"}"))
+			.andExpect(status().isOk());
+		assertThat(cached(CachedLookupService.COURSES_CACHE, course.getId())).isNull();
+		mockMvc.perform(get("/api/courses/" + course.getId()))
+			.andExpect(jsonPath("$.titre").value("Algèbre linéaire"));
+		assertThat(gets(CachedLookupService.COURSES_CACHE, "miss")).isEqualTo(misses + 2);
+	}
+
+	@Test
+	void deletedEntitiesAreEvicted() throws Exception {
+		mockMvc.perform(get("/api/courses/" + course.getId())).andExpect(status().isOk());
+		mockMvc.perform(get("/api/students/" + student.getId())).andExpect(status().isOk());
+		assertThat(cached(CachedLookupService.COURSES_CACHE, course.getId())).isNotNull();
+		assertThat(cached(CachedLookupService.STUDENTS_CACHE, student.getId())).isNotNull();
+
+		mockMvc.perform(delete("/api/courses/" + course.getId())).andExpect(status().isOk());
+		mockMvc.perform(delete("/api/students/" + student.getId())).andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/courses/" + course.getId())).andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/students/" + student.getId())).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void studentUpdatesEvictTheCachedStudent() throws Exception {
+		mockMvc.perform(get("/api/students/" + student.getId()))
+			.andExpect(jsonPath("$.nom").value("Lecteur"));
+
+		mockMvc.perform(put("/api/students/" + student.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"nom\":\"Lectrice\",\"email\":\"lecteur@ecole.test\"}"))
+			.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/students/" + student.getId()))
+			.andExpect(jsonPath("$.nom").value("Lectrice"));
+	}
+
+	@Test
+	void absentEntitiesAreNotCached() {
+		// Optional vide : « unless = #result == null » porte sur la valeur déballée, rien n'est mis en cache
+		long missingId = course.getId() + 1000;
+		assertThat(cachedLookupService.findCourse(missingId)).isEmpty();
+		assertThat(cached(CachedLookupService.COURSES_CACHE, missingId)).isNull();
+
+		// Optional présent : le cache garde la vue allégée, et la relit sous forme d'Optional
+		assertThat(cachedLookupService.findCourse(course.getId())).isPresent();
+		assertThat(cached(CachedLookupService.COURSES_CACHE, course.getId())).isInstanceOf(CourseSummary.class);
+		jdbcTemplate.update("delete from courses where id = ?", course.getId());
+		assertThat(cachedLookupService.findCourse(course.getId())).get()
+			.extracting(CourseSummary::getTitre).isEqualTo("Algèbre");
+	}
+
+	// Contenu du cache lu sans passer par get, qui compterait un succès ou un échec dans les statistiques
+	@SuppressWarnings("unchecked")
+	private Object cached(String name, Long id) {
+		return ((Cache<Object, Object>) cacheManager.getCache(name).getNativeCache())
+			.asMap().get(id);
+	}
+
+	private double gets(String cache, String result) {
+		return meterRegistry.get("cache.gets").tag("cache", cache).tag("result", result).functionCounter().count();
+	}
+}
@@ -0,0 +1,236 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.ChangeFeed;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie le flux GET /api/changes : modifications diffusées après commit (jamais en cas de rollback),
+ * reprise par Last-Event-ID et événement « reset » quand les événements manquants ont quitté le tampon
+ * ou que l'ID vient d'un autre processus (redémarrage), et fin des abonnements expirés
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ChangeFeedTests {
+
+	private static final long TIMEOUT_MILLIS = 10_000;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ChangeFeed changeFeed;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Student student;
+
+	private Course course;
+
+	@BeforeEach
+	void seed() {
+		student = new Student();
+		student.setNom("Abonné");
+		student.setEmail("abonne@ecole.test");
+		student = studentRepository.save(student);
+
+		course = new Course();
+		course.setTitre("Temps réel");
+		course.setProfesseur("Prof. Flux");
+		course = courseRepository.save(course);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void committedWritesAreStreamedToSubscribers() throws Exception {
+		MvcResult subscription = mockMvc.perform(get("/api/changes").accept(MediaType.TEXT_EVENT_STREAM))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		MockHttpServletResponse stream = subscription.getResponse();
+
+		String created = mockMvc.perform(post("/api/enrollments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"studentId\":" + student.getId() + ",\"courseId\":" + course.getId() + "}"))
+			.andExpect(status().isCreated())
+			.andReturn().getResponse().getContentAsString();
+		Number enrollmentId = JsonPath.read(created, "$.id");
+		// Chaque événement est écrit en plusieurs fois : on attend la fin de ses données
+		awaitContent(stream, "\"type\":\"enrollment.created\",\"entityId\":" + enrollmentId);
+		assertThat(content(stream))
+			.contains("event:enrollment.created")
+			.contains("\"studentId\":" + student.getId())
+			.contains("\"courseId\":" + course.getId());
+
+		// Transaction annulée : rien n'est publié
+		long head = changeFeed.head();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			changeFeed.enrollmentCreated(-1L, student.getId(), course.getId());
+			status.setRollbackOnly();
+		});
+		assertThat(changeFeed.head()).isEqualTo(head);
+
+		mockMvc.perform(put("/api/courses/" + course.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"titre\":\"Temps réel 2\",\"professeur\":\"Prof. Flux\"}"))
+			.andExpect(status().isOk());
+		mockMvc.perform(delete("/api/enrollments/" + enrollmentId))
+			.andExpect(status().isOk());
+		awaitContent(stream, "\"type\":\"enrollment.deleted\",\"entityId\":" + enrollmentId);
+
+		String content = content(stream);
+		assertThat(content.indexOf("event:course.updated")).isPositive()
+			.isLessThan(content.indexOf("event:enrollment.deleted"));
+		assertThat(content).doesNotContain("\"entityId\":-1");
+	}
+
+	@Test
+	void reconnectingClientsResumeFromLastEventId() throws Exception {
+		long lastSeen = changeFeed.head();
+		changeFeed.publish(ChangeFeed.STUDENT_UPDATED, student.getId(), student.getId(), null);
+		changeFeed.publish(ChangeFeed.COURSE_UPDATED, course.getId(), null, course.getId());
+
+		MockHttpServletResponse resumed = mockMvc.perform(get("/api/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM).header("Last-Event-ID", changeFeed.eventId(lastSeen)))
+			.andExpect(request().asyncStarted())
+			.andReturn().getResponse();
+		awaitContent(resumed, "\"id\":" + (lastSeen + 2) + ",");
+		String content = content(resumed);
+		assertThat(content).contains("id:" + changeFeed.eventId(lastSeen + 1) + "\nevent:student.updated")
+			.contains("id:" + changeFeed.eventId(lastSeen + 2) + "\nevent:course.updated")
+			.doesNotContain("id:" + changeFeed.eventId(lastSeen) + "\n")
+			.doesNotContain("event:reset");
+
+		// Plus d'événements manqués que le tampon n'en garde : le client doit recharger ses données
+		for (int i = 0; i <= changeFeed.capacity(); i++) {
+			changeFeed.publish(ChangeFeed.STUDENT_UPDATED, student.getId(), student.getId(), null);
+		}
+		MockHttpServletResponse tooOld = mockMvc.perform(get("/api/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM).param("lastEventId", changeFeed.eventId(lastSeen)))
+			.andExpect(request().asyncStarted())
+			.andReturn().getResponse();
+		String head = changeFeed.eventId(changeFeed.head());
+		awaitContent(tooOld, "{\"lastEventId\":\"" + head + "\"}");
+		assertThat(content(tooOld)).contains("id:" + head + "\nevent:reset");
+
+		mockMvc.perform(get("/api/changes").header("Last-Event-ID", "abc"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void eventIdsFromAnotherProcessTriggerReset() throws Exception {
+		changeFeed.publish(ChangeFeed.STUDENT_UPDATED, student.getId(), student.getId(), null);
+		changeFeed.publish(ChangeFeed.STUDENT_UPDATED, student.getId(), student.getId(), null);
+		// Numéro encore dans le tampon, mais d'une autre époque (avant redémarrage) : les numéros ne se correspondent pas
+		String beforeRestart = "ancienne-" + (changeFeed.head() - 1);
+		String head = changeFeed.eventId(changeFeed.head());
+
+		MockHttpServletResponse restarted = mockMvc.perform(get("/api/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM).header("Last-Event-ID", beforeRestart))
+			.andExpect(request().asyncStarted())
+			.andReturn().getResponse();
+		awaitContent(restarted, "{\"lastEventId\":\"" + head + "\"}");
+		assertThat(content(restarted)).contains("id:" + head + "\nevent:reset")
+			.doesNotContain("event:student.updated");
+
+		// Ancien format (numéro seul) : même traitement
+		MockHttpServletResponse legacy = mockMvc.perform(get("/api/changes")
+				.accept(MediaType.TEXT_EVENT_STREAM).header("Last-Event-ID", Long.toString(changeFeed.head() - 1)))
+			.andExpect(request().asyncStarted())
+			.andReturn().getResponse();
+		awaitContent(legacy, "event:reset");
+	}
+
+	@Test
+	void expiredSubscriptionsEndAndReleaseTheirThread() throws Exception {
+		double subscribed = subscribers();
+		MvcResult subscription = mockMvc.perform(get("/api/changes").accept(MediaType.TEXT_EVENT_STREAM))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		// Durée finie (app.changes.timeout, 30 min par défaut) malgré spring.mvc.async.request-timeout=-1
+		MockAsyncContext context = (MockAsyncContext) subscription.getRequest().getAsyncContext();
+		assertThat(context.getTimeout()).isEqualTo(Duration.ofMinutes(30).toMillis());
+		awaitSubscribers(subscribed + 1);
+
+		// Expiration : la réponse se termine (le client se reconnecte), et le thread de l'abonné s'arrête
+		// au plus tard à son réveil suivant
+		for (AsyncListener listener : context.getListeners()) {
+			listener.onTimeout(new AsyncEvent(context));
+		}
+		changeFeed.publish(ChangeFeed.STUDENT_UPDATED, student.getId(), student.getId(), null);
+		awaitSubscribers(subscribed);
+	}
+
+	private double subscribers() {
+		return meterRegistry.get("changes.subscribers").gauge().value();
+	}
+
+	private void awaitSubscribers(double expected) throws Exception {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (subscribers() != expected) {
+			assertThat(System.currentTimeMillis()).as("%s abonnés attendus", expected).isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private void awaitContent(MockHttpServletResponse stream, String expected) throws Exception {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (!content(stream).contains(expected)) {
+			assertThat(System.currentTimeMillis()).as("événement « %s » non reçu", expected).isLessThan(deadline);
+			Thread.sleep(20);
+		}
+	}
+
+	private String content(MockHttpServletResponse stream) throws Exception {
+		return stream.getContentAsString(StandardCharsets.UTF_8);
+	}
+}
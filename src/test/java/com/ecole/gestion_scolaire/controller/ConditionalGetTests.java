@@ -0,0 +1,133 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie les GET conditionnels (ETag / If-None-Match / 304) et le verrouillage optimiste des mises à jour
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void courseEtagFollowsVersionAndGuardsUpdates() throws Exception {
+		Course course = new Course();
+		course.setTitre("Chimie");
+		course.setProfesseur("Prof. Tag");
+		course = courseRepository.save(course);
+		String url = "/api/courses/" + course.getId();
+
+		String etag = mockMvc.perform(get(url))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+
+		mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		String update = "{\"titre\":\"Chimie organique\",\"professeur\":\"Prof. Tag\"}";
+		String newEtag = mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON).content(update))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(newEtag).isNotEqualTo(etag);
+
+		// L'ancien ETag est périmé : la modification est refusée et le GET renvoie le nouveau contenu
+		mockMvc.perform(put(url).header(HttpHeaders.IF_MATCH, etag)
+				.contentType(MediaType.APPLICATION_JSON).content(update))
+			.andExpect(status().isPreconditionFailed());
+		mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, newEtag));
+	}
+
+	@Test
+	void rosterEtagChangesWithEnrollmentsAndStudents() throws Exception {
+		Course course = new Course();
+		course.setTitre("Biologie");
+		course.setProfesseur("Prof. Tag");
+		course = courseRepository.save(course);
+		Student first = student("Alice", "alice.tag@ecole.test");
+		Student second = student("Bruno", "bruno.tag@ecole.test");
+		String url = "/api/courses/" + course.getId() + "/students";
+
+		enroll(first, course);
+		String etag = mockMvc.perform(get(url))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/enrollments/courses/" + course.getId() + "/students").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		// Nouvelle inscription
+		enroll(second, course);
+		String afterEnroll = mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Modification d'un étudiant de la liste (sa version augmente)
+		Student renamed = studentRepository.findById(second.getId()).orElseThrow();
+		renamed.setNom("Bruno B.");
+		studentRepository.save(renamed);
+		mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, afterEnroll))
+			.andExpect(status().isOk());
+	}
+
+	private Student student(String nom, String email) {
+		Student student = new Student();
+		student.setNom(nom);
+		student.setEmail(email);
+		return studentRepository.save(student);
+	}
+
+	private void enroll(Student student, Course course) throws Exception {
+		mockMvc.perform(post("/api/enrollments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"studentId\":" + student.getId() + ",\"courseId\":" + course.getId() + "}"))
+			.andExpect(status().isCreated());
+	}
+}
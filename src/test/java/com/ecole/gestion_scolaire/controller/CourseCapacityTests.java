@@ -0,0 +1,387 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.dto.StudentSummary;
+import com.ecole.gestion_scolaire.dto.WaitlistEntrySummary;
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.repository.WaitlistRepository;
+import com.ecole.gestion_scolaire.service.CourseSeatService;
+import com.ecole.gestion_scolaire.service.EnrollmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie que la capacité d'un cours n'est jamais dépassée, même pour des centaines d'inscriptions simultanées,
+ * et que les places libérées reviennent à la liste d'attente dans l'ordre d'arrivée
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseCapacityTests {
+
+	private static final int CAPACITY = 50;
+
+	private static final int STUDENT_COUNT = 400;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@SpyBean
+	private WaitlistRepository waitlistRepository;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private CourseSeatService seatService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void cleanUp() {
+		waitlistRepository.deleteAllInBatch();
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void concurrentEnrollmentsNeverExceedCapacity() throws Exception {
+		Course course = course("Compilation", CAPACITY);
+		List<Student> students = students("places", STUDENT_COUNT);
+
+		// Toutes les demandes partent en même temps sur le même cours
+		Map<EnrollmentService.Outcome.Status, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+		ExecutorService executor = Executors.newFixedThreadPool(32);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Student student : students) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					EnrollmentService.Outcome outcome = enrollmentService.create(student.getId(), course.getId(), null);
+					outcomes.computeIfAbsent(outcome.status(), status -> new AtomicInteger()).incrementAndGet();
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(outcomes.get(EnrollmentService.Outcome.Status.CREATED)).hasValue(CAPACITY);
+		assertThat(outcomes.get(EnrollmentService.Outcome.Status.WAITLISTED)).hasValue(STUDENT_COUNT - CAPACITY);
+		assertThat(enrollmentRepository.findStudentsByCourseId(course.getId())).hasSize(CAPACITY);
+		assertThat(courseRepository.findById(course.getId()).orElseThrow().getPlacesRestantes()).isZero();
+
+		List<WaitlistEntrySummary> waitlist = seatService.findWaitlist(course.getId());
+		assertThat(waitlist).hasSize(STUDENT_COUNT - CAPACITY);
+		assertThat(waitlist.get(0).getPosition()).isEqualTo(1);
+
+		// Désinscriptions concurrentes : chaque place libérée revient aux premiers de la liste d'attente
+		List<Long> enrollmentIds = enrollmentRepository.findPageAfter(0L, PageRequest.ofSize(10))
+			.stream().map(summary -> summary.getId()).toList();
+		executor = Executors.newFixedThreadPool(10);
+		try {
+			List<Future<Boolean>> futures = new ArrayList<>();
+			for (Long enrollmentId : enrollmentIds) {
+				futures.add(executor.submit(() -> enrollmentService.delete(enrollmentId)));
+			}
+			for (Future<Boolean> future : futures) {
+				assertThat(future.get()).isTrue();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		assertThat(enrollmentRepository.findStudentsByCourseId(course.getId())).hasSize(CAPACITY);
+		assertThat(courseRepository.findById(course.getId()).orElseThrow().getPlacesRestantes()).isZero();
+		for (WaitlistEntrySummary promoted : waitlist.subList(0, 10)) {
+			assertThat(enrollmentRepository.existsByStudentIdAndCourseId(promoted.getStudentId(), course.getId())).isTrue();
+		}
+		assertThat(seatService.findWaitlist(course.getId()))
+			.extracting(WaitlistEntrySummary::getId)
+			.containsExactlyElementsOf(waitlist.subList(10, waitlist.size()).stream().map(WaitlistEntrySummary::getId).toList());
+	}
+
+	@Test
+	void promotionSkipsEntriesAlreadyPromotedByAConcurrentTransaction() {
+		Course course = course("Concurrence", 2);
+		List<Student> students = students("instantane", 3);
+		Long first = enrollmentService.create(students.get(0).getId(), course.getId(), null).enrollment().getId();
+		Long second = enrollmentService.create(students.get(1).getId(), course.getId(), null).enrollment().getId();
+		assertThat(enrollmentService.create(students.get(2).getId(), course.getId(), null).status())
+			.isEqualTo(EnrollmentService.Outcome.Status.WAITLISTED);
+
+		// Instantané de la liste d'attente vu par la première désinscription, avant la seconde
+		List<WaitlistEntrySummary> snapshot = seatService.findWaitlist(course.getId());
+		assertThat(snapshot).hasSize(1);
+
+		// La seconde désinscription promeut l'unique entrée et valide la première
+		enrollmentService.delete(second);
+
+		// Lecture non verrouillante d'InnoDB en REPEATABLE READ (H2 est en READ COMMITTED) : la première transaction
+		// voit toujours l'entrée promue, dont le DELETE ne retire plus rien
+		doAnswer(invocation -> snapshot.stream()
+			.filter(entry -> entry.getId() > invocation.<Long>getArgument(1))
+			.limit(invocation.<Pageable>getArgument(2).getPageSize())
+			.toList())
+			.when(waitlistRepository).findByCourseIdAfter(eq(course.getId()), anyLong(), any(Pageable.class));
+
+		assertTimeoutPreemptively(Duration.ofSeconds(20), () -> enrollmentService.delete(first));
+
+		assertThat(enrollmentRepository.findStudentsByCourseId(course.getId()))
+			.extracting(StudentSummary::getId)
+			.containsExactly(students.get(2).getId());
+		assertThat(courseRepository.findById(course.getId()).orElseThrow().getPlacesRestantes()).isEqualTo(1);
+		assertThat(seatService.findWaitlist(course.getId())).isEmpty();
+	}
+
+	@Test
+	void enrollmentsInAnUnlimitedCourseDoNotWaitForEachOther() throws Exception {
+		Course course = course("Sans limite", null);
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		CountDownLatch reserved = new CountDownLatch(1);
+		CountDownLatch finish = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			// Première inscription : sa transaction reste ouverte après la prise de place
+			Future<Integer> first = executor.submit(() -> transaction.execute(status -> {
+				int seats = seatService.reserve(course.getId(), 1);
+				reserved.countDown();
+				try {
+					finish.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				return seats;
+			}));
+			reserved.await();
+
+			// La seconde n'attend pas la validation de la première (aucun verrou sur la ligne du cours)
+			Integer second = assertTimeoutPreemptively(Duration.ofSeconds(5),
+				() -> transaction.execute(status -> seatService.reserve(course.getId(), 1)));
+			assertThat(second).isEqualTo(1);
+			finish.countDown();
+			assertThat(first.get()).isEqualTo(1);
+		} finally {
+			finish.countDown();
+			executor.shutdown();
+		}
+		assertThat(courseRepository.findById(course.getId()).orElseThrow().getPlacesRestantes()).isNull();
+	}
+
+	@Test
+	void fullCourseWaitlistsAndCapacityChangePromotes() throws Exception {
+		Course course = course("Cryptographie", 2);
+		List<Student> students = students("attente", 5);
+
+		// Inscription groupée : 2 places, les 2 suivants en liste d'attente
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + item(students.get(0), course) + "," + item(students.get(1), course) + ","
+					+ item(students.get(2), course) + "," + item(students.get(3), course) + "]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(2))
+			.andExpect(jsonPath("$.waitlisted").value(2))
+			.andExpect(jsonPath("$.results[2].status").value("WAITLISTED"))
+			.andExpect(jsonPath("$.results[3].status").value("WAITLISTED"));
+
+		// Inscription individuelle au cours complet : 202 avec la position
+		mockMvc.perform(post("/api/enrollments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(item(students.get(4), course)))
+			.andExpect(status().isAccepted())
+			.andExpect(header().string("Location", "/api/courses/" + course.getId() + "/waitlist"))
+			.andExpect(jsonPath("$.position").value(3));
+
+		// Un étudiant déjà inscrit n'est pas mis en liste d'attente
+		mockMvc.perform(post("/api/enrollments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(item(students.get(0), course)))
+			.andExpect(status().isBadRequest());
+
+		// Une place de plus : le premier de la liste d'attente est inscrit
+		assertThat(seatService.changeCapacity(course.getId(), 3)).isTrue();
+		Course updated = courseRepository.findById(course.getId()).orElseThrow();
+		assertThat(updated.getCapacite()).isEqualTo(3);
+		assertThat(updated.getPlacesRestantes()).isZero();
+		assertThat(enrollmentRepository.existsByStudentIdAndCourseId(students.get(2).getId(), course.getId())).isTrue();
+
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/waitlist"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(2))
+			.andExpect(jsonPath("$[0].studentId").value(students.get(3).getId()))
+			.andExpect(jsonPath("$[0].position").value(1));
+
+		// Capacité supprimée : toute la liste d'attente est inscrite
+		assertThat(seatService.changeCapacity(course.getId(), null)).isTrue();
+		assertThat(courseRepository.findById(course.getId()).orElseThrow().getPlacesRestantes()).isNull();
+		assertThat(enrollmentRepository.findStudentsByCourseId(course.getId())).hasSize(5);
+		assertThat(seatService.findWaitlist(course.getId())).isEmpty();
+
+		// Capacité inférieure au nombre d'inscrits : personne n'est désinscrit, mais plus aucune place
+		assertThat(seatService.changeCapacity(course.getId(), 4)).isTrue();
+		assertThat(courseRepository.findById(course.getId()).orElseThrow().getPlacesRestantes()).isEqualTo(-1);
+		assertThat(enrollmentRepository.findStudentsByCourseId(course.getId())).hasSize(5);
+	}
+
+	@Test
+	void capacityIsChangedThroughCourseUpdate() throws Exception {
+		Course course = course("Robotique", 10);
+
+		mockMvc.perform(put("/api/courses/" + course.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"titre\":\"Robotique\",\"professeur\":\"Prof. Places\",\"capacite\":25,\"placesRestantes\":1000}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.capacite").value(25))
+			.andExpect(jsonPath("$.placesRestantes").value(25));
+
+		// Sans capacite, la limite est inchangée
+		mockMvc.perform(put("/api/courses/" + course.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"titre\":\"Robotique avancée\",\"professeur\":\"Prof. Places\"}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.titre").value("Robotique avancée"))
+			.andExpect(jsonPath("$.capacite").value(25))
+			.andExpect(jsonPath("$.placesRestantes").value(25));
+
+		mockMvc.perform(put("/api/courses/" + course.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"titre\":\"Robotique\",\"professeur\":\"Prof. Places\",\"capacite\":-1}"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void capacityEndpointRemovesTheLimitUnderIfMatch() throws Exception {
+		Course course = course("Électronique", 10);
+
+		String etag = mockMvc.perform(get("/api/courses/" + course.getId()))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader("ETag");
+
+		String updatedEtag = mockMvc.perform(put("/api/courses/" + course.getId() + "/capacity")
+				.header("If-Match", etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"capacite\":null}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.capacite").doesNotExist())
+			.andExpect(jsonPath("$.placesRestantes").doesNotExist())
+			.andReturn().getResponse().getHeader("ETag");
+		assertThat(updatedEtag).isNotEqualTo(etag);
+
+		// ETag périmé : ni la capacité ni rien d'autre ne change
+		mockMvc.perform(put("/api/courses/" + course.getId() + "/capacity")
+				.header("If-Match", etag)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"capacite\":5}"))
+			.andExpect(status().isPreconditionFailed());
+		assertThat(courseRepository.findById(course.getId()).orElseThrow().getCapacite()).isNull();
+
+		mockMvc.perform(put("/api/courses/0/capacity")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"capacite\":5}"))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void failedCapacityChangeRollsBackTheWholeUpdate() throws Exception {
+		Course course = course("Mécanique", 1);
+		List<Student> students = students("annulation", 2);
+		enrollmentService.create(students.get(0).getId(), course.getId(), null);
+		enrollmentService.create(students.get(1).getId(), course.getId(), null);
+
+		// La promotion de la liste d'attente échoue après la mise à jour des champs
+		doThrow(new IllegalStateException("liste d'attente indisponible"))
+			.when(waitlistRepository).findByCourseIdAfter(eq(course.getId()), anyLong(), any(Pageable.class));
+
+		mockMvc.perform(put("/api/courses/" + course.getId())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"titre\":\"Mécanique des fluides\",\"professeur\":\"Prof. Places\",\"capacite\":2}"))
+			.andExpect(status().isBadRequest());
+
+		Course unchanged = courseRepository.findById(course.getId()).orElseThrow();
+		assertThat(unchanged.getTitre()).isEqualTo("Mécanique");
+		assertThat(unchanged.getCapacite()).isEqualTo(1);
+		assertThat(unchanged.getPlacesRestantes()).isZero();
+		assertThat(unchanged.getVersion()).isEqualTo(course.getVersion());
+	}
+
+	private Course course(String titre, Integer capacite) {
+		Course course = new Course();
+		course.setTitre(titre);
+		course.setProfesseur("Prof. Places");
+		course.setCapacite(capacite);
+		return courseRepository.save(course);
+	}
+
+	private List<Student> students(String prefix, int count) {
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail(prefix + i + "@ecole.test");
+			students.add(student);
+		}
+		return studentRepository.saveAll(students);
+	}
+
+	private static String item(Student student, Course course) {
+		return "{\"studentId\":" + student.getId() + ",\"courseId\":" + course.getId() + "}";
+	}
+}
@@ -0,0 +1,212 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.EnrollmentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie que la suppression d'un cours ou d'un étudiant supprime ses inscriptions par requêtes groupées,
+ * sans charger les entités Enrollment, et que le cache et les compteurs restent cohérents
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class CourseDeletionTests {
+
+	private static final int STUDENT_COUNT = 500;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void coursesAreDeletedInBulkWithoutLoadingEnrollments() throws Exception {
+		List<Student> students = students("retrait");
+		Course first = courseWithEnrollments("Histoire", students);
+		Course second = courseWithEnrollments("Géographie", students);
+		Course kept = courseWithEnrollments("Physique", students.subList(0, 10));
+
+		// Le cours est mis en cache avant la suppression
+		mockMvc.perform(get("/api/courses/" + first.getId()))
+			.andExpect(status().isOk());
+
+		Statistics statistics = statistics();
+		mockMvc.perform(post("/api/courses/bulk-delete")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + first.getId() + "," + second.getId() + ",999999]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.deleted").value(2))
+			.andExpect(jsonPath("$.enrollmentsDeleted").value(2 * STUDENT_COUNT))
+			.andExpect(jsonPath("$.notFound[0]").value(999999));
+
+		// Existence des cours + suppression des inscriptions, de la liste d'attente, des compteurs et des cours
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		mockMvc.perform(get("/api/courses/" + first.getId()))
+			.andExpect(status().isNotFound());
+		assertThat(enrollmentRepository.count()).isEqualTo(10);
+		mockMvc.perform(get("/api/courses/statistics"))
+			.andExpect(jsonPath("$.courses.length()").value(1))
+			.andExpect(jsonPath("$.courses[0].courseId").value(kept.getId()))
+			.andExpect(jsonPath("$.courses[0].enrollmentCount").value(10));
+	}
+
+	@Test
+	void studentIsDeletedWithoutLoadingEnrollments() throws Exception {
+		List<Student> students = students("depart");
+		List<Course> courses = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			courses.add(courseWithEnrollments("Option " + i, students.subList(0, 1)));
+		}
+		Long studentId = students.get(0).getId();
+
+		Statistics statistics = statistics();
+		mockMvc.perform(delete("/api/students/" + studentId))
+			.andExpect(status().isOk());
+
+		assertThat(statistics.getEntityLoadCount()).isZero();
+		assertThat(studentRepository.existsById(studentId)).isFalse();
+		assertThat(enrollmentRepository.findCourseIdsByStudentId(studentId)).isEmpty();
+		mockMvc.perform(get("/api/students/" + studentId))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void studentDeletionWaitsForEnrollmentsBeingCreated() throws Exception {
+		Student student = students("course").get(0);
+		Course course = new Course();
+		course.setTitre("Dernière place");
+		course.setProfesseur("Prof. Retrait");
+		course.setCapacite(1);
+		course = courseRepository.save(course);
+		Long courseId = course.getId();
+
+		// Inscription en cours : sa transaction tient la ligne de l'étudiant (verrou de clé étrangère sous InnoDB,
+		// pris explicitement ici, H2 ne le prenant pas)
+		CountDownLatch created = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> enrollment = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+				studentRepository.lockById(student.getId());
+				enrollmentService.create(student.getId(), courseId, null);
+				created.countDown();
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}));
+			assertThat(created.await(10, TimeUnit.SECONDS)).isTrue();
+			Future<Boolean> deletion = executor.submit(() -> enrollmentService.deleteStudent(student.getId()));
+
+			enrollment.get(10, TimeUnit.SECONDS);
+			assertThat(deletion.get(10, TimeUnit.SECONDS)).isTrue();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// L'inscription validée pendant la suppression a rendu sa place et décompté son compteur
+		assertThat(enrollmentRepository.count()).isZero();
+		assertThat(courseRepository.findById(courseId).orElseThrow().getPlacesRestantes()).isEqualTo(1);
+		mockMvc.perform(get("/api/courses/statistics"))
+			.andExpect(jsonPath("$.courses[0].courseId").value(courseId))
+			.andExpect(jsonPath("$.courses[0].enrollmentCount").value(0));
+	}
+
+	private List<Student> students(String prefix) {
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail(prefix + i + "@ecole.test");
+			students.add(student);
+		}
+		return studentRepository.saveAll(students);
+	}
+
+	private Course courseWithEnrollments(String titre, List<Student> students) throws Exception {
+		Course course = new Course();
+		course.setTitre(titre);
+		course.setProfesseur("Prof. Retrait");
+		course = courseRepository.save(course);
+
+		StringBuilder body = new StringBuilder("[");
+		for (Student student : students) {
+			if (body.length() > 1) {
+				body.append(',');
+			}
+			body.append("{\"studentId\":").append(student.getId()).append(",\"courseId\":").append(course.getId()).append('}');
+		}
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body.append(']').toString()))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(students.size()));
+		return course;
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,132 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.EnrollmentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie que les compteurs d'inscriptions restent exacts après des inscriptions concurrentes,
+ * une inscription groupée et des suppressions
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseStatisticsTests {
+
+	private static final int STUDENT_COUNT = 200;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Test
+	void countersFollowEnrollmentsAndDeletions() throws Exception {
+		Course popular = course("Algorithmique", "Prof. Compteur");
+		Course other = course("Réseaux", "Prof. Compteur");
+		Course empty = course("Latin", "Prof. Vide");
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("stats" + i + "@ecole.test");
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+
+		// Inscriptions concurrentes au même cours
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (Student student : students) {
+				futures.add(executor.submit(() -> enrollmentService.create(student.getId(), popular.getId(), null)));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// Inscription groupée : 2 créées, 1 doublon
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"studentId\":" + students.get(0).getId() + ",\"courseId\":" + other.getId() + "},"
+					+ "{\"studentId\":" + students.get(1).getId() + ",\"courseId\":" + other.getId() + "},"
+					+ "{\"studentId\":" + students.get(1).getId() + ",\"courseId\":" + popular.getId() + "}]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(2));
+
+		// L'étudiant 0 est supprimé avec ses deux inscriptions
+		mockMvc.perform(delete("/api/students/" + students.get(0).getId()))
+			.andExpect(status().isOk());
+
+		mockMvc.perform(get("/api/courses/statistics"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.courses[0].courseId").value(popular.getId()))
+			.andExpect(jsonPath("$.courses[0].enrollmentCount").value(STUDENT_COUNT - 1))
+			.andExpect(jsonPath("$.courses[1].courseId").value(other.getId()))
+			.andExpect(jsonPath("$.courses[1].enrollmentCount").value(1))
+			.andExpect(jsonPath("$.courses[2].courseId").value(empty.getId()))
+			.andExpect(jsonPath("$.courses[2].enrollmentCount").value(0))
+			.andExpect(jsonPath("$.professors[0].professeur").value("Prof. Compteur"))
+			.andExpect(jsonPath("$.professors[0].courseCount").value(2))
+			.andExpect(jsonPath("$.professors[0].enrollmentCount").value(STUDENT_COUNT))
+			.andExpect(jsonPath("$.professors[1].enrollmentCount").value(0));
+
+		mockMvc.perform(get("/api/courses/statistics").param("top", "1"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.courses.length()").value(1));
+	}
+
+	private Course course(String titre, String professeur) {
+		Course course = new Course();
+		course.setTitre(titre);
+		course.setProfesseur(professeur);
+		return courseRepository.save(course);
+	}
+}
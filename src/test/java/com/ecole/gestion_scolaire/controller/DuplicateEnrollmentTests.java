@@ -0,0 +1,202 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.EnrollmentMembershipFilter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie la détection des doublons d'inscription : requêtes simultanées sur le même couple (une seule inscription,
+ * les autres reçoivent 400), doublon inconnu du filtre en mémoire (détecté par l'index unique, y compris dans une
+ * inscription groupée) et absence de faux négatif du filtre
+ */
+@SpringBootTest(properties = "app.enrollments.membership-filter.enabled=true")
+@AutoConfigureMockMvc
+class DuplicateEnrollmentTests {
+
+	private static final String DUPLICATE = "Erreur 400 : L'étudiant est déjà inscrit à ce cours.";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@Autowired
+	private EnrollmentMembershipFilter membershipFilter;
+
+	private Student student;
+
+	private Course course;
+
+	@BeforeEach
+	void seed() {
+		student = new Student();
+		student.setNom("Pressé");
+		student.setEmail("presse@ecole.test");
+		student = studentRepository.save(student);
+
+		course = new Course();
+		course.setTitre("Concurrence");
+		course.setProfesseur("Prof. Index");
+		course = courseRepository.save(course);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void concurrentDuplicatesGetBadRequest() throws Exception {
+		int attempts = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(attempts);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Integer> statuses = new ArrayList<>();
+		List<String> rejections = new ArrayList<>();
+		try {
+			List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+			for (int i = 0; i < attempts; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return enroll(student.getId(), course.getId());
+				}));
+			}
+			start.countDown();
+			for (Future<MockHttpServletResponse> future : futures) {
+				MockHttpServletResponse response = future.get();
+				statuses.add(response.getStatus());
+				if (response.getStatus() == 400) {
+					rejections.add(response.getContentAsString());
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		// Les requêtes passées avant l'inscription de la première sont arrêtées par l'index unique
+		assertThat(statuses).containsOnlyOnce(201).containsOnly(201, 400);
+		assertThat(rejections).hasSize(attempts - 1).containsOnly(DUPLICATE);
+		assertThat(enrollmentRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void duplicatesUnknownToTheFilterAreCaughtByTheIndex() throws Exception {
+		// Inscription écrite sans passer par l'API : le filtre ne la connaît pas et répond « certainement absent »
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(student);
+		enrollment.setCourse(course);
+		enrollment.setDateInscription(new Date());
+		enrollmentRepository.save(enrollment);
+		assertThat(membershipFilter.mightContain(student.getId(), course.getId())).isFalse();
+
+		mockMvc.perform(post("/api/enrollments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body(student.getId(), course.getId())))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().string(DUPLICATE));
+		assertThat(enrollmentRepository.count()).isEqualTo(1);
+	}
+
+	@Test
+	void bulkConflictsAtInsertAreReportedPerItem() throws Exception {
+		Student other = new Student();
+		other.setNom("Suivant");
+		other.setEmail("suivant@ecole.test");
+		other = studentRepository.save(other);
+		// Inscription concurrente entre la vérification et l'INSERT : inconnue du filtre, la vérification l'ignore
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(student);
+		enrollment.setCourse(course);
+		enrollment.setDateInscription(new Date());
+		enrollmentRepository.save(enrollment);
+
+		mockMvc.perform(post("/api/enrollments/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[" + body(other.getId(), course.getId()) + "," + body(student.getId(), course.getId()) + "]"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.created").value(1))
+			.andExpect(jsonPath("$.rejected").value(1))
+			.andExpect(jsonPath("$.results[0].index").value(0))
+			.andExpect(jsonPath("$.results[0].status").value("CREATED"))
+			.andExpect(jsonPath("$.results[1].index").value(1))
+			.andExpect(jsonPath("$.results[1].status").value("DUPLICATE"))
+			.andExpect(jsonPath("$.results[1].message").value(DUPLICATE));
+
+		assertThat(enrollmentRepository.count()).isEqualTo(2);
+		mockMvc.perform(get("/api/courses/statistics"))
+			.andExpect(jsonPath("$.courses[0].enrollmentCount").value(1));
+	}
+
+	@Test
+	void filterHasNoFalseNegatives() throws Exception {
+		enroll(student.getId(), course.getId());
+		assertThat(membershipFilter.mightContain(student.getId(), course.getId())).isTrue();
+
+		int pairs = 20_000;
+		for (long i = 0; i < pairs; i++) {
+			membershipFilter.add(1_000_000 + i, 2_000_000 + i % 97);
+		}
+		int falsePositives = 0;
+		for (long i = 0; i < pairs; i++) {
+			// Tout couple ajouté est reconnu : la vérification en base n'est jamais évitée à tort
+			assertThat(membershipFilter.mightContain(1_000_000 + i, 2_000_000 + i % 97)).isTrue();
+			if (membershipFilter.mightContain(5_000_000 + i, 6_000_000 + i % 97)) {
+				falsePositives++;
+			}
+		}
+		// Couples jamais ajoutés : faux positifs rares (fpp = 1 % pour 1 000 000 couples attendus)
+		assertThat(falsePositives).isLessThan(pairs / 100);
+	}
+
+	private MockHttpServletResponse enroll(Long studentId, Long courseId) throws Exception {
+		return mockMvc.perform(post("/api/enrollments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content(body(studentId, courseId)))
+			.andReturn().getResponse();
+	}
+
+	private static String body(Long studentId, Long courseId) {
+		return "{\"studentId\":" + studentId + ",\"courseId\":" + courseId + "}";
+	}
+}
@@ -0,0 +1,163 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Vérifie l'export des inscriptions (GET /api/enrollments/export) : NDJSON avec les données de l'étudiant
+ * et du cours, CSV avec en-tête et échappement des virgules, guillemets et retours à la ligne, export vide,
+ * et format inconnu refusé
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class EnrollmentExportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Course course;
+
+	private final List<Student> students = new ArrayList<>();
+
+	private final List<Enrollment> enrollments = new ArrayList<>();
+
+	@BeforeEach
+	void seed() {
+		course = new Course();
+		course.setTitre("Histoire, \"moderne\"");
+		course.setProfesseur("Prof. Dupont\nAmphi B");
+		course = courseRepository.save(course);
+
+		for (String nom : List.of("Martin", "Lefèvre")) {
+			Student student = new Student();
+			student.setNom(nom);
+			student.setEmail(nom.toLowerCase() + "@ecole.test");
+			students.add(studentRepository.save(student));
+		}
+		for (Student student : students) {
+			Enrollment enrollment = new Enrollment();
+			enrollment.setStudent(student);
+			enrollment.setCourse(course);
+			enrollment.setDateInscription(Date.valueOf("2024-09-02"));
+			enrollments.add(enrollmentRepository.save(enrollment));
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void ndjsonExportHasOneObjectPerEnrollment() throws Exception {
+		MockHttpServletResponse response = export("");
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+		String[] lines = response.getContentAsString(StandardCharsets.UTF_8).split("\n");
+		assertThat(lines).hasSize(2);
+		for (int i = 0; i < lines.length; i++) {
+			JsonNode row = objectMapper.readTree(lines[i]);
+			assertThat(row.get("id").asLong()).isEqualTo(enrollments.get(i).getId());
+			assertThat(row.get("dateInscription").isNull()).isFalse();
+			assertThat(row.get("studentId").asLong()).isEqualTo(students.get(i).getId());
+			assertThat(row.get("studentNom").asText()).isEqualTo(students.get(i).getNom());
+			assertThat(row.get("studentEmail").asText()).isEqualTo(students.get(i).getEmail());
+			assertThat(row.get("courseId").asLong()).isEqualTo(course.getId());
+			assertThat(row.get("courseTitre").asText()).isEqualTo("Histoire, \"moderne\"");
+			assertThat(row.get("courseProfesseur").asText()).isEqualTo("Prof. Dupont\nAmphi B");
+		}
+	}
+
+	@Test
+	void csvExportEscapesSeparatorsQuotesAndLineBreaks() throws Exception {
+		MockHttpServletResponse response = export("csv");
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).startsWith("text/csv");
+		assertThat(response.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("inscriptions.csv");
+		String expected = "id,dateInscription,studentId,studentNom,studentEmail,courseId,courseTitre,courseProfesseur\r\n";
+		for (int i = 0; i < enrollments.size(); i++) {
+			Student student = students.get(i);
+			expected += enrollments.get(i).getId() + ",2024-09-02," + student.getId() + "," + student.getNom() + ","
+				+ student.getEmail() + "," + course.getId() + ",\"Histoire, \"\"moderne\"\"\",\"Prof. Dupont\nAmphi B\"\r\n";
+		}
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(expected);
+	}
+
+	@Test
+	void emptyExportsKeepTheCsvHeader() throws Exception {
+		enrollmentRepository.deleteAllInBatch();
+
+		assertThat(export("ndjson").getContentAsString(StandardCharsets.UTF_8)).isEmpty();
+		assertThat(export("csv").getContentAsString(StandardCharsets.UTF_8))
+			.isEqualTo("id,dateInscription,studentId,studentNom,studentEmail,courseId,courseTitre,courseProfesseur\r\n");
+	}
+
+	@Test
+	void unknownFormatIsRejected() throws Exception {
+		MockHttpServletResponse response = export("xml");
+
+		assertThat(response.getStatus()).isEqualTo(400);
+		assertThat(response.getContentAsString(StandardCharsets.UTF_8))
+			.isEqualTo("Erreur 400 : Format d'export inconnu (ndjson ou csv).");
+	}
+
+	private MockHttpServletResponse export(String format) throws Exception {
+		MockHttpServletRequestBuilder builder = get("/api/enrollments/export");
+		if (!format.isEmpty()) {
+			builder.param("format", format);
+		}
+		MvcResult started = mockMvc.perform(builder)
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		return mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+	}
+}
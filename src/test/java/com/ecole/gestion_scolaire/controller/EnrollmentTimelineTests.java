@@ -0,0 +1,163 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie les inscriptions d'un cours sur une période et leur comptage par jour, semaine et mois,
+ * calculés par la base sans charger d'inscription
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class EnrollmentTimelineTests {
+
+	// Lundi 8, mardi 9 et mercredi 10 janvier, lundi 15 janvier, jeudi 1er février 2024
+	private static final String[] DATES = {
+		"2024-01-08", "2024-01-09", "2024-01-09", "2024-01-10", "2024-01-15", "2024-02-01"
+	};
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Course course;
+
+	@BeforeEach
+	void seed() {
+		course = new Course();
+		course.setTitre("Statistiques");
+		course.setProfesseur("Prof. Calendrier");
+		course = courseRepository.save(course);
+
+		Course other = new Course();
+		other.setTitre("Autre cours");
+		other.setProfesseur("Prof. Calendrier");
+		other = courseRepository.save(other);
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < DATES.length; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("timeline" + i + "@ecole.test");
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (int i = 0; i < DATES.length; i++) {
+			enrollments.add(enrollment(students.get(i), course, DATES[i]));
+		}
+		// Même période, autre cours : jamais compté
+		enrollments.add(enrollment(students.get(0), other, "2024-01-09"));
+		enrollmentRepository.saveAll(enrollments);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void enrollmentsBetweenDatesAreFilteredAndSorted() throws Exception {
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/enrollments")
+				.param("from", "2024-01-09").param("to", "2024-01-15"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(4))
+			.andExpect(jsonPath("$[0].courseId").value(course.getId()));
+
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/enrollments")
+				.param("from", "2024-02-02").param("to", "2024-01-01"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/courses/0/enrollments")
+				.param("from", "2024-01-01").param("to", "2024-12-31"))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void timelineCountsAreGroupedByTheDatabase() throws Exception {
+		Statistics statistics = statistics();
+
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/enrollments/timeline")
+				.param("from", "2024-01-01").param("to", "2024-01-31"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.bucket").value("day"))
+			.andExpect(jsonPath("$.total").value(5))
+			.andExpect(jsonPath("$.buckets.length()").value(4))
+			.andExpect(jsonPath("$.buckets[1].start").value("2024-01-09"))
+			.andExpect(jsonPath("$.buckets[1].enrollmentCount").value(2));
+
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/enrollments/timeline")
+				.param("from", "2024-01-01").param("to", "2024-03-31").param("bucket", "week"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.total").value(6))
+			.andExpect(jsonPath("$.buckets[0].start").value("2024-01-08"))
+			.andExpect(jsonPath("$.buckets[0].enrollmentCount").value(4))
+			.andExpect(jsonPath("$.buckets[1].start").value("2024-01-15"))
+			.andExpect(jsonPath("$.buckets[2].start").value("2024-01-29"));
+
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/enrollments/timeline")
+				.param("from", "2024-01-01").param("to", "2024-03-31").param("bucket", "MONTH"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.buckets.length()").value(2))
+			.andExpect(jsonPath("$.buckets[0].start").value("2024-01-01"))
+			.andExpect(jsonPath("$.buckets[0].enrollmentCount").value(5))
+			.andExpect(jsonPath("$.buckets[1].start").value("2024-02-01"))
+			.andExpect(jsonPath("$.buckets[1].enrollmentCount").value(1));
+
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/enrollments/timeline")
+				.param("from", "2024-01-01").param("to", "2024-03-31").param("bucket", "year"))
+			.andExpect(status().isBadRequest());
+	}
+
+	private Enrollment enrollment(Student student, Course course, String date) {
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(student);
+		enrollment.setCourse(course);
+		enrollment.setDateInscription(Date.valueOf(date));
+		return enrollment;
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
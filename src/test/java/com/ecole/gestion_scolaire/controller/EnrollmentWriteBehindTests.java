@@ -0,0 +1,106 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.EnrollmentWriteBehindQueue;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mode asynchrone de POST /api/enrollments : 202 + ticket, refus quand la file est pleine,
+ * et aucune inscription acceptée perdue à l'arrêt
+ * File de 5 éléments et attente de 500 ms avant chaque lot pour la remplir de façon reproductible
+ */
+@SpringBootTest(properties = {
+	"app.enrollments.write-behind.enabled=true",
+	"app.enrollments.write-behind.queue-capacity=5",
+	"app.enrollments.write-behind.linger-ms=500"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class EnrollmentWriteBehindTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private EnrollmentWriteBehindQueue writeBehindQueue;
+
+	@Test
+	void acceptedEnrollmentsAreWrittenAndFullQueueIsRejected() throws Exception {
+		Course course = new Course();
+		course.setTitre("Statistiques");
+		course.setProfesseur("Prof. File");
+		course = courseRepository.save(course);
+
+		List<String> tickets = new ArrayList<>();
+		int rejected = 0;
+		for (int i = 0; i < 20; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("file" + i + "@ecole.test");
+			student = studentRepository.save(student);
+
+			MockHttpServletResponse response = mockMvc.perform(post("/api/enrollments")
+					.contentType(MediaType.APPLICATION_JSON)
+					.content("{\"studentId\":" + student.getId() + ",\"courseId\":" + course.getId() + "}"))
+				.andReturn().getResponse();
+			if (response.getStatus() == 202) {
+				tickets.add(JsonPath.read(response.getContentAsString(), "$.ticketId"));
+				assertThat(response.getHeader(HttpHeaders.LOCATION)).endsWith(tickets.get(tickets.size() - 1));
+			} else {
+				assertThat(response.getStatus()).isEqualTo(503);
+				assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+				rejected++;
+			}
+		}
+		assertThat(rejected).isPositive();
+		assertThat(tickets).isNotEmpty();
+
+		// Arrêt : la file est vidée en base avant que stop() ne rende la main
+		writeBehindQueue.stop();
+		assertThat(writeBehindQueue.pendingCount()).isZero();
+		assertThat(enrollmentRepository.count()).isEqualTo(tickets.size());
+		for (String ticket : tickets) {
+			mockMvc.perform(get("/api/enrollments/tickets/" + ticket))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("CREATED"))
+				.andExpect(jsonPath("$.enrollmentId").isNumber());
+		}
+
+		// Après l'arrêt, les nouvelles inscriptions sont refusées
+		mockMvc.perform(post("/api/enrollments")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"studentId\":" + studentRepository.findAll().get(0).getId() + ",\"courseId\":" + course.getId() + "}"))
+			.andExpect(status().isServiceUnavailable());
+	}
+}
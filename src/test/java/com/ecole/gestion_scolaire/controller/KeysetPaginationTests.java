@@ -0,0 +1,176 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.web.KeysetPagination;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie la pagination par curseur (GET /page : bornes des pages, curseur nextAfterId, taille bornée)
+ * et les listes complètes en flux (GET /stream)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class KeysetPaginationTests {
+
+	private static final int STUDENT_COUNT = 7;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	private List<Student> students;
+
+	private List<Course> courses;
+
+	@BeforeEach
+	void seed() {
+		students = students("page", STUDENT_COUNT);
+
+		courses = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Course course = new Course();
+			course.setTitre("Cours " + i);
+			course.setProfesseur("Prof. Curseur");
+			courses.add(course);
+		}
+		courses = courseRepository.saveAll(courses);
+
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (Student student : students.subList(0, 3)) {
+			Enrollment enrollment = new Enrollment();
+			enrollment.setStudent(student);
+			enrollment.setCourse(courses.get(0));
+			enrollment.setDateInscription(new Date());
+			enrollments.add(enrollment);
+		}
+		enrollmentRepository.saveAll(enrollments);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void pagesFollowTheCursorUntilTheLastRow() throws Exception {
+		mockMvc.perform(get("/api/students/page").param("size", "3"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items.length()").value(3))
+			.andExpect(jsonPath("$.items[0].id").value(id(0)))
+			.andExpect(jsonPath("$.items[2].id").value(id(2)))
+			.andExpect(jsonPath("$.nextAfterId").value(id(2)));
+		mockMvc.perform(get("/api/students/page").param("size", "3").param("afterId", Long.toString(id(2))))
+			.andExpect(jsonPath("$.items.length()").value(3))
+			.andExpect(jsonPath("$.items[0].id").value(id(3)))
+			.andExpect(jsonPath("$.nextAfterId").value(id(5)));
+		// Dernière page incomplète : pas de curseur
+		mockMvc.perform(get("/api/students/page").param("size", "3").param("afterId", Long.toString(id(5))))
+			.andExpect(jsonPath("$.items.length()").value(1))
+			.andExpect(jsonPath("$.items[0].id").value(id(6)))
+			.andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+		// Après la dernière ligne : page vide
+		mockMvc.perform(get("/api/students/page").param("afterId", Long.toString(id(6))))
+			.andExpect(jsonPath("$.items").isEmpty())
+			.andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+
+		// Dernière page complète (4 cours, pages de 2) : pas de page vide à demander ensuite
+		mockMvc.perform(get("/api/courses/page").param("size", "2").param("afterId", Long.toString(courses.get(1).getId())))
+			.andExpect(jsonPath("$.items.length()").value(2))
+			.andExpect(jsonPath("$.items[1].id").value(courses.get(3).getId()))
+			.andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+
+		mockMvc.perform(get("/api/enrollments/page").param("size", "2"))
+			.andExpect(jsonPath("$.items.length()").value(2))
+			.andExpect(jsonPath("$.items[0].studentId").value(id(0)))
+			.andExpect(jsonPath("$.items[0].courseId").value(courses.get(0).getId()))
+			.andExpect(jsonPath("$.nextAfterId").isNumber());
+	}
+
+	@Test
+	void pageSizeIsBounded() throws Exception {
+		mockMvc.perform(get("/api/students/page").param("size", "0"))
+			.andExpect(jsonPath("$.items.length()").value(1))
+			.andExpect(jsonPath("$.nextAfterId").value(id(0)));
+		mockMvc.perform(get("/api/students/page"))
+			.andExpect(jsonPath("$.items.length()").value(STUDENT_COUNT))
+			.andExpect(jsonPath("$.nextAfterId").value(nullValue()));
+
+		students("max", KeysetPagination.MAX_PAGE_SIZE);
+		mockMvc.perform(get("/api/students/page").param("size", "100000"))
+			.andExpect(jsonPath("$.items.length()").value(KeysetPagination.MAX_PAGE_SIZE))
+			.andExpect(jsonPath("$.nextAfterId").isNumber());
+	}
+
+	@Test
+	void streamsReturnEveryRowInIdOrder() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/students/stream"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+
+		List<Number> ids = JsonPath.read(body, "$[*].id");
+		assertThat(ids).extracting(Number::longValue)
+			.containsExactlyElementsOf(students.stream().map(Student::getId).toList());
+		assertThat(JsonPath.<String>read(body, "$[0].email")).isEqualTo("page0@ecole.test");
+
+		MvcResult enrollments = mockMvc.perform(get("/api/enrollments/stream"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mockMvc.perform(asyncDispatch(enrollments))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(3))
+			.andExpect(jsonPath("$[2].studentId").value(id(2)));
+	}
+
+	private long id(int index) {
+		return students.get(index).getId();
+	}
+
+	private List<Student> students(String prefix, int count) {
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail(prefix + i + "@ecole.test");
+			students.add(student);
+		}
+		return studentRepository.saveAll(students);
+	}
+}
@@ -0,0 +1,179 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.ReactiveReadService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie les endpoints /api/reactive : contenu identique aux endpoints MVC, 404, et lecture page par page
+ * au rythme du consommateur
+ */
+@SpringBootTest(properties = {
+	"app.reactive.page-size=100",
+	"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class ReactiveReadTests {
+
+	private static final int STUDENT_COUNT = 450;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@Autowired
+	private ReactiveReadService reactiveReadService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Course course;
+
+	private List<Student> students;
+
+	@BeforeEach
+	void seed() {
+		course = new Course();
+		course.setTitre("Programmation réactive");
+		course.setProfesseur("Prof. Flux");
+		course = courseRepository.save(course);
+
+		students = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("flux" + i + "@ecole.test");
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (Student student : students.subList(0, 30)) {
+			Enrollment enrollment = new Enrollment();
+			enrollment.setStudent(student);
+			enrollment.setCourse(course);
+			enrollment.setDateInscription(new Date());
+			enrollments.add(enrollment);
+		}
+		enrollmentRepository.saveAll(enrollments);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void listsAreStreamedAsNdjson() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/reactive/students").accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.strip().split("\n");
+		assertThat(lines).hasSize(STUDENT_COUNT);
+		assertThat(lines[0]).contains("\"id\":" + students.get(0).getId());
+		assertThat(lines[STUDENT_COUNT - 1]).contains("\"id\":" + students.get(STUDENT_COUNT - 1).getId());
+
+		MvcResult roster = mockMvc.perform(get("/api/reactive/courses/" + course.getId() + "/students")
+				.accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		String rosterBody = mockMvc.perform(asyncDispatch(roster))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		assertThat(rosterBody.strip().split("\n")).hasSize(30);
+	}
+
+	@Test
+	void singleLookupsAndMissingResources() throws Exception {
+		MvcResult found = mockMvc.perform(get("/api/reactive/courses/" + course.getId()))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mockMvc.perform(asyncDispatch(found))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.titre").value("Programmation réactive"));
+
+		MvcResult missing = mockMvc.perform(get("/api/reactive/students/999999"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mockMvc.perform(asyncDispatch(missing))
+			.andExpect(status().isNotFound());
+
+		MvcResult missingRoster = mockMvc.perform(get("/api/reactive/courses/999999/students")
+				.accept(MediaType.APPLICATION_NDJSON))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		mockMvc.perform(asyncDispatch(missingRoster))
+			.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void pagesAreReadOnDemand() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		// Un consommateur lent ne fait lire que la page en cours et au plus une page d'avance
+		StepVerifier.create(reactiveReadService.students(), 1)
+			.expectNextCount(1)
+			.then(() -> assertThat(statistics.getQueryExecutionCount()).isBetween(1L, 2L))
+			.thenRequest(150)
+			.expectNextCount(150)
+			.then(() -> assertThat(statistics.getQueryExecutionCount()).isBetween(2L, 3L))
+			.thenCancel()
+			.verify();
+
+		// Lecture complète : 5 pages de 100 (la dernière, incomplète, termine le flux), plus éventuellement
+		// la page d'avance du flux annulé ci-dessus si elle se termine après clear()
+		statistics.clear();
+		StepVerifier.create(reactiveReadService.students())
+			.expectNextCount(STUDENT_COUNT)
+			.verifyComplete();
+		assertThat(statistics.getQueryExecutionCount()).isBetween(5L, 6L);
+	}
+}
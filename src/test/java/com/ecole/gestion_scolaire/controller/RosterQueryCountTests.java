@@ -0,0 +1,129 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie que les endpoints de listes (roster) s'exécutent en un nombre constant de requêtes SQL,
+ * quel que soit le nombre d'inscrits
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class RosterQueryCountTests {
+
+	private static final int STUDENT_COUNT = 1000;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Course course;
+
+	private Student firstStudent;
+
+	@BeforeEach
+	void seed() {
+		course = new Course();
+		course.setTitre("Bases de données");
+		course.setProfesseur("Prof. Roster");
+		course = courseRepository.save(course);
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("roster" + i + "@ecole.test");
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+		firstStudent = students.get(0);
+
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (Student student : students) {
+			Enrollment enrollment = new Enrollment();
+			enrollment.setStudent(student);
+			enrollment.setCourse(course);
+			enrollment.setDateInscription(new Date());
+			enrollments.add(enrollment);
+		}
+		enrollmentRepository.saveAll(enrollments);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void studentsOfCourseAreLoadedInConstantQueries() throws Exception {
+		Statistics statistics = statistics();
+
+		mockMvc.perform(get("/api/courses/" + course.getId() + "/students"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(STUDENT_COUNT));
+
+		// Vérification d'existence du cours + version agrégée (ETag) + une requête avec jointure
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void alternativeRosterEndpointsUseConstantQueries() throws Exception {
+		Statistics statistics = statistics();
+
+		mockMvc.perform(get("/api/enrollments/courses/" + course.getId() + "/students"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(STUDENT_COUNT));
+		mockMvc.perform(get("/api/students/" + firstStudent.getId() + "/courses"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].titre").value("Bases de données"));
+		mockMvc.perform(get("/api/enrollments/students/" + firstStudent.getId() + "/courses"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(1));
+
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(8);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
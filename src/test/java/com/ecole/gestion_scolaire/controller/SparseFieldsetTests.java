@@ -0,0 +1,187 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie les paramètres fields= (colonnes lues et renvoyées) et include= (liste rattachée lue en une requête)
+ * des listes et lectures par ID d'étudiants et de cours
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class SparseFieldsetTests {
+
+	private static final int STUDENT_COUNT = 300;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Course algebra;
+
+	private Course latin;
+
+	private Student firstStudent;
+
+	@BeforeEach
+	void seed() {
+		algebra = course("Algèbre", "Prof. Champs");
+		latin = course("Latin", "Prof. Champs");
+
+		List<Student> students = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			Student student = new Student();
+			student.setNom("Étudiant " + i);
+			student.setEmail("fields" + i + "@ecole.test");
+			student.setTelephone("0600" + i);
+			students.add(student);
+		}
+		students = studentRepository.saveAll(students);
+		firstStudent = students.get(0);
+
+		// Tous inscrits en algèbre, un sur deux en latin
+		List<Enrollment> enrollments = new ArrayList<>();
+		for (int i = 0; i < STUDENT_COUNT; i++) {
+			enrollments.add(enrollment(students.get(i), algebra));
+			if (i % 2 == 0) {
+				enrollments.add(enrollment(students.get(i), latin));
+			}
+		}
+		enrollmentRepository.saveAll(enrollments);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void fieldsRestrictTheSelectClauseAndTheResponse() throws Exception {
+		Statistics statistics = statistics();
+
+		mockMvc.perform(get("/api/students").param("fields", "nom"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(STUDENT_COUNT))
+			.andExpect(jsonPath("$[0].id").value(firstStudent.getId()))
+			.andExpect(jsonPath("$[0].nom").value("Étudiant 0"))
+			.andExpect(jsonPath("$[0].email").doesNotExist())
+			.andExpect(jsonPath("$[0].telephone").doesNotExist());
+
+		assertThat(statistics.getQueries()).hasSize(1);
+		assertThat(statistics.getQueries()[0]).contains("s.nom").doesNotContain("s.email");
+
+		mockMvc.perform(get("/api/courses").param("fields", "titre,placesRestantes"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].titre").value("Algèbre"))
+			.andExpect(jsonPath("$[0].placesRestantes").hasJsonPath())
+			.andExpect(jsonPath("$[0].professeur").doesNotExist());
+
+		mockMvc.perform(get("/api/students/" + firstStudent.getId()).param("fields", "email"))
+			.andExpect(status().isOk())
+			.andExpect(header().exists(HttpHeaders.ETAG))
+			.andExpect(jsonPath("$.email").value("fields0@ecole.test"))
+			.andExpect(jsonPath("$.nom").doesNotExist());
+
+		mockMvc.perform(get("/api/students").param("fields", "nom,motDePasse"))
+			.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/courses/" + algebra.getId()).param("include", "courses"))
+			.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void includeLoadsTheRelatedSideInOneQuery() throws Exception {
+		Statistics statistics = statistics();
+
+		mockMvc.perform(get("/api/students").param("fields", "nom").param("include", "courses"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.length()").value(STUDENT_COUNT))
+			.andExpect(jsonPath("$[0].courses.length()").value(2))
+			.andExpect(jsonPath("$[0].courses[0].titre").value("Algèbre"))
+			.andExpect(jsonPath("$[1].courses.length()").value(1));
+
+		mockMvc.perform(get("/api/courses").param("include", "students"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].students.length()").value(STUDENT_COUNT))
+			.andExpect(jsonPath("$[1].students.length()").value(STUDENT_COUNT / 2));
+
+		// Deux requêtes par liste (colonnes, puis liste rattachée), quel que soit le nombre d'éléments
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		String etag = mockMvc.perform(get("/api/students/" + firstStudent.getId()).param("include", "courses"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.nom").value("Étudiant 0"))
+			.andExpect(jsonPath("$.courses.length()").value(2))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).contains("courses");
+
+		mockMvc.perform(get("/api/students/" + firstStudent.getId()).param("include", "courses")
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		mockMvc.perform(get("/api/courses/" + latin.getId()).param("fields", "titre").param("include", "students"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.titre").value("Latin"))
+			.andExpect(jsonPath("$.professeur").doesNotExist())
+			.andExpect(jsonPath("$.students.length()").value(STUDENT_COUNT / 2));
+	}
+
+	private Course course(String titre, String professeur) {
+		Course course = new Course();
+		course.setTitre(titre);
+		course.setProfesseur(professeur);
+		return courseRepository.save(course);
+	}
+
+	private Enrollment enrollment(Student student, Course course) {
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(student);
+		enrollment.setCourse(course);
+		enrollment.setDateInscription(new Date());
+		return enrollment;
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,139 @@
+package com.ecole.gestion_scolaire.controller;
+
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie l'import d'étudiants POST /api/students/import : lecture CSV et NDJSON, doublons dans le fichier,
+ * emails déjà en base (y compris avec des espaces autour) et reprise ligne par ligne après un conflit à l'insertion
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentImportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@SpyBean
+	private StudentRepository studentRepository;
+
+	@AfterEach
+	void cleanUp() {
+		studentRepository.deleteAllInBatch();
+	}
+
+	@Test
+	void csvRowsAreParsedValidatedAndDeduplicated() throws Exception {
+		student("Déjà Inscrit", "a@x.fr");
+		clearInvocations(studentRepository);
+
+		// Séparateur ";" (export Excel), colonnes dans le désordre, champs entre guillemets avec "" échappés
+		String csv = String.join("\n",
+			"email;telephone;nom",
+			"alice@ecole.test;0601020304;\"Martin; Alice\"",
+			"",
+			"bob@ecole.test;;\"Bob \"\"le bricoleur\"\"\"",
+			"  ALICE@ecole.test ;;Alice bis",
+			" a@x.fr;;Espace devant",
+			"sans-arobase;;Claire",
+			"david@ecole.test;;",
+			"\"non fermé;;Eve");
+
+		mockMvc.perform(post("/api/students/import").contentType("text/csv").content(csv.getBytes(StandardCharsets.UTF_8)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.processed").value(7))
+			.andExpect(jsonPath("$.imported").value(2))
+			.andExpect(jsonPath("$.rejected").value(5))
+			.andExpect(jsonPath("$.rejections.length()").value(5))
+			// Numéros de ligne du fichier, en-tête et lignes vides compris
+			.andExpect(jsonPath("$.rejections[?(@.line == 9)].reason").value("Ligne illisible : guillemet non fermé"))
+			.andExpect(jsonPath("$.rejections[?(@.line == 5)].reason").value("Email en double dans le fichier."))
+			.andExpect(jsonPath("$.rejections[?(@.line == 6)].reason").value("Un étudiant avec cet email existe déjà."))
+			.andExpect(jsonPath("$.rejections[?(@.line == 7)].reason").value("Email invalide."))
+			.andExpect(jsonPath("$.rejections[?(@.line == 8)].reason").value("Le nom est obligatoire."));
+
+		Student alice = studentRepository.findByEmail("alice@ecole.test");
+		assertThat(alice.getNom()).isEqualTo("Martin; Alice");
+		assertThat(alice.getTelephone()).isEqualTo("0601020304");
+		Student bob = studentRepository.findByEmail("bob@ecole.test");
+		assertThat(bob.getNom()).isEqualTo("Bob \"le bricoleur\"");
+		assertThat(bob.getTelephone()).isNull();
+		assertThat(studentRepository.count()).isEqualTo(3);
+		// " a@x.fr" écarté par la vérification préalable : le lot est inséré d'un coup, sans reprise ligne par ligne
+		verify(studentRepository, never()).saveAndFlush(any(Student.class));
+	}
+
+	@Test
+	void ndjsonRowsAreImported() throws Exception {
+		String ndjson = String.join("\n",
+			"{\"nom\":\"Jeanne\",\"email\":\"jeanne@ecole.test\",\"telephone\":\"0700000000\"}",
+			"{\"nom\":\"Paul\",\"email\":",
+			"{\"nom\":\"Paul\",\"email\":\"paul@ecole.test\"}");
+
+		mockMvc.perform(post("/api/students/import").contentType("application/x-ndjson")
+				.content(ndjson.getBytes(StandardCharsets.UTF_8)))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.processed").value(3))
+			.andExpect(jsonPath("$.imported").value(2))
+			.andExpect(jsonPath("$.chunks").value(1))
+			.andExpect(jsonPath("$.rejections[0].line").value(2));
+
+		assertThat(studentRepository.findByEmail("jeanne@ecole.test").getTelephone()).isEqualTo("0700000000");
+		assertThat(studentRepository.existsByEmail("paul@ecole.test")).isTrue();
+	}
+
+	@Test
+	void csvWithoutRequiredColumnsIsRejected() throws Exception {
+		mockMvc.perform(post("/api/students/import").contentType("text/csv").content("nom,telephone\nAlice,0601"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().string("Erreur lors de l'import : En-tête CSV invalide : les colonnes nom et email sont obligatoires."));
+	}
+
+	@Test
+	void conflictAtInsertFallsBackToRowByRow() throws Exception {
+		student("Concurrent", "conflit@ecole.test");
+		// Email créé entre la vérification et l'insertion : la requête IN ne le voit pas encore
+		doReturn(List.of()).when(studentRepository).findExistingEmails(anyCollection());
+
+		String csv = "nom,email\nPremier,premier@ecole.test\nConflit,conflit@ecole.test\nDernier,dernier@ecole.test";
+		mockMvc.perform(post("/api/students/import").contentType("text/csv").content(csv))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.imported").value(2))
+			.andExpect(jsonPath("$.rejected").value(1))
+			.andExpect(jsonPath("$.rejections[0].line").value(3))
+			.andExpect(jsonPath("$.rejections[0].reason").value("Un étudiant avec cet email existe déjà."));
+
+		assertThat(studentRepository.existsByEmail("premier@ecole.test")).isTrue();
+		assertThat(studentRepository.existsByEmail("dernier@ecole.test")).isTrue();
+		assertThat(studentRepository.count()).isEqualTo(3);
+	}
+
+	private void student(String nom, String email) {
+		Student student = new Student();
+		student.setNom(nom);
+		student.setEmail(email);
+		studentRepository.saveAndFlush(student);
+	}
+}
@@ -0,0 +1,207 @@
+package com.ecole.gestion_scolaire.datasource;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.web.EntityTags;
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie l'aiguillage lecture/écriture avec deux bases H2 distinctes : le réplica n'est pas alimenté par
+ * réplication, ce qui permet de voir de quelle base provient chaque lecture
+ */
+@SpringBootTest(properties = {
+	"app.datasource.replica.enabled=true",
+	"app.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=MySQL;DB_CLOSE_DELAY=-1",
+	"app.datasource.replica.username=sa"
+})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+
+	private static final long REPLICA_ONLY_COURSE_ID = 900001L;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	@Qualifier("primaryDataSource")
+	private DataSource primaryDataSource;
+
+	@Autowired
+	@Qualifier("replicaDataSource")
+	private DataSource replicaDataSource;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void copySchemaToReplica() {
+		replica = new JdbcTemplate(replicaDataSource);
+		Integer tables = replica.queryForObject(
+			"select count(*) from information_schema.tables where table_name = 'COURSES'", Integer.class);
+		if (tables == 0) {
+			// Même schéma que la base principale (créé par Hibernate), sans les données
+			for (String statement : new JdbcTemplate(primaryDataSource).queryForList("SCRIPT NODATA", String.class)) {
+				replica.execute(statement);
+			}
+		}
+	}
+
+	@AfterEach
+	void cleanUp() {
+		courseRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		replica.update("delete from courses");
+		replica.update("delete from students");
+	}
+
+	@Test
+	void readOnlyTransactionsAreServedByReplica() throws Exception {
+		// Cours présent uniquement sur le réplica : il n'est visible que si la lecture y est envoyée
+		replica.update("insert into courses (id, titre, professeur, version) values (?, 'Réplique', 'Prof. Réplica', 0)",
+			REPLICA_ONLY_COURSE_ID);
+		double before = routed("replica", "read-only");
+
+		mockMvc.perform(get("/api/courses/page"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items[0].id").value(REPLICA_ONLY_COURSE_ID));
+
+		assertThat(routed("replica", "read-only")).isGreaterThan(before);
+		assertThat(new JdbcTemplate(primaryDataSource).queryForObject("select count(*) from courses", Integer.class)).isZero();
+	}
+
+	@Test
+	void cacheIsFilledFromPrimary() throws Exception {
+		Course course = new Course();
+		course.setTitre("À jour");
+		course.setProfesseur("Prof. Principal");
+		Long id = courseRepository.save(course).getId();
+		// Réplica en retard : il porte encore l'ancienne version de la ligne
+		replica.update("insert into courses (id, titre, professeur, version) values (?, 'Périmé', 'Prof. Réplica', 0)", id);
+		double before = routed("primary", "forced");
+
+		// Lecture d'un autre client (sans cookie) : le cache partagé est rempli depuis la base principale
+		MvcResult result = mockMvc.perform(get("/api/courses/" + id))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.titre").value("À jour"))
+			.andReturn();
+
+		assertThat(routed("primary", "forced")).isGreaterThan(before);
+		// Simple lecture : pas de fenêtre read-your-writes ouverte
+		assertThat(result.getResponse().getCookie(ReadYourWritesFilter.COOKIE)).isNull();
+	}
+
+	@Test
+	void readsFollowingAWriteStayOnPrimary() throws Exception {
+		double before = routed("primary", "read-your-writes");
+
+		MvcResult created = mockMvc.perform(post("/api/courses")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"titre\":\"Primaire\",\"professeur\":\"Prof. Écriture\"}"))
+			.andExpect(status().isCreated())
+			.andReturn();
+		Cookie primaryUntil = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+		assertThat(primaryUntil).isNotNull();
+		Number id = JsonPath.read(created.getResponse().getContentAsString(), "$.id");
+
+		// Sans le cookie, la lecture part sur le réplica, qui n'a pas reçu l'écriture
+		mockMvc.perform(get("/api/courses/page"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items").isEmpty());
+
+		// Avec le cookie, le même client lit sa propre écriture sur la base principale
+		mockMvc.perform(get("/api/courses/page").cookie(primaryUntil))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.items[0].id").value(id))
+			.andExpect(jsonPath("$.items[0].titre").value("Primaire"));
+
+		assertThat(routed("primary", "read-your-writes")).isGreaterThan(before);
+	}
+
+	@Test
+	void studentUpdateChecksAgainstPrimary() throws Exception {
+		Student student = new Student();
+		student.setNom("Modifié");
+		student.setEmail("modifie@ecole.test");
+		Long id = studentRepository.save(student).getId();
+		Student other = new Student();
+		other.setNom("Récent");
+		other.setEmail("recent@ecole.test");
+		studentRepository.save(other);
+		new JdbcTemplate(primaryDataSource).update("update students set version = 3 where id = ?", id);
+		// Réplica en retard : ancienne version de l'étudiant, et l'autre étudiant pas encore reçu
+		replica.update("insert into students (id, nom, email, version) values (?, 'Ancien', 'modifie@ecole.test', 0)", id);
+
+		// If-Match à jour pour la base principale : accepté
+		mockMvc.perform(put("/api/students/" + id)
+				.header(HttpHeaders.IF_MATCH, EntityTags.of("student", id, 3L))
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"nom\":\"Modifié\",\"email\":\"modifie@ecole.test\",\"telephone\":\"0600000000\"}"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.version").value(4));
+
+		// Email déjà pris sur la base principale : refusé avec le message d'unicité
+		mockMvc.perform(put("/api/students/" + id)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"nom\":\"Modifié\",\"email\":\"recent@ecole.test\"}"))
+			.andExpect(status().isBadRequest())
+			.andExpect(content().string("Erreur : Un autre étudiant avec cet email existe déjà."));
+	}
+
+	@Test
+	void forgedCookieIsCappedToTheWindow() {
+		ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		long now = System.currentTimeMillis();
+		// Date lointaine envoyée par le client : ramenée à la fenêtre read-your-writes
+		request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(now + Duration.ofDays(365).toMillis())));
+		assertThat(filter.primaryUntil(request)).isBetween(now, System.currentTimeMillis() + 5000);
+
+		// Valeur dans la fenêtre : gardée telle quelle
+		request.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(now + 1000)));
+		assertThat(filter.primaryUntil(request)).isEqualTo(now + 1000);
+	}
+
+	private double routed(String target, String reason) {
+		return meterRegistry.get(ReadWriteRoutingDataSource.METRIC_NAME)
+			.tag("target", target)
+			.tag("reason", reason)
+			.counter()
+			.count();
+	}
+}
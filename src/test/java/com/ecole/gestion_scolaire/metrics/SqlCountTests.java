@@ -0,0 +1,159 @@
+package com.ecole.gestion_scolaire.metrics;
+
+import com.ecole.gestion_scolaire.model.Course;
+import com.ecole.gestion_scolaire.model.Enrollment;
+import com.ecole.gestion_scolaire.model.Student;
+import com.ecole.gestion_scolaire.repository.CourseEnrollmentCounterRepository;
+import com.ecole.gestion_scolaire.repository.CourseRepository;
+import com.ecole.gestion_scolaire.repository.EnrollmentRepository;
+import com.ecole.gestion_scolaire.repository.StudentRepository;
+import com.ecole.gestion_scolaire.service.CachedLookupService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Vérifie le comptage des requêtes SQL par requête HTTP : en-tête X-SQL-Count égal à la valeur enregistrée
+ * dans la métrique http.server.requests.sql (taguée par endpoint), aucune requête comptée pour une lecture
+ * servie par le cache, et réponses asynchrones exclues plutôt que mesurées à zéro
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlCountTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private CourseRepository courseRepository;
+
+	@Autowired
+	private EnrollmentRepository enrollmentRepository;
+
+	@Autowired
+	private CourseEnrollmentCounterRepository counterRepository;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	private Course course;
+
+	private Student student;
+
+	@BeforeEach
+	void seed() {
+		course = new Course();
+		course.setTitre("Bases de données");
+		course.setProfesseur("Prof. Requête");
+		course = courseRepository.save(course);
+
+		student = new Student();
+		student.setNom("Compteur");
+		student.setEmail("compteur@ecole.test");
+		student = studentRepository.save(student);
+
+		Enrollment enrollment = new Enrollment();
+		enrollment.setStudent(student);
+		enrollment.setCourse(course);
+		enrollment.setDateInscription(new Date());
+		enrollmentRepository.save(enrollment);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		enrollmentRepository.deleteAllInBatch();
+		counterRepository.deleteAllInBatch();
+		studentRepository.deleteAllInBatch();
+		courseRepository.deleteAllInBatch();
+		cacheManager.getCache(CachedLookupService.COURSES_CACHE).clear();
+	}
+
+	@Test
+	void headerMatchesTheRecordedMetric() throws Exception {
+		String uri = "/api/students/{id}/courses";
+		long count = summaryCount(uri);
+		double total = summaryTotal(uri);
+
+		String header = mockMvc.perform(get("/api/students/" + student.getId() + "/courses"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(SqlCountHeaderAdvice.HEADER);
+
+		assertThat(header).isNotNull();
+		int sql = Integer.parseInt(header);
+		assertThat(sql).isPositive();
+		assertThat(summaryCount(uri)).isEqualTo(count + 1);
+		assertThat(summaryTotal(uri)).isEqualTo(total + sql);
+	}
+
+	@Test
+	void cachedReadsCountNoStatement() throws Exception {
+		String first = mockMvc.perform(get("/api/courses/" + course.getId()))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(SqlCountHeaderAdvice.HEADER);
+		String second = mockMvc.perform(get("/api/courses/" + course.getId()))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(SqlCountHeaderAdvice.HEADER);
+
+		assertThat(Integer.parseInt(first)).isPositive();
+		assertThat(second).isEqualTo("0");
+	}
+
+	@Test
+	void asynchronousResponsesAreNotMeasured() throws Exception {
+		long streamed = summaryCount("/api/students/stream");
+		MvcResult started = mockMvc.perform(get("/api/students/stream"))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		MvcResult result = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andReturn();
+		assertThat(result.getResponse().getHeader(SqlCountHeaderAdvice.HEADER)).isNull();
+		assertThat(summaryCount("/api/students/stream")).isEqualTo(streamed);
+
+		long reactive = summaryCount("/api/reactive/students/{id}");
+		started = mockMvc.perform(get("/api/reactive/students/" + student.getId()))
+			.andExpect(request().asyncStarted())
+			.andReturn();
+		result = mockMvc.perform(asyncDispatch(started))
+			.andExpect(status().isOk())
+			.andReturn();
+		assertThat(result.getResponse().getHeader(SqlCountHeaderAdvice.HEADER)).isNull();
+		assertThat(summaryCount("/api/reactive/students/{id}")).isEqualTo(reactive);
+	}
+
+	private long summaryCount(String uri) {
+		DistributionSummary summary = summary(uri);
+		return summary == null ? 0 : summary.count();
+	}
+
+	private double summaryTotal(String uri) {
+		DistributionSummary summary = summary(uri);
+		return summary == null ? 0 : summary.totalAmount();
+	}
+
+	private DistributionSummary summary(String uri) {
+		return meterRegistry.find(SqlCountFilter.METRIC_NAME).tag("method", "GET").tag("uri", uri).summary();
+	}
+}
@@ -0,0 +1,74 @@
+package com.ecole.gestion_scolaire.service;
+
+import com.ecole.gestion_scolaire.dto.StudentSearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Recherche, classement et mise à jour de l'index en mémoire (sans contexte Spring)
+ */
+class StudentSearchIndexTests {
+
+	private StudentSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new StudentSearchIndex(true);
+		index.put(1L, "Jean Dupont", "jean.dupont@ecole.test");
+		index.put(2L, "Hélène Lefèvre", "h.lefevre@ecole.test");
+		index.put(3L, "Marc Dupuis", "mdupuis@ecole.test");
+		index.put(4L, "Anne Martin", "contact.dupont@ecole.test");
+	}
+
+	@Test
+	void findsByNamePrefixIgnoringCaseAndAccents() {
+		assertThat(ids(index.search("hel", 10))).containsExactly(2L);
+		assertThat(ids(index.search("LEFEV", 10))).containsExactly(2L);
+		assertThat(ids(index.search("jean dup", 10))).containsExactly(1L);
+	}
+
+	@Test
+	void ranksNamePrefixBeforeEmailSubstring() {
+		// "Dupont" et "Dupuis" commencent par "dup" ; Anne Martin ne l'a que dans son email
+		assertThat(ids(index.search("dup", 10))).containsExactly(1L, 3L, 4L);
+		assertThat(ids(index.search("dup", 2))).containsExactly(1L, 3L);
+	}
+
+	@Test
+	void twoCharacterQueriesMatchWordStartsOnly() {
+		assertThat(ids(index.search("ma", 10))).containsExactly(3L, 4L);
+		assertThat(index.search("a", 10)).isEmpty();
+	}
+
+	@Test
+	void updatesAndDeletesAreVisibleImmediately() {
+		index.put(1L, "Jean Durand", "jean.durand@ecole.test");
+		index.remove(3L);
+
+		assertThat(ids(index.search("dup", 10))).containsExactly(4L);
+		assertThat(ids(index.search("durand", 10))).containsExactly(1L);
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void compactionKeepsLiveStudents() {
+		for (long id = 100; id < 5100; id++) {
+			index.put(id, "Temporaire " + id, "tmp" + id + "@ecole.test");
+		}
+		for (long id = 100; id < 5100; id++) {
+			index.remove(id);
+		}
+
+		assertThat(index.size()).isEqualTo(4);
+		assertThat(index.search("tempo", 10)).isEmpty();
+		assertThat(ids(index.search("dup", 10))).containsExactly(1L, 3L, 4L);
+	}
+
+	private static List<Long> ids(List<StudentSearchHit> hits) {
+		return hits.stream().map(StudentSearchHit::getId).toList();
+	}
+}